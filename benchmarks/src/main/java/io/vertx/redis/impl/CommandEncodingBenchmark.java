@@ -0,0 +1,90 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a `SET key value` request by type and size of the value, from the argument list to the bytes
+ * appended to the outgoing batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandEncodingBenchmark {
+
+  @Param({"STRING", "BYTES", "BUFFER", "LONG"})
+  public String type;
+
+  @Param({"16", "1024", "65536"})
+  public int size;
+
+  private final Charset encoding = StandardCharsets.UTF_8;
+  private List<Object> args;
+
+  @Setup
+  public void setup() {
+    final byte[] bytes = new byte[size];
+    Arrays.fill(bytes, (byte) 'x');
+
+    final Object value;
+    switch (type) {
+      case "STRING":
+        value = new String(bytes, encoding);
+        break;
+      case "BYTES":
+        value = bytes;
+        break;
+      case "BUFFER":
+        value = Buffer.buffer(bytes);
+        break;
+      default:
+        // numbers do not grow with the size, use the largest that fits in as many digits
+        value = size >= 19 ? Long.MAX_VALUE : (long) Math.pow(10, size) - 1;
+    }
+
+    args = Arrays.asList("benchmark:key", value);
+  }
+
+  @Benchmark
+  public Buffer encode() {
+    final Command<String> command = new Command<>(null, RedisCommand.SET, args, encoding, ResponseTransform.NONE, String.class);
+    // a fresh batch per flush, as the connection does
+    final Buffer batch = Buffer.buffer();
+    command.writeTo(batch);
+    return batch;
+  }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivery of pub/sub messages from the bytes read on the subscriber connection to the handler of the channel, running
+ * on the context it was registered from. The routing mirrors the one of {@link RedisConnection}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PubSubDispatchBenchmark {
+
+  static final int MESSAGES = 100;
+
+  @Param({"16", "1024"})
+  public int size;
+
+  // number of subscribed channels, the messages are spread over all of them
+  @Param({"1", "100"})
+  public int channels;
+
+  private Vertx vertx;
+  private RedisSubscriptions subscriptions;
+  private Buffer burst;
+  private volatile CountDownLatch latch;
+
+  @Setup
+  public void setup() {
+    vertx = Vertx.vertx();
+    subscriptions = new RedisSubscriptions(vertx);
+
+    final String payload = ReplyParserBenchmark.repeat('x', size);
+    burst = Buffer.buffer();
+
+    for (int i = 0; i < channels; i++) {
+      subscriptions.registerChannelSubscribeHandler("channel" + i, (channel, data) -> {
+        data[2].asType(String.class);
+        latch.countDown();
+      });
+    }
+
+    for (int i = 0; i < MESSAGES; i++) {
+      final String channel = "channel" + (i % channels);
+      burst.appendString("*3\r\n$7\r\nmessage\r\n$" + channel.length() + "\r\n" + channel + "\r\n$" + size + "\r\n" + payload + "\r\n");
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public void dispatch() throws InterruptedException {
+    latch = new CountDownLatch(MESSAGES);
+
+    new ReplyParser(reply -> {
+      final Reply[] data = (Reply[]) reply.data();
+      if (data.length == 3 && data[0].is('$') && "message".equals(data[0].asType(String.class))) {
+        subscriptions.handleChannel(data[1].asType(String.class), data);
+      }
+    }).handle(burst);
+
+    latch.await();
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of parsed replies to the types handed to the user, by {@link Reply#asType(Class)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplyDecodingBenchmark {
+
+  // number of fields of the HGETALL and LRANGE replies
+  @Param({"10", "100"})
+  public int fields;
+
+  private Reply bulk;
+  private Reply integer;
+  private Reply multi;
+
+  @Setup
+  public void setup() {
+    bulk = parse(Buffer.buffer("$64\r\n" + ReplyParserBenchmark.repeat('x', 64) + "\r\n"));
+    integer = parse(Buffer.buffer(":1234567890\r\n"));
+
+    final Buffer buffer = Buffer.buffer("*" + (fields * 2) + "\r\n");
+    for (int i = 0; i < fields; i++) {
+      final String field = "field" + i;
+      final String value = "value" + i;
+      buffer.appendString("$" + field.length() + "\r\n" + field + "\r\n");
+      buffer.appendString("$" + value.length() + "\r\n" + value + "\r\n");
+    }
+    multi = parse(buffer);
+  }
+
+  @Benchmark
+  public String string() {
+    return bulk.asType(String.class);
+  }
+
+  @Benchmark
+  public Long number() {
+    return integer.asType(Long.class);
+  }
+
+  @Benchmark
+  public JsonArray array() {
+    return multi.asType(JsonArray.class);
+  }
+
+  @Benchmark
+  public JsonObject object() {
+    return multi.asType(JsonObject.class);
+  }
+
+  private static Reply parse(Buffer buffer) {
+    final Reply[] reply = new Reply[1];
+    new ReplyParser(r -> reply[0] = r).handle(buffer);
+    return reply[0];
+  }
+}
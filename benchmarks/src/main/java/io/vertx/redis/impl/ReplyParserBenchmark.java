@@ -0,0 +1,111 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parser throughput in replies per second, on a pipelined burst delivered in a single read and on the same burst split
+ * in chunks as small as the network may deliver it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplyParserBenchmark {
+
+  static final int REPLIES = 100;
+
+  @Param({"STATUS", "INTEGER", "BULK", "MULTI"})
+  public String reply;
+
+  @Param({"16", "1024"})
+  public int chunk;
+
+  private Buffer pipelined;
+  private List<Buffer> fragmented;
+
+  @Setup
+  public void setup() {
+    final Buffer one;
+    switch (reply) {
+      case "STATUS":
+        one = Buffer.buffer("+OK\r\n");
+        break;
+      case "INTEGER":
+        one = Buffer.buffer(":1234567890\r\n");
+        break;
+      case "BULK":
+        one = Buffer.buffer("$64\r\n" + repeat('x', 64) + "\r\n");
+        break;
+      default:
+        one = Buffer.buffer("*3\r\n$7\r\nmessage\r\n$7\r\nchannel\r\n$16\r\n" + repeat('x', 16) + "\r\n");
+    }
+
+    pipelined = Buffer.buffer();
+    for (int i = 0; i < REPLIES; i++) {
+      pipelined.appendBuffer(one);
+    }
+
+    fragmented = new ArrayList<>();
+    for (int i = 0; i < pipelined.length(); i += chunk) {
+      fragmented.add(pipelined.getBuffer(i, Math.min(i + chunk, pipelined.length())));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(REPLIES)
+  public void pipelined(Blackhole bh) {
+    final ReplyParser parser = new ReplyParser(bh::consume);
+    parser.handle(pipelined);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(REPLIES)
+  public void fragmented(Blackhole bh) {
+    final ReplyParser parser = new ReplyParser(bh::consume);
+    for (Buffer buffer : fragmented) {
+      parser.handle(buffer);
+    }
+  }
+
+  static String repeat(char c, int n) {
+    final StringBuilder sb = new StringBuilder(n);
+    for (int i = 0; i < n; i++) {
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+}
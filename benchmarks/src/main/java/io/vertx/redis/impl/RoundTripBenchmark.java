@@ -0,0 +1,157 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisOptions;
+import io.vertx.test.redis.FakeRedisServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Commands sent through the {@link RedisClient} to an in-process {@link FakeRedisServer}, with up to `inFlight`
+ * commands pipelined on the connection at any time. The server can add a `latency` to each reply and split the replies
+ * in chunks of `chunkSize` bytes, to measure the client against a remote server or on fragmented reads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundTripBenchmark {
+
+  static final int COMMANDS = 256;
+
+  @Param({"1", "16", "128"})
+  public int inFlight;
+
+  @Param({"16", "1024"})
+  public int size;
+
+  @Param({"0"})
+  public long latency;
+
+  @Param({"0"})
+  public int chunkSize;
+
+  private Vertx vertx;
+  private FakeRedisServer server;
+  private RedisClient client;
+  private String value;
+
+  @Setup
+  public void setup() throws Exception {
+    vertx = Vertx.vertx();
+    server = new FakeRedisServer(vertx).fragment(chunkSize, 0);
+    for (String command : new String[]{"PING", "GET", "SET"}) {
+      server.latency(command, latency);
+    }
+
+    final CompletableFuture<Void> listen = new CompletableFuture<>();
+    server.listen(res -> listen.complete(null));
+    listen.get();
+
+    client = RedisClient.create(vertx, new RedisOptions().setHost("localhost").setPort(server.port()));
+
+    value = ReplyParserBenchmark.repeat('x', size);
+
+    final CompletableFuture<Void> set = new CompletableFuture<>();
+    client.set("benchmark:key", value, res -> set.complete(null));
+    set.get();
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    final CompletableFuture<Void> close = new CompletableFuture<>();
+    client.close(res -> close.complete(null));
+    close.get();
+    final CompletableFuture<Void> closeServer = new CompletableFuture<>();
+    server.close(res -> closeServer.complete(null));
+    closeServer.get();
+    vertx.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COMMANDS)
+  public void ping() throws InterruptedException {
+    run(handler -> client.ping(handler::handle));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COMMANDS)
+  public void get() throws InterruptedException {
+    run(handler -> client.get("benchmark:key", handler::handle));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COMMANDS)
+  public void set() throws InterruptedException {
+    run(handler -> client.set("benchmark:key", value, handler::handle));
+  }
+
+  /**
+   * Send {@link #COMMANDS} commands keeping {@link #inFlight} of them outstanding, each reply sends the next one.
+   */
+  private void run(Handler<Handler<AsyncResult<?>>> command) throws InterruptedException {
+    final CountDownLatch latch = new CountDownLatch(COMMANDS);
+    final AtomicInteger sent = new AtomicInteger();
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    final Handler<AsyncResult<?>> next = new Handler<AsyncResult<?>>() {
+      @Override
+      public void handle(AsyncResult<?> res) {
+        if (res.failed()) {
+          failure.compareAndSet(null, res.cause());
+        }
+        latch.countDown();
+        if (sent.incrementAndGet() <= COMMANDS) {
+          command.handle(this);
+        }
+      }
+    };
+
+    for (int i = 0; i < inFlight && sent.incrementAndGet() <= COMMANDS; i++) {
+      command.handle(next);
+    }
+
+    latch.await();
+
+    if (failure.get() != null) {
+      throw new IllegalStateException(failure.get());
+    }
+  }
+}
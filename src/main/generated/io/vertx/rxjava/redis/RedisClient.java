@@ -34,8 +34,12 @@ import io.vertx.redis.op.AggregateOptions;
 import io.vertx.redis.op.SetOptions;
 import io.vertx.redis.op.SortOptions;
 import io.vertx.redis.op.MigrateOptions;
+import io.vertx.redis.op.MonitorOptions;
 import io.vertx.redis.op.ScanOptions;
+import io.vertx.redis.op.Script;
 import io.vertx.rxjava.core.Vertx;
+import io.vertx.rxjava.core.streams.ReadStream;
+import io.vertx.rxjava.core.streams.WriteStream;
 import io.vertx.redis.op.FailoverOptions;
 import io.vertx.redis.op.SlotCmd;
 import io.vertx.redis.op.RangeLimitOptions;
@@ -69,6 +73,29 @@ public class RedisClient {
     return ret;
   }
 
+  /**
+   * Create a client and eagerly open its connections. The handler is called once every connection completed the
+   * handshake (`AUTH`, `SELECT`) and, if {@link io.vertx.redis.RedisOptions#setWarmUpPing} is enabled, answered a `PING`.
+   * The returned client can be used right away, commands are queued until the connections are ready. See
+   * {@link io.vertx.redis.RedisOptions#setEagerConnect} for the connections that are opened.
+   * @param vertx the vertx instance
+   * @param config the client configuration
+   * @param handler handler called when the client is ready or failed to connect
+   * @return the client
+   */
+  public static RedisClient create(Vertx vertx, RedisOptions config, Handler<AsyncResult<RedisClient>> handler) { 
+    RedisClient ret = RedisClient.newInstance(io.vertx.redis.RedisClient.create((io.vertx.core.Vertx)vertx.getDelegate(), config, new Handler<AsyncResult<io.vertx.redis.RedisClient>>() {
+      public void handle(AsyncResult<io.vertx.redis.RedisClient> ar) {
+        if (ar.succeeded()) {
+          handler.handle(io.vertx.core.Future.succeededFuture(RedisClient.newInstance(ar.result())));
+        } else {
+          handler.handle(io.vertx.core.Future.failedFuture(ar.cause()));
+        }
+      }
+    }));
+    return ret;
+  }
+
   /**
    * Close the client - when it is fully closed the handler will be called.
    * @param handler 
@@ -87,6 +114,26 @@ public class RedisClient {
     return handler;
   }
 
+  /**
+   * This will return <code>true</code> if the number of commands waiting to be written to the server reached
+   * {@link io.vertx.redis.RedisOptions#getMaxPendingCommands}. Commands sent while the queue is full are failed.
+   * @return true if the command queue is full
+   */
+  public boolean writeQueueFull() { 
+    boolean ret = delegate.writeQueueFull();
+    return ret;
+  }
+
+  /**
+   * Set a drain handler on the client. The drain handler will be called when the command queue is no longer full.
+   * @param handler the handler
+   * @return 
+   */
+  public RedisClient drainHandler(Handler<Void> handler) { 
+    delegate.drainHandler(handler);
+    return this;
+  }
+
   /**
    * Append a value to a key
    * @param key Key string
@@ -1477,6 +1524,42 @@ public class RedisClient {
     return handler;
   }
 
+  /**
+   * Execute a Lua script server side using `EVALSHA` so the source is not sent on every call. When the script is not
+   * in the server cache (e.g.: after `SCRIPT FLUSH`, a restart or a failover) it is loaded with `SCRIPT LOAD` and
+   * `EVALSHA` is sent again right after it, if the script does not compile the `SCRIPT LOAD` error is reported. Within
+   * {@link io.vertx.rxjava.redis.RedisClient#batch} and {@link io.vertx.rxjava.redis.RedisClient#watchAndRun} the script is sent with `EVAL` since there is no room for a retry. The
+   * digest is computed over the script encoded with {@link io.vertx.redis.RedisOptions#getEncoding}, like the bytes sent to the
+   * server. As with {@link io.vertx.rxjava.redis.RedisClient#eval} the reply is always a JsonArray.
+   * @param script Lua script with its SHA1 digest
+   * @param keys List of keys
+   * @param args List of argument values
+   * @param handler Handler for the result of this call.
+   * @return 
+   */
+  public RedisClient evalScript(Script script, List<String> keys, List<String> args, Handler<AsyncResult<JsonArray>> handler) { 
+    delegate.evalScript(script, keys, args, handler);
+    return this;
+  }
+
+  /**
+   * Execute a Lua script server side using `EVALSHA` so the source is not sent on every call. When the script is not
+   * in the server cache (e.g.: after `SCRIPT FLUSH`, a restart or a failover) it is loaded with `SCRIPT LOAD` and
+   * `EVALSHA` is sent again right after it, if the script does not compile the `SCRIPT LOAD` error is reported. Within
+   * {@link io.vertx.rxjava.redis.RedisClient#batch} and {@link io.vertx.rxjava.redis.RedisClient#watchAndRun} the script is sent with `EVAL` since there is no room for a retry. The
+   * digest is computed over the script encoded with {@link io.vertx.redis.RedisOptions#getEncoding}, like the bytes sent to the
+   * server. As with {@link io.vertx.rxjava.redis.RedisClient#eval} the reply is always a JsonArray.
+   * @param script Lua script with its SHA1 digest
+   * @param keys List of keys
+   * @param args List of argument values
+   * @return 
+   */
+  public Observable<JsonArray> evalScriptObservable(Script script, List<String> keys, List<String> args) { 
+    io.vertx.rx.java.ObservableFuture<JsonArray> handler = io.vertx.rx.java.RxHelper.observableFuture();
+    evalScript(script, keys, args, handler.toHandler());
+    return handler;
+  }
+
   /**
    * Determine if a key exists
    * @param key Key string
@@ -2571,6 +2654,19 @@ public class RedisClient {
     return handler;
   }
 
+  /**
+   * Listen for all requests received by the server in real time as a stream of parsed events, on a connection of its
+   * own. Each event is a JsonObject with the server `time` in seconds, the `db`, the `client` address (or `lua`), the
+   * upper case `command` name and its `args`. The stream fails and ends if the connection is lost or the client is
+   * closed.
+   * @param options sampling and command filter
+   * @return a stream of events, monitoring starts when a handler is set and stops when it is unset
+   */
+  public ReadStream<JsonObject> monitorStream(MonitorOptions options) { 
+    ReadStream<JsonObject> ret = ReadStream.newInstance(delegate.monitorStream(options));
+    return ret;
+  }
+
   /**
    * Move a key to another database
    * @param key Key to migrate
@@ -4314,7 +4410,9 @@ public class RedisClient {
   }
 
   /**
-   * Return a RedisTransaction instance
+   * Return the RedisTransaction of this client, the same instance on every call. The transaction borrows a dedicated
+   * connection so its `WATCH`/`MULTI` session is not interleaved with other commands of the client, the connection is
+   * returned once the session is over. Being shared, it holds a single session at a time, see {@link io.vertx.rxjava.redis.RedisClient#newTransaction}.
    * @return transaction instance
    */
   public RedisTransaction transaction() { 
@@ -4322,6 +4420,120 @@ public class RedisClient {
     return ret;
   }
 
+  /**
+   * Return a new RedisTransaction instance with a session of its own: it borrows its own dedicated connection, so
+   * several of them can run `WATCH`/`MULTI` sessions at the same time.
+   * @return transaction instance
+   */
+  public RedisTransaction newTransaction() { 
+    RedisTransaction ret = RedisTransaction.newInstance(delegate.newTransaction());
+    return ret;
+  }
+
+  /**
+   * Send a transaction as a single write: `MULTI`, the commands issued on the client given to the commands handler and
+   * `EXEC`. Unlike {@link io.vertx.rxjava.redis.RedisClient#transaction} the `QUEUED` acknowledgements are not reported, each command handler is
+   * called with its typed result from the `EXEC` reply.
+   * @param commands called synchronously with a client that records the commands of the transaction
+   * @param handler called with `true` once the transaction was executed or `false` if it was aborted
+   * @return self
+   */
+  public RedisClient batch(Handler<RedisClient> commands, Handler<AsyncResult<Boolean>> handler) { 
+    delegate.batch(new Handler<io.vertx.redis.RedisClient>() {
+      public void handle(io.vertx.redis.RedisClient event) {
+        commands.handle(RedisClient.newInstance(event));
+      }
+    }, handler);
+    return this;
+  }
+
+  /**
+   * Send a transaction as a single write: `MULTI`, the commands issued on the client given to the commands handler and
+   * `EXEC`. Unlike {@link io.vertx.rxjava.redis.RedisClient#transaction} the `QUEUED` acknowledgements are not reported, each command handler is
+   * called with its typed result from the `EXEC` reply.
+   * @param commands called synchronously with a client that records the commands of the transaction
+   * @return 
+   */
+  public Observable<Boolean> batchObservable(Handler<RedisClient> commands) { 
+    io.vertx.rx.java.ObservableFuture<Boolean> handler = io.vertx.rx.java.RxHelper.observableFuture();
+    batch(commands, handler.toHandler());
+    return handler;
+  }
+
+  /**
+   * Run a check-and-set on a dedicated connection. The keys are watched and the commands issued by `reads` are sent in
+   * the same write, once their handlers were called the commands issued by `writes` are sent as a single
+   * `MULTI` ... `EXEC`. When a watched key was modified in the meantime the reads and writes are run again after a
+   * short randomized backoff, see {@link io.vertx.redis.RedisOptions#setWatchRetryAttempts}.
+   * @param keys the keys to watch
+   * @param reads called with a client that records the reads, each read handler gets its result
+   * @param writes called with a client that records the writes, each write handler gets the result of the last attempt
+   * @param handler called once the writes were executed or the retries are exhausted
+   * @return self
+   */
+  public RedisClient watchAndRun(List<String> keys, Handler<RedisClient> reads, Handler<RedisClient> writes, Handler<AsyncResult<Void>> handler) { 
+    delegate.watchAndRun(keys, new Handler<io.vertx.redis.RedisClient>() {
+      public void handle(io.vertx.redis.RedisClient event) {
+        reads.handle(RedisClient.newInstance(event));
+      }
+    }, new Handler<io.vertx.redis.RedisClient>() {
+      public void handle(io.vertx.redis.RedisClient event) {
+        writes.handle(RedisClient.newInstance(event));
+      }
+    }, handler);
+    return this;
+  }
+
+  /**
+   * Run a check-and-set on a dedicated connection. The keys are watched and the commands issued by `reads` are sent in
+   * the same write, once their handlers were called the commands issued by `writes` are sent as a single
+   * `MULTI` ... `EXEC`. When a watched key was modified in the meantime the reads and writes are run again after a
+   * short randomized backoff, see {@link io.vertx.redis.RedisOptions#setWatchRetryAttempts}.
+   * @param keys the keys to watch
+   * @param reads called with a client that records the reads, each read handler gets its result
+   * @param writes called with a client that records the writes, each write handler gets the result of the last attempt
+   * @return 
+   */
+  public Observable<Void> watchAndRunObservable(List<String> keys, Handler<RedisClient> reads, Handler<RedisClient> writes) { 
+    io.vertx.rx.java.ObservableFuture<Void> handler = io.vertx.rx.java.RxHelper.observableFuture();
+    watchAndRun(keys, reads, writes, handler.toHandler());
+    return handler;
+  }
+
+  /**
+   * Return the statistics of {@link io.vertx.rxjava.redis.RedisClient#watchAndRun}: the number of `runs`, the `conflicts` that caused a retry and the
+   * runs that failed because the retries were `exhausted`. A high conflict rate points to hot keys.
+   * @return statistics
+   */
+  public JsonObject watchStats() { 
+    JsonObject ret = delegate.watchStats();
+    return ret;
+  }
+
+  /**
+   * Return the client side slow log, most recent first, see {@link io.vertx.redis.RedisOptions#setSlowLogThreshold}. Each entry
+   * has the `id`, `timestamp`, `command`, `key` (the first argument), the `requestBytes` and `replyBytes`, whether it
+   * `succeeded` and where the time was spent in microseconds: `queued` before being written, on the `wire` (including
+   * the replies to the commands ahead of it), in reply `decode` and the `total`.
+   *
+   * A long `wire` time with a small reply points to head-of-line blocking or a slow command on the server, a long
+   * `decode` time to a large reply.
+   * @return the entries, empty if the slow log is disabled
+   */
+  public JsonArray clientSlowLog() { 
+    JsonArray ret = delegate.clientSlowLog();
+    return ret;
+  }
+
+  /**
+   * Clear the client side slow log.
+   * @return self
+   */
+  public RedisClient clientSlowLogReset() { 
+    delegate.clientSlowLogReset();
+    return this;
+  }
+
   /**
    * Get the time to live for a key
    * @param key Key string
@@ -5160,6 +5372,93 @@ public class RedisClient {
     return handler;
   }
 
+  /**
+   * Incrementally iterate the keys space as a stream. The cursor is handled by the stream, the next page is requested
+   * while the current one is emitted and the scan stops while the stream is paused.
+   * @param options Scan options
+   * @return a stream of keys, the scan starts when a handler is set
+   */
+  public ReadStream<String> scanStream(ScanOptions options) { 
+    ReadStream<String> ret = ReadStream.newInstance(delegate.scanStream(options));
+    return ret;
+  }
+
+  /**
+   * Incrementally iterate the keys space of several Redis instances in parallel, e.g.: the masters of a sharded setup.
+   * Each instance is scanned with its own cursor, see {@link io.vertx.rxjava.redis.RedisClient#scanStream}, and the keys are merged into a
+   * single stream in the order they arrive. The `COUNT` of the scan options sets the page size of each scan. The merged
+   * stream is not thread safe, it emits on the context it is created on and is meant to be used from there.
+   * @param clients one client per instance
+   * @param options Scan options
+   * @param concurrency how many instances are scanned at the same time, `0` for all
+   * @return a stream of keys, the scans start when a handler is set
+   */
+  public static ReadStream<String> parallelScanStream(List<RedisClient> clients, ScanOptions options, int concurrency) { 
+    ReadStream<String> ret = ReadStream.newInstance(io.vertx.redis.RedisClient.parallelScanStream(clients.stream().map(elt -> (io.vertx.redis.RedisClient)elt.getDelegate()).collect(java.util.stream.Collectors.toList()), options, concurrency));
+    return ret;
+  }
+
+  /**
+   * Incrementally iterate the members of a set as a stream, see {@link io.vertx.rxjava.redis.RedisClient#scanStream}.
+   * @param key Key string
+   * @param options Scan options
+   * @return a stream of members, the scan starts when a handler is set
+   */
+  public ReadStream<String> sscanStream(String key, ScanOptions options) { 
+    ReadStream<String> ret = ReadStream.newInstance(delegate.sscanStream(key, options));
+    return ret;
+  }
+
+  /**
+   * Incrementally iterate the fields of a hash as a stream, see {@link io.vertx.rxjava.redis.RedisClient#scanStream}.
+   * @param key Key string
+   * @param options Scan options
+   * @return a stream of `[field, value]` pairs, the scan starts when a handler is set
+   */
+  public ReadStream<JsonArray> hscanStream(String key, ScanOptions options) { 
+    ReadStream<JsonArray> ret = ReadStream.newInstance(delegate.hscanStream(key, options));
+    return ret;
+  }
+
+  /**
+   * Incrementally iterate the members of a sorted set as a stream, see {@link io.vertx.rxjava.redis.RedisClient#scanStream}.
+   * @param key Key string
+   * @param options Scan options
+   * @return a stream of `[member, score]` pairs, the scan starts when a handler is set
+   */
+  public ReadStream<JsonArray> zscanStream(String key, ScanOptions options) { 
+    ReadStream<JsonArray> ret = ReadStream.newInstance(delegate.zscanStream(key, options));
+    return ret;
+  }
+
+  /**
+   * Delete the keys written to the stream, sending one `DEL` per batch of keys. Can be the target of a pump from
+   * {@link io.vertx.rxjava.redis.RedisClient#scanStream} to delete all the keys matching a pattern.
+   * @param batchSize number of keys per `DEL`
+   * @param handler called once the stream is ended and all keys are deleted, with the number of deleted keys
+   * @return a stream of keys
+   */
+  public WriteStream<String> delStream(int batchSize, Handler<AsyncResult<Long>> handler) { 
+    WriteStream<String> ret = WriteStream.newInstance(delegate.delStream(batchSize, handler));
+    return ret;
+  }
+
+  /**
+   * Migrate the keys written to the stream to another Redis instance, sending one `MIGRATE` per batch of keys.
+   * @param host Destination host
+   * @param port Destination port
+   * @param destdb Destination database index
+   * @param timeout Timeout in milliseconds of each batch
+   * @param options Migrate options
+   * @param batchSize number of keys per `MIGRATE`
+   * @param handler called once the stream is ended and all keys are migrated, with the number of migrated keys
+   * @return a stream of keys
+   */
+  public WriteStream<String> migrateStream(String host, int port, int destdb, long timeout, MigrateOptions options, int batchSize, Handler<AsyncResult<Long>> handler) { 
+    WriteStream<String> ret = WriteStream.newInstance(delegate.migrateStream(host, port, destdb, timeout, options, batchSize, handler));
+    return ret;
+  }
+
   /**
    * Add one or more geospatial items in the geospatial index represented using a sorted set.
    * @param key Key string
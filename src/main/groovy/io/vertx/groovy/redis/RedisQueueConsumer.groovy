@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.vertx.groovy.redis;
+import groovy.transform.CompileStatic
+import io.vertx.lang.groovy.InternalHelper
+import java.util.Map
+import io.vertx.core.json.JsonObject
+import io.vertx.groovy.core.Vertx
+import io.vertx.redis.RedisQueueOptions
+import io.vertx.core.json.JsonObject
+import io.vertx.core.AsyncResult
+import io.vertx.core.Handler
+/**
+ * A reliable consumer of a queue stored in a Redis list. Items are moved atomically to a processing list with
+ * `BRPOPLPUSH` and only removed from it once acknowledged, items that are not acknowledged within the visibility
+ * timeout are put back in the queue.
+ *
+ * The time each item was received is kept in a sorted set named after the processing list followed by `:received`.
+ * Every consumer periodically requeues a bounded number of expired items and gives a receive time to the oldest items
+ * of the processing list that have none, so the items left behind by a consumer that crashed are put back as well.
+ * The times come from the clocks of the consumers, which should therefore be roughly in sync.
+ *
+ * Items are identified by their value: the same payload in flight twice shares one receive time and is requeued or
+ * acknowledged as one, so producers should make the items unique (e.g.: by including an id).
+*/
+@CompileStatic
+public class RedisQueueConsumer {
+  private final def io.vertx.redis.RedisQueueConsumer delegate;
+  public RedisQueueConsumer(Object delegate) {
+    this.delegate = (io.vertx.redis.RedisQueueConsumer) delegate;
+  }
+  public Object getDelegate() {
+    return delegate;
+  }
+  public static RedisQueueConsumer create(Vertx vertx, RedisClient client, Map<String, Object> options) {
+    def ret = InternalHelper.safeCreate(io.vertx.redis.RedisQueueConsumer.create(vertx != null ? (io.vertx.core.Vertx)vertx.getDelegate() : null, client != null ? (io.vertx.redis.RedisClient)client.getDelegate() : null, options != null ? new io.vertx.redis.RedisQueueOptions(io.vertx.lang.groovy.InternalHelper.toJsonObject(options)) : null), io.vertx.groovy.redis.RedisQueueConsumer.class);
+    return ret;
+  }
+  /**
+   * Set the handler called with each item, every item must be acknowledged with {@link io.vertx.groovy.redis.RedisQueueConsumer#ack}. The
+   * pollers only fetch items while a handler is set.
+   * @param handler the item handler
+   * @return self
+   */
+  public RedisQueueConsumer handler(Handler<String> handler) {
+    delegate.handler(handler);
+    return this;
+  }
+  /**
+   * Start polling the queue. When called before a previous {@link io.vertx.groovy.redis.RedisQueueConsumer#stop} completed, polling starts again once
+   * the pollers of the previous run returned.
+   * @return self
+   */
+  public RedisQueueConsumer start() {
+    delegate.start();
+    return this;
+  }
+  /**
+   * Stop polling the queue, the handler is called once all pollers returned. Items in flight can still be acknowledged,
+   * the ones received after the stop are put back in the queue.
+   * @param handler called once stopped
+   */
+  public void stop(Handler<AsyncResult<Void>> handler) {
+    delegate.stop(handler);
+  }
+  /**
+   * Acknowledge an item, removing it from the processing list.
+   * @param item the item as given to the handler
+   * @param handler called once the item was removed
+   * @return self
+   */
+  public RedisQueueConsumer ack(String item, Handler<AsyncResult<Void>> handler) {
+    delegate.ack(item, handler);
+    return this;
+  }
+  /**
+   * Return the statistics of this consumer: the number of items `received`, `acked` and `requeued`, the items
+   * currently `inFlight` and the age in milliseconds of the `oldestInFlight` one, together with the length of the
+   * `queue` (the backlog) and of the `processing` list.
+   * @param handler called with the statistics
+   */
+  public void stats(Handler<AsyncResult<Map<String, Object>>> handler) {
+    delegate.stats(handler != null ? new Handler<AsyncResult<io.vertx.core.json.JsonObject>>() {
+      public void handle(AsyncResult<io.vertx.core.json.JsonObject> ar) {
+        if (ar.succeeded()) {
+          handler.handle(io.vertx.core.Future.succeededFuture((Map<String, Object>)InternalHelper.wrapObject(ar.result())));
+        } else {
+          handler.handle(io.vertx.core.Future.failedFuture(ar.cause()));
+        }
+      }
+    } : null);
+  }
+}
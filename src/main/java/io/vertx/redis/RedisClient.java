@@ -24,6 +24,8 @@ import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
 import io.vertx.redis.impl.RedisClientImpl;
 import io.vertx.redis.op.*;
 
@@ -50,6 +52,21 @@ public interface RedisClient {
     return new RedisClientImpl(vertx, config);
   }
 
+  /**
+   * Create a client and eagerly open its connections. The handler is called once every connection completed the
+   * handshake (`AUTH`, `SELECT`) and, if {@link RedisOptions#setWarmUpPing(boolean)} is enabled, answered a `PING`.
+   * The returned client can be used right away, commands are queued until the connections are ready. See
+   * {@link RedisOptions#setEagerConnect(boolean)} for the connections that are opened.
+   *
+   * @param vertx   the vertx instance
+   * @param config  the client configuration
+   * @param handler handler called when the client is ready or failed to connect
+   * @return the client
+   */
+  static RedisClient create(Vertx vertx, RedisOptions config, Handler<AsyncResult<RedisClient>> handler) {
+    return new RedisClientImpl(vertx, config, handler);
+  }
+
   /**
    * Close the client - when it is fully closed the handler will be called.
    *
@@ -57,6 +74,23 @@ public interface RedisClient {
    */
   void close(Handler<AsyncResult<Void>> handler);
 
+  /**
+   * This will return {@code true} if the number of commands waiting to be written to the server reached
+   * {@link RedisOptions#getMaxPendingCommands()}. Commands sent while the queue is full are failed.
+   *
+   * @return true if the command queue is full
+   */
+  boolean writeQueueFull();
+
+  /**
+   * Set a drain handler on the client. The drain handler will be called when the command queue is no longer full, on
+   * the context the handler was set from.
+   *
+   * @param handler the handler
+   */
+  @Fluent
+  RedisClient drainHandler(Handler<Void> handler);
+
   /**
    * Append a value to a key
    *
@@ -740,6 +774,72 @@ public interface RedisClient {
   @Fluent
   RedisClient evalsha(String sha1, List<String> keys, List<String> values, Handler<AsyncResult<JsonArray>> handler);
 
+  /**
+   * Execute a Lua script server side using `EVALSHA` so the source is not sent on every call. When the script is not
+   * in the server cache (e.g.: after `SCRIPT FLUSH`, a restart or a failover) it is loaded with `SCRIPT LOAD` and
+   * `EVALSHA` is sent again right after it, if the script does not compile the `SCRIPT LOAD` error is reported. Within
+   * {@link #batch} and {@link #watchAndRun} the script is sent with `EVAL` since there is no room for a retry. The
+   * digest is computed over the script encoded with {@link RedisOptions#getEncoding()}, like the bytes sent to the
+   * server. As with {@link #eval} the reply is always a JsonArray.
+   *
+   * @param script  Lua script with its SHA1 digest
+   * @param keys    List of keys
+   * @param args    List of argument values
+   * @param handler Handler for the result of this call.
+   * @since Redis 2.6.0
+   * group: scripting
+   */
+  @Fluent
+  RedisClient evalScript(Script script, List<String> keys, List<String> args, Handler<AsyncResult<JsonArray>> handler);
+
+  /**
+   * Execute a Lua script server side decoding the reply as the given type instead of wrapping it in a JsonArray.
+   *
+   * The supported types are `Long`, `String`, `Buffer`, `JsonArray` and `Object`. The latter returns the raw reply
+   * tree for the caller to decode: `Long` for integers, `Buffer` for bulk strings, `String` for status and error
+   * replies, `List` for tables and `null` for nil.
+   *
+   * @param type    the type of the reply
+   * @param script  Lua script to evaluate
+   * @param keys    List of keys
+   * @param args    List of argument values
+   * @param handler Handler for the result of this call.
+   * @since Redis 2.6.0
+   * group: scripting
+   */
+  @GenIgnore
+  <T> RedisClient evalAs(Class<T> type, String script, List<String> keys, List<String> args, Handler<AsyncResult<T>> handler);
+
+  /**
+   * Execute a Lua script cached on the server decoding the reply as the given type, see
+   * {@link #evalAs(Class, String, List, List, Handler)}.
+   *
+   * @param type    the type of the reply
+   * @param sha1    SHA1 digest of the script cached on the server
+   * @param keys    List of keys
+   * @param values  List of values
+   * @param handler Handler for the result of this call.
+   * @since Redis 2.6.0
+   * group: scripting
+   */
+  @GenIgnore
+  <T> RedisClient evalshaAs(Class<T> type, String sha1, List<String> keys, List<String> values, Handler<AsyncResult<T>> handler);
+
+  /**
+   * Execute a Lua script with {@link #evalScript} decoding the reply as the given type, see
+   * {@link #evalAs(Class, String, List, List, Handler)}.
+   *
+   * @param type    the type of the reply
+   * @param script  Lua script with its SHA1 digest
+   * @param keys    List of keys
+   * @param args    List of argument values
+   * @param handler Handler for the result of this call.
+   * @since Redis 2.6.0
+   * group: scripting
+   */
+  @GenIgnore
+  <T> RedisClient evalScriptAs(Class<T> type, Script script, List<String> keys, List<String> args, Handler<AsyncResult<T>> handler);
+
   /**
    * Determine if a key exists
    *
@@ -1278,6 +1378,19 @@ public interface RedisClient {
   @Fluent
   RedisClient monitor(Handler<AsyncResult<Void>> handler);
 
+  /**
+   * Listen for all requests received by the server in real time as a stream of parsed events, on a connection of its
+   * own. Each event is a JsonObject with the server `time` in seconds, the `db`, the `client` address (or `lua`), the
+   * upper case `command` name and its `args`. The stream fails and ends if the connection is lost or the client is
+   * closed.
+   *
+   * @param options sampling and command filter
+   * @return a stream of events, monitoring starts when a handler is set and stops when it is unset
+   * @since Redis 1.0.0
+   * group: server
+   */
+  ReadStream<JsonObject> monitorStream(MonitorOptions options);
+
   /**
    * Move a key to another database
    *
@@ -2142,11 +2255,92 @@ public interface RedisClient {
   RedisClient time(Handler<AsyncResult<JsonArray>> handler);
 
   /**
-   * Return a RedisTransaction instance
+   * Return the RedisTransaction of this client, the same instance on every call. The transaction borrows a dedicated
+   * connection so its `WATCH`/`MULTI` session is not interleaved with other commands of the client, the connection is
+   * returned once the session is over. Being shared, it holds a single session at a time, see {@link #newTransaction()}.
    * @return transaction instance
    */
   RedisTransaction transaction();
 
+  /**
+   * Return a new RedisTransaction instance with a session of its own: it borrows its own dedicated connection, so
+   * several of them can run `WATCH`/`MULTI` sessions at the same time.
+   * @return transaction instance
+   */
+  RedisTransaction newTransaction();
+
+  /**
+   * Send a transaction as a single write: `MULTI`, the commands issued on the client given to the commands handler and
+   * `EXEC`. Unlike {@link #transaction()} the `QUEUED` acknowledgements are not reported, each command handler is
+   * called with its typed result from the `EXEC` reply.
+   *
+   * @param commands called synchronously with a client that records the commands of the transaction
+   * @param handler called with `true` once the transaction was executed or `false` if it was aborted
+   * @return self
+   */
+  @Fluent
+  RedisClient batch(Handler<RedisClient> commands, Handler<AsyncResult<Boolean>> handler);
+
+  /**
+   * Run a check-and-set on a dedicated connection. The keys are watched and the commands issued by `reads` are sent in
+   * the same write, once their handlers were called the commands issued by `writes` are sent as a single
+   * `MULTI` ... `EXEC`. When a watched key was modified in the meantime the reads and writes are run again after a
+   * short randomized backoff, see {@link RedisOptions#setWatchRetryAttempts(int)}.
+   *
+   * @param keys the keys to watch
+   * @param reads called with a client that records the reads, each read handler gets its result
+   * @param writes called with a client that records the writes, each write handler gets the result of the last attempt
+   * @param handler called once the writes were executed or the retries are exhausted
+   * @return self
+   */
+  @Fluent
+  RedisClient watchAndRun(List<String> keys, Handler<RedisClient> reads, Handler<RedisClient> writes, Handler<AsyncResult<Void>> handler);
+
+  /**
+   * Return the statistics of {@link #watchAndRun}: the number of `runs`, the `conflicts` that caused a retry and the
+   * runs that failed because the retries were `exhausted`. A high conflict rate points to hot keys.
+   *
+   * @return statistics
+   */
+  JsonObject watchStats();
+
+  /**
+   * Add an interceptor, called for every command issued on this client after the interceptors added before it. This is
+   * the place for cross-cutting behaviour such as key prefixing, circuit breaking or caching. The commands are seen as
+   * issued, the coalescing and batching of reads enabled in the {@link RedisOptions} only happen after all interceptors.
+   *
+   * Interceptors also see the commands recorded by {@link #batch} and {@link #watchAndRun}, these must be passed on
+   * right away since the recording is over once the handler returns. Commands of a {@link #transaction()} are not
+   * intercepted.
+   *
+   * @param interceptor the interceptor
+   * @return self
+   */
+  @GenIgnore
+  @Fluent
+  RedisClient addInterceptor(RedisInterceptor interceptor);
+
+  /**
+   * Return the client side slow log, most recent first, see {@link RedisOptions#setSlowLogThreshold(long)}. Each entry
+   * has the `id`, `timestamp`, `command`, `key` (the first argument), the `requestBytes` and `replyBytes`, whether it
+   * `succeeded` and where the time was spent in microseconds: `queued` before being written, on the `wire` (including
+   * the replies to the commands ahead of it), in reply `decode` and the `total`.
+   *
+   * A long `wire` time with a small reply points to head-of-line blocking or a slow command on the server, a long
+   * `decode` time to a large reply.
+   *
+   * @return the entries, empty if the slow log is disabled
+   */
+  JsonArray clientSlowLog();
+
+  /**
+   * Clear the client side slow log.
+   *
+   * @return self
+   */
+  @Fluent
+  RedisClient clientSlowLogReset();
+
   /**
    * Get the time to live for a key
    *
@@ -2565,6 +2759,94 @@ public interface RedisClient {
   @Fluent
   RedisClient zscan(String key, String cursor, ScanOptions options, Handler<AsyncResult<JsonArray>> handler);
 
+  /**
+   * Incrementally iterate the keys space as a stream. The cursor is handled by the stream, the next page is requested
+   * while the current one is emitted and the scan stops while the stream is paused.
+   *
+   * @param options Scan options
+   * @return a stream of keys, the scan starts when a handler is set
+   * @since Redis 2.8.0
+   * group: key
+   */
+  ReadStream<String> scanStream(ScanOptions options);
+
+  /**
+   * Incrementally iterate the keys space of several Redis instances in parallel, e.g.: the masters of a sharded setup.
+   * Each instance is scanned with its own cursor, see {@link #scanStream(ScanOptions)}, and the keys are merged into a
+   * single stream in the order they arrive. The `COUNT` of the scan options sets the page size of each scan. The merged
+   * stream is not thread safe, it emits on the context it is created on and is meant to be used from there.
+   *
+   * @param clients     one client per instance
+   * @param options     Scan options
+   * @param concurrency how many instances are scanned at the same time, `0` for all
+   * @return a stream of keys, the scans start when a handler is set
+   * @since Redis 2.8.0
+   * group: key
+   */
+  static ReadStream<String> parallelScanStream(List<RedisClient> clients, ScanOptions options, int concurrency) {
+    return RedisClientImpl.parallelScanStream(clients, options, concurrency);
+  }
+
+  /**
+   * Incrementally iterate the members of a set as a stream, see {@link #scanStream(ScanOptions)}.
+   *
+   * @param key     Key string
+   * @param options Scan options
+   * @return a stream of members, the scan starts when a handler is set
+   * @since Redis 2.8.0
+   * group: set
+   */
+  ReadStream<String> sscanStream(String key, ScanOptions options);
+
+  /**
+   * Incrementally iterate the fields of a hash as a stream, see {@link #scanStream(ScanOptions)}.
+   *
+   * @param key     Key string
+   * @param options Scan options
+   * @return a stream of `[field, value]` pairs, the scan starts when a handler is set
+   * @since Redis 2.8.0
+   * group: hash
+   */
+  ReadStream<JsonArray> hscanStream(String key, ScanOptions options);
+
+  /**
+   * Incrementally iterate the members of a sorted set as a stream, see {@link #scanStream(ScanOptions)}.
+   *
+   * @param key     Key string
+   * @param options Scan options
+   * @return a stream of `[member, score]` pairs, the scan starts when a handler is set
+   * @since Redis 2.8.0
+   * group: sorted_set
+   */
+  ReadStream<JsonArray> zscanStream(String key, ScanOptions options);
+
+  /**
+   * Delete the keys written to the stream, sending one `DEL` per batch of keys. Can be the target of a pump from
+   * {@link #scanStream(ScanOptions)} to delete all the keys matching a pattern.
+   *
+   * @param batchSize number of keys per `DEL`
+   * @param handler   called once the stream is ended and all keys are deleted, with the number of deleted keys
+   * @return a stream of keys
+   * group: key
+   */
+  WriteStream<String> delStream(int batchSize, Handler<AsyncResult<Long>> handler);
+
+  /**
+   * Migrate the keys written to the stream to another Redis instance, sending one `MIGRATE` per batch of keys.
+   *
+   * @param host      Destination host
+   * @param port      Destination port
+   * @param destdb    Destination database index
+   * @param timeout   Timeout in milliseconds of each batch
+   * @param options   Migrate options
+   * @param batchSize number of keys per `MIGRATE`
+   * @param handler   called once the stream is ended and all keys are migrated, with the number of migrated keys
+   * @return a stream of keys
+   * @since Redis 3.0.6
+   * group: key
+   */
+  WriteStream<String> migrateStream(String host, int port, int destdb, long timeout, MigrateOptions options, int batchSize, Handler<AsyncResult<Long>> handler);
+
   /**
    * Add one or more geospatial items in the geospatial index represented using a sorted set.
    *
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis;
+
+/**
+ * Intercepts the commands issued on a {@link RedisClient}, see {@link RedisClient#addInterceptor(RedisInterceptor)}.
+ *
+ * An interceptor can inspect and rewrite the arguments, wrap the handler to observe the result, complete the handler
+ * itself without calling {@link RedisInvocation#proceed()} to short-circuit the command, or call it later, e.g.: once
+ * a circuit breaker lets it through.
+ */
+@FunctionalInterface
+public interface RedisInterceptor {
+
+  /**
+   * @param invocation the command, pass it on with {@link RedisInvocation#proceed()}
+   */
+  void intercept(RedisInvocation invocation);
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+import java.util.List;
+
+/**
+ * A command going through the interceptors of a client.
+ */
+public interface RedisInvocation {
+
+  /**
+   * @return the command name, e.g.: {@code GET} or {@code CLIENT SETNAME}
+   */
+  String command();
+
+  /**
+   * @return the arguments, null when there are none
+   */
+  List<?> args();
+
+  /**
+   * Replace the arguments, e.g.: to prefix the keys.
+   *
+   * @param args the new arguments
+   */
+  void args(List<?> args);
+
+  /**
+   * @return the type of the result, e.g.: {@code String} or {@code JsonArray}
+   */
+  Class<?> returnType();
+
+  /**
+   * @return the handler of the result, may be null
+   */
+  Handler<AsyncResult<Object>> handler();
+
+  /**
+   * Replace the handler, usually with one that calls the previous handler. A result passed to it must be of the
+   * {@link #returnType()}.
+   *
+   * @param handler the new handler
+   */
+  void handler(Handler<AsyncResult<Object>> handler);
+
+  /**
+   * Pass the command to the next interceptor, or send it once all interceptors were called.
+   */
+  void proceed();
+}
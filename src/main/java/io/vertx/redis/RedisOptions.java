@@ -17,8 +17,11 @@ package io.vertx.redis;
 
 import io.vertx.codegen.annotations.DataObject;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
+import java.util.List;
+
 /**
  * This object controls the connection setting to the Redis Server. There is no need to specify most of the settings
  * since it has built the following sensible defaults:
@@ -29,11 +32,20 @@ import io.vertx.core.json.JsonObject;
  * * `tcpKeepAlive`: true
  * * `tcpNoDelay`: true
  * * `binary`: false
+ * * `maxPendingCommands`: -1 (unbounded)
+ * * `maxInFlightCommands`: -1 (unbounded)
+ * * `reconnectAttempts`: 0 (no background reconnect)
+ * * `transactionPoolSize`: 4
+ * * `transactionPoolTimeout`: 10000
+ * * `watchRetryAttempts`: 10
+ * * `blockingPoolSize`: 4
+ * * `slowLogThreshold`: -1 (no client side slow log)
  *
- * However there are two extra properties that have no defaults since they are optional:
+ * However there are some extra properties that have no defaults since they are optional:
  *
  * * `auth`
  * * `select`
+ * * `clientName`
  *
  * The usage of this two extra properties is to setup required authentication and optionally the selection of the active
  * database at connection time. If you define this extra properties on every connection to Redis server this client
@@ -216,6 +228,630 @@ public class RedisOptions {
     return this;
   }
 
+  /**
+   * Get the maximum number of commands queued while the connection is not ready to write them, default -1
+   * (unbounded).
+   * @return max pending commands
+   */
+  public int getMaxPendingCommands() {
+    return json.getInteger("maxPendingCommands", -1);
+  }
+
+  /**
+   * Set the maximum number of commands queued while the connection is not ready to write them, for example during the
+   * connection handshake or when the in flight limit is reached. Once the limit is reached new commands fail
+   * immediately, use {@link io.vertx.redis.RedisClient#writeQueueFull()} to throttle before that happens.
+   * @param maxPendingCommands max pending commands, -1 for unbounded
+   * @return self
+   */
+  public RedisOptions setMaxPendingCommands(int maxPendingCommands) {
+    json.put("maxPendingCommands", maxPendingCommands);
+    return this;
+  }
+
+  /**
+   * Get the maximum number of commands written to the socket and waiting for a reply, default -1 (unbounded).
+   * @return max in flight commands
+   */
+  public int getMaxInFlightCommands() {
+    return json.getInteger("maxInFlightCommands", -1);
+  }
+
+  /**
+   * Set the maximum number of commands written to the socket and waiting for a reply. Extra commands are kept in the
+   * pending queue until replies arrive.
+   * @param maxInFlightCommands max in flight commands, -1 for unbounded
+   * @return self
+   */
+  public RedisOptions setMaxInFlightCommands(int maxInFlightCommands) {
+    json.put("maxInFlightCommands", maxInFlightCommands);
+    return this;
+  }
+
+  /**
+   * Get the number of background reconnect attempts after a connection failure, default 0 (disabled).
+   * @return reconnect attempts
+   */
+  public int getReconnectAttempts() {
+    return json.getInteger("reconnectAttempts", 0);
+  }
+
+  /**
+   * Set the number of background reconnect attempts after a connection failure. When disabled the client fails all
+   * queued commands and only tries to connect again when the next command is sent.
+   * @param reconnectAttempts reconnect attempts, 0 to disable, -1 to retry forever
+   * @return self
+   */
+  public RedisOptions setReconnectAttempts(int reconnectAttempts) {
+    json.put("reconnectAttempts", reconnectAttempts);
+    return this;
+  }
+
+  /**
+   * Get the delay in milliseconds before the first reconnect attempt, default 100.
+   * @return reconnect delay
+   */
+  public long getReconnectDelay() {
+    return json.getLong("reconnectDelay", 100L);
+  }
+
+  /**
+   * Set the delay in milliseconds before the first reconnect attempt.
+   * @param reconnectDelay reconnect delay
+   * @return self
+   */
+  public RedisOptions setReconnectDelay(long reconnectDelay) {
+    json.put("reconnectDelay", reconnectDelay);
+    return this;
+  }
+
+  /**
+   * Get the factor applied to the reconnect delay after each failed attempt, default 2.
+   * @return reconnect multiplier
+   */
+  public double getReconnectMultiplier() {
+    return json.getDouble("reconnectMultiplier", 2.0);
+  }
+
+  /**
+   * Set the factor applied to the reconnect delay after each failed attempt.
+   * @param reconnectMultiplier reconnect multiplier
+   * @return self
+   */
+  public RedisOptions setReconnectMultiplier(double reconnectMultiplier) {
+    json.put("reconnectMultiplier", reconnectMultiplier);
+    return this;
+  }
+
+  /**
+   * Get the upper bound in milliseconds of the reconnect delay, default 30000.
+   * @return max reconnect delay
+   */
+  public long getReconnectMaxDelay() {
+    return json.getLong("reconnectMaxDelay", 30000L);
+  }
+
+  /**
+   * Set the upper bound in milliseconds of the reconnect delay.
+   * @param reconnectMaxDelay max reconnect delay
+   * @return self
+   */
+  public RedisOptions setReconnectMaxDelay(long reconnectMaxDelay) {
+    json.put("reconnectMaxDelay", reconnectMaxDelay);
+    return this;
+  }
+
+  /**
+   * Get the random variation applied to each reconnect delay, default 0.2 (+/- 20%).
+   * @return reconnect jitter
+   */
+  public double getReconnectJitter() {
+    return json.getDouble("reconnectJitter", 0.2);
+  }
+
+  /**
+   * Set the random variation applied to each reconnect delay as a fraction of the delay, e.g.: `0.2` spreads the
+   * attempts of many clients between 80% and 120% of the computed delay.
+   * @param reconnectJitter reconnect jitter between 0 and 1
+   * @return self
+   */
+  public RedisOptions setReconnectJitter(double reconnectJitter) {
+    json.put("reconnectJitter", reconnectJitter);
+    return this;
+  }
+
+  /**
+   * Get whether commands are queued while a background reconnect is in progress, default true.
+   * @return queue while reconnecting
+   */
+  public boolean isQueueWhileReconnecting() {
+    return json.getBoolean("queueWhileReconnecting", true);
+  }
+
+  /**
+   * Set whether commands are queued while a background reconnect is in progress. Queued commands are limited by
+   * {@link #setMaxPendingCommands(int)}, when set to false commands fail immediately until the connection is back.
+   * @param queueWhileReconnecting queue while reconnecting
+   * @return self
+   */
+  public RedisOptions setQueueWhileReconnecting(boolean queueWhileReconnecting) {
+    json.put("queueWhileReconnecting", queueWhileReconnecting);
+    return this;
+  }
+
+  /**
+   * Get whether the connections are opened when the client is created, default false.
+   * @return eager connect
+   */
+  public boolean isEagerConnect() {
+    return json.getBoolean("eagerConnect", false);
+  }
+
+  /**
+   * Set whether the connections are opened when the client is created instead of on the first command, so the first
+   * commands do not pay for the TCP connect and the handshake. These are the connection for normal commands, the
+   * pub/sub one and the one for {@link #setBulkCommands(List) bulk commands}, with
+   * {@link #setContextAffinity(boolean) context affinity} the connection of the event loop creating the client. The
+   * connections of the other event loops and of the transaction and blocking pools are still opened on first use.
+   * @param eagerConnect eager connect
+   * @return self
+   */
+  public RedisOptions setEagerConnect(boolean eagerConnect) {
+    json.put("eagerConnect", eagerConnect);
+    return this;
+  }
+
+  /**
+   * Get whether eagerly opened connections are checked with a `PING`, default false.
+   * @return warm up ping
+   */
+  public boolean isWarmUpPing() {
+    return json.getBoolean("warmUpPing", false);
+  }
+
+  /**
+   * Set whether eagerly opened connections are checked with a `PING` before the client is reported as ready.
+   * @param warmUpPing warm up ping
+   * @return self
+   */
+  public RedisOptions setWarmUpPing(boolean warmUpPing) {
+    json.put("warmUpPing", warmUpPing);
+    return this;
+  }
+
+  /**
+   * Get the client name set at connection time.
+   * @return client name
+   */
+  public String getClientName() {
+    return json.getString("clientName");
+  }
+
+  /**
+   * Set the client name set at connection time with `CLIENT SETNAME`, making the connection easy to identify in
+   * `CLIENT LIST`.
+   * @param clientName client name
+   * @return self
+   */
+  public RedisOptions setClientName(String clientName) {
+    json.put("clientName", clientName);
+    return this;
+  }
+
+  /**
+   * Get whether the protocol version is negotiated with `HELLO` at connection time, default false.
+   * @return hello
+   */
+  public boolean isHello() {
+    return json.getBoolean("hello", false);
+  }
+
+  /**
+   * Set whether the protocol version is negotiated with `HELLO 2` at connection time. This requires Redis 6 or later.
+   * @param hello send hello
+   * @return self
+   */
+  public RedisOptions setHello(boolean hello) {
+    json.put("hello", hello);
+    return this;
+  }
+
+  /**
+   * Get the idle time in milliseconds after which a heartbeat `PING` is sent, default 0 (disabled).
+   * @return ping interval
+   */
+  public long getPingInterval() {
+    return json.getLong("pingInterval", 0L);
+  }
+
+  /**
+   * Set the idle time in milliseconds after which a heartbeat `PING` is sent. Only a connection with no command
+   * waiting for a reply is pinged, so a slow command is never mistaken for a dead server. A connection that does not
+   * answer within the ping timeout is considered dead, it is closed and its waiting commands are failed.
+   * @param pingInterval ping interval, 0 to disable
+   * @return self
+   */
+  public RedisOptions setPingInterval(long pingInterval) {
+    json.put("pingInterval", pingInterval);
+    return this;
+  }
+
+  /**
+   * Get the time in milliseconds a heartbeat `PING` can take before the connection is closed, default 5000.
+   * @return ping timeout
+   */
+  public long getPingTimeout() {
+    return json.getLong("pingTimeout", 5000L);
+  }
+
+  /**
+   * Set the time in milliseconds a heartbeat `PING` can take before the connection is closed.
+   * @param pingTimeout ping timeout
+   * @return self
+   */
+  public RedisOptions setPingTimeout(long pingTimeout) {
+    json.put("pingTimeout", pingTimeout);
+    return this;
+  }
+
+  /**
+   * Return the maximum number of dedicated connections used by transactions, default `4`.
+   * @return transaction pool size
+   */
+  public int getTransactionPoolSize() {
+    return json.getInteger("transactionPoolSize", 4);
+  }
+
+  /**
+   * Set the maximum number of dedicated connections used by transactions. A transaction borrows a connection for the
+   * duration of its `WATCH`/`MULTI` session so other commands cannot interleave with it, when all connections are in
+   * use new transactions wait for one to be returned.
+   * @param transactionPoolSize transaction pool size
+   * @return self
+   */
+  public RedisOptions setTransactionPoolSize(int transactionPoolSize) {
+    json.put("transactionPoolSize", transactionPoolSize);
+    return this;
+  }
+
+  /**
+   * Get how long in milliseconds a transaction waits for a dedicated connection, default `10000`.
+   * @return transaction pool timeout
+   */
+  public long getTransactionPoolTimeout() {
+    return json.getLong("transactionPoolTimeout", 10000L);
+  }
+
+  /**
+   * Set how long in milliseconds a transaction waits for a dedicated connection when all of them are in use. After that
+   * the commands of the transaction fail, so sessions that are never completed cannot hang the ones that follow.
+   * @param transactionPoolTimeout transaction pool timeout, -1 to wait forever
+   * @return self
+   */
+  public RedisOptions setTransactionPoolTimeout(long transactionPoolTimeout) {
+    json.put("transactionPoolTimeout", transactionPoolTimeout);
+    return this;
+  }
+
+  /**
+   * Get how many times {@link io.vertx.redis.RedisClient#watchAndRun} retries after a watched key was modified,
+   * default 10.
+   * @return watch retry attempts
+   */
+  public int getWatchRetryAttempts() {
+    return json.getInteger("watchRetryAttempts", 10);
+  }
+
+  /**
+   * Set how many times {@link io.vertx.redis.RedisClient#watchAndRun} retries after a watched key was modified.
+   * @param watchRetryAttempts watch retry attempts
+   * @return self
+   */
+  public RedisOptions setWatchRetryAttempts(int watchRetryAttempts) {
+    json.put("watchRetryAttempts", watchRetryAttempts);
+    return this;
+  }
+
+  /**
+   * Get the base delay in milliseconds before retrying after a watch conflict, default 1.
+   * @return watch retry delay
+   */
+  public long getWatchRetryDelay() {
+    return json.getLong("watchRetryDelay", 1L);
+  }
+
+  /**
+   * Set the base delay in milliseconds before retrying after a watch conflict. The delay doubles with every conflict
+   * and a random delay between 0 and that value is used, so competing clients do not retry in lock step.
+   * @param watchRetryDelay watch retry delay
+   * @return self
+   */
+  public RedisOptions setWatchRetryDelay(long watchRetryDelay) {
+    json.put("watchRetryDelay", watchRetryDelay);
+    return this;
+  }
+
+  /**
+   * Get the upper bound in milliseconds of the watch retry delay, default 100.
+   * @return max watch retry delay
+   */
+  public long getWatchRetryMaxDelay() {
+    return json.getLong("watchRetryMaxDelay", 100L);
+  }
+
+  /**
+   * Set the upper bound in milliseconds of the watch retry delay.
+   * @param watchRetryMaxDelay max watch retry delay
+   * @return self
+   */
+  public RedisOptions setWatchRetryMaxDelay(long watchRetryMaxDelay) {
+    json.put("watchRetryMaxDelay", watchRetryMaxDelay);
+    return this;
+  }
+
+  /**
+   * Return the maximum number of dedicated connections used by blocking commands, default `4`.
+   * @return blocking pool size
+   */
+  public int getBlockingPoolSize() {
+    return json.getInteger("blockingPoolSize", 4);
+  }
+
+  /**
+   * Set the maximum number of dedicated connections used by blocking commands (`BLPOP`, `BRPOP`, `BRPOPLPUSH`). These
+   * commands never go over the shared connection where they would hold back every command pipelined behind them,
+   * when all connections are blocked new blocking commands wait for one to be free.
+   * @param blockingPoolSize blocking pool size
+   * @return self
+   */
+  public RedisOptions setBlockingPoolSize(int blockingPoolSize) {
+    json.put("blockingPoolSize", blockingPoolSize);
+    return this;
+  }
+
+  /**
+   * Get the time in milliseconds a blocking command may take on top of its server side timeout, default 1000.
+   * @return blocking timeout grace
+   */
+  public long getBlockingTimeoutGrace() {
+    return json.getLong("blockingTimeoutGrace", 1000L);
+  }
+
+  /**
+   * Set the time in milliseconds a blocking command may take on top of its server side timeout. When there is no reply
+   * by then the command fails and its connection is closed, since it cannot be reused while the server considers it
+   * blocked. Commands blocking forever (a timeout of `0`) are never timed out by the client.
+   * @param blockingTimeoutGrace blocking timeout grace
+   * @return self
+   */
+  public RedisOptions setBlockingTimeoutGrace(long blockingTimeoutGrace) {
+    json.put("blockingTimeoutGrace", blockingTimeoutGrace);
+    return this;
+  }
+
+  /**
+   * Get whether each event loop gets a connection of its own, default false.
+   * @return context affinity
+   */
+  public boolean isContextAffinity() {
+    return json.getBoolean("contextAffinity", false);
+  }
+
+  /**
+   * Set whether each event loop gets a connection of its own. A client shared by verticles running on different event
+   * loops then encodes, writes, parses and completes each command on the calling event loop instead of hopping to the
+   * event loop of the shared connection and back. The verticles running on the same event loop share its connection,
+   * callers that are not on an event loop keep using the shared one.
+   * <p>
+   * The connection of an event loop belongs to the context of the first verticle that issues a command on it. When
+   * that verticle is undeployed the connection is closed with it: its commands still waiting for a reply fail and the
+   * other verticles of the event loop open a new connection with their next command.
+   * @param contextAffinity context affinity
+   * @return self
+   */
+  public RedisOptions setContextAffinity(boolean contextAffinity) {
+    json.put("contextAffinity", contextAffinity);
+    return this;
+  }
+
+  /**
+   * Get the time in microseconds from which a command is recorded in the client side slow log, default -1 (disabled).
+   * @return slow log threshold
+   */
+  public long getSlowLogThreshold() {
+    return json.getLong("slowLogThreshold", -1L);
+  }
+
+  /**
+   * Set the time in microseconds from which a command is recorded in the client side slow log, see
+   * {@link io.vertx.redis.RedisClient#clientSlowLog()}. Unlike `SLOWLOG` the time is measured from the moment the
+   * command is handed to a connection until its reply is decoded. A negative value disables the slow log, `0` records
+   * every command.
+   * @param slowLogThreshold slow log threshold
+   * @return self
+   */
+  public RedisOptions setSlowLogThreshold(long slowLogThreshold) {
+    json.put("slowLogThreshold", slowLogThreshold);
+    return this;
+  }
+
+  /**
+   * Get the number of entries kept in the client side slow log, default 128.
+   * @return slow log length
+   */
+  public int getSlowLogMaxLen() {
+    return json.getInteger("slowLogMaxLen", 128);
+  }
+
+  /**
+   * Set the number of entries kept in the client side slow log, once full the oldest entries are dropped.
+   * @param slowLogMaxLen slow log length
+   * @return self
+   */
+  public RedisOptions setSlowLogMaxLen(int slowLogMaxLen) {
+    json.put("slowLogMaxLen", slowLogMaxLen);
+    return this;
+  }
+
+  /**
+   * Get the size in bytes from which a reply is reported as large, default -1 (disabled).
+   * @return large reply threshold
+   */
+  public int getLargeReplyThreshold() {
+    return json.getInteger("largeReplyThreshold", -1);
+  }
+
+  /**
+   * Set the size in bytes from which a reply is reported as large, with a warning in the log and to the
+   * {@link io.vertx.redis.spi.RedisMetrics}. Since a connection answers in order, a large reply delays all the commands
+   * behind it, such commands are candidates for {@link #setBulkCommands(List)}.
+   * @param largeReplyThreshold large reply threshold
+   * @return self
+   */
+  public RedisOptions setLargeReplyThreshold(int largeReplyThreshold) {
+    json.put("largeReplyThreshold", largeReplyThreshold);
+    return this;
+  }
+
+  /**
+   * Get the time in milliseconds from which a reply holding back other commands is reported, default -1 (disabled).
+   * @return head of line threshold
+   */
+  public long getHeadOfLineThreshold() {
+    return json.getLong("headOfLineThreshold", -1L);
+  }
+
+  /**
+   * Set the time in milliseconds from which a reply holding back other commands is reported, with a warning in the log
+   * and to the {@link io.vertx.redis.spi.RedisMetrics}. The time of a reply is counted from the previous reply on the
+   * connection, or from its write if that was later, so only the command actually causing the delay is reported and
+   * not the ones stuck behind it.
+   * @param headOfLineThreshold head of line threshold
+   * @return self
+   */
+  public RedisOptions setHeadOfLineThreshold(long headOfLineThreshold) {
+    json.put("headOfLineThreshold", headOfLineThreshold);
+    return this;
+  }
+
+  /**
+   * Get the number of commands that must be queued behind a slow reply for it to be reported, default 1.
+   * @return head of line queue size
+   */
+  public int getHeadOfLineQueueSize() {
+    return json.getInteger("headOfLineQueueSize", 1);
+  }
+
+  /**
+   * Set the number of commands that must be queued behind a slow reply for it to be reported, see
+   * {@link #setHeadOfLineThreshold(long)}.
+   * @param headOfLineQueueSize head of line queue size
+   * @return self
+   */
+  public RedisOptions setHeadOfLineQueueSize(int headOfLineQueueSize) {
+    json.put("headOfLineQueueSize", headOfLineQueueSize);
+    return this;
+  }
+
+  /**
+   * Get the commands sent on a connection of their own, default none.
+   * @return bulk commands
+   */
+  @SuppressWarnings("unchecked")
+  public List<String> getBulkCommands() {
+    return json.getJsonArray("bulkCommands", new JsonArray()).getList();
+  }
+
+  /**
+   * Set the commands sent on a connection of their own, e.g.: `KEYS`, `LRANGE` or `HGETALL` on large values, so their
+   * replies do not hold back the other commands. Commands with several words are separated by a space, e.g.:
+   * `CLUSTER NODES`. Note that commands on different connections are not ordered relative to each other.
+   * @param bulkCommands bulk commands
+   * @return self
+   */
+  public RedisOptions setBulkCommands(List<String> bulkCommands) {
+    json.put("bulkCommands", new JsonArray(bulkCommands));
+    return this;
+  }
+
+  /**
+   * Add a command sent on a connection of its own, see {@link #setBulkCommands(List)}.
+   * @param bulkCommand bulk command
+   * @return self
+   */
+  public RedisOptions addBulkCommand(String bulkCommand) {
+    JsonArray bulkCommands = json.getJsonArray("bulkCommands");
+    if (bulkCommands == null) {
+      bulkCommands = new JsonArray();
+      json.put("bulkCommands", bulkCommands);
+    }
+    bulkCommands.add(bulkCommand);
+    return this;
+  }
+
+  /**
+   * Get whether identical concurrent reads are coalesced, default false.
+   * @return coalesce reads
+   */
+  public boolean isCoalesceReads() {
+    return json.getBoolean("coalesceReads", false);
+  }
+
+  /**
+   * Set whether identical concurrent reads are coalesced. While a read command (e.g.: `GET`, `HGETALL`, `LRANGE`) is
+   * waiting for its reply, the same command with the same arguments is not sent again but completed with the same
+   * result, which cuts the traffic of a stampede on a hot key. Any other command issued in the meantime starts a new
+   * read, so a read never returns a value older than a write issued before it.
+   * @param coalesceReads coalesce reads
+   * @return self
+   */
+  public RedisOptions setCoalesceReads(boolean coalesceReads) {
+    json.put("coalesceReads", coalesceReads);
+    return this;
+  }
+
+  /**
+   * Get the time in milliseconds `GET` and `HGET` commands are collected to be sent as one, default -1 (disabled).
+   * @return read batch window
+   */
+  public long getReadBatchWindow() {
+    return json.getLong("readBatchWindow", -1L);
+  }
+
+  /**
+   * Set the time in milliseconds `GET` and `HGET` commands are collected to be sent as one `MGET` and one `HMGET` per
+   * hash, trading a bounded delay for fewer commands. With `0` the commands issued in the same event loop turn are
+   * collected. Any other command sends the collected ones first, so the order of the commands of an event loop is kept.
+   *
+   * Note that the batching changes the outcome of a `GET` on a key holding another type: merged into `MGET` it
+   * completes with `null`, where on its own it fails with `WRONGTYPE`. Leave the batching disabled when that error is
+   * relied upon. `HGET` is not affected, `HMGET` fails the same way for a key that is not a hash.
+   * @param readBatchWindow read batch window
+   * @return self
+   */
+  public RedisOptions setReadBatchWindow(long readBatchWindow) {
+    json.put("readBatchWindow", readBatchWindow);
+    return this;
+  }
+
+  /**
+   * Get the number of commands from which a read batch is sent without waiting for the window to end, default 64.
+   * @return read batch size
+   */
+  public int getReadBatchSize() {
+    return json.getInteger("readBatchSize", 64);
+  }
+
+  /**
+   * Set the number of commands from which a read batch is sent without waiting for the window to end.
+   * @param readBatchSize read batch size
+   * @return self
+   */
+  public RedisOptions setReadBatchSize(int readBatchSize) {
+    json.put("readBatchSize", readBatchSize);
+    return this;
+  }
+
   public RedisOptions() {
     json = new JsonObject();
   }
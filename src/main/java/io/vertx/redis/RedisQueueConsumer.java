@@ -0,0 +1,91 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis;
+
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.redis.impl.RedisQueueConsumerImpl;
+
+/**
+ * A reliable consumer of a queue stored in a Redis list. Items are moved atomically to a processing list with
+ * `BRPOPLPUSH` and only removed from it once acknowledged, items that are not acknowledged within the visibility
+ * timeout are put back in the queue.
+ *
+ * The time each item was received is kept in a sorted set named after the processing list followed by `:received`.
+ * Every consumer periodically requeues a bounded number of expired items and gives a receive time to the oldest items
+ * of the processing list that have none, so the items left behind by a consumer that crashed are put back as well.
+ * The times come from the clocks of the consumers, which should therefore be roughly in sync.
+ *
+ * Items are identified by their value: the same payload in flight twice shares one receive time and is requeued or
+ * acknowledged as one, so producers should make the items unique (e.g.: by including an id).
+ */
+@VertxGen
+public interface RedisQueueConsumer {
+
+  static RedisQueueConsumer create(Vertx vertx, RedisClient client, RedisQueueOptions options) {
+    return new RedisQueueConsumerImpl(vertx, client, options);
+  }
+
+  /**
+   * Set the handler called with each item, every item must be acknowledged with {@link #ack(String, Handler)}. The
+   * pollers only fetch items while a handler is set.
+   *
+   * @param handler the item handler
+   * @return self
+   */
+  @Fluent
+  RedisQueueConsumer handler(Handler<String> handler);
+
+  /**
+   * Start polling the queue. When called before a previous {@link #stop(Handler)} completed, polling starts again once
+   * the pollers of the previous run returned.
+   *
+   * @return self
+   */
+  @Fluent
+  RedisQueueConsumer start();
+
+  /**
+   * Stop polling the queue, the handler is called once all pollers returned. Items in flight can still be acknowledged,
+   * the ones received after the stop are put back in the queue.
+   *
+   * @param handler called once stopped
+   */
+  void stop(Handler<AsyncResult<Void>> handler);
+
+  /**
+   * Acknowledge an item, removing it from the processing list.
+   *
+   * @param item    the item as given to the handler
+   * @param handler called once the item was removed
+   * @return self
+   */
+  @Fluent
+  RedisQueueConsumer ack(String item, Handler<AsyncResult<Void>> handler);
+
+  /**
+   * Return the statistics of this consumer: the number of items `received`, `acked` and `requeued`, the items
+   * currently `inFlight` and the age in milliseconds of the `oldestInFlight` one, together with the length of the
+   * `queue` (the backlog) and of the `processing` list.
+   *
+   * @param handler called with the statistics
+   */
+  void stats(Handler<AsyncResult<JsonObject>> handler);
+}
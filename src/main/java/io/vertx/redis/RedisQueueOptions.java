@@ -0,0 +1,166 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * This object controls a {@link RedisQueueConsumer}. Only the name of the queue is required, the other settings have
+ * the following defaults:
+ *
+ * * `processingQueue`: the queue name followed by `:processing`
+ * * `pollers`: 1
+ * * `maxInFlight`: 16
+ * * `pollTimeout`: 1 (second)
+ * * `visibilityTimeout`: 30000 (milliseconds)
+ *
+ * Each poller holds a connection of the blocking pool of the client, see {@link RedisOptions#setBlockingPoolSize(int)}.
+ */
+@DataObject
+public class RedisQueueOptions {
+
+  private final JsonObject json;
+
+  /**
+   * Return the name of the list items are consumed from.
+   * @return queue name
+   */
+  public String getQueue() {
+    return json.getString("queue");
+  }
+
+  /**
+   * Set the name of the list items are consumed from, producers push items on the left (`LPUSH`).
+   * @param queue queue name
+   * @return self
+   */
+  public RedisQueueOptions setQueue(String queue) {
+    json.put("queue", queue);
+    return this;
+  }
+
+  /**
+   * Return the name of the list holding the items that are being processed, default the queue name followed by
+   * `:processing`.
+   * @return processing queue name
+   */
+  public String getProcessingQueue() {
+    return json.getString("processingQueue", getQueue() + ":processing");
+  }
+
+  /**
+   * Set the name of the list holding the items that are being processed until they are acknowledged.
+   * @param processingQueue processing queue name
+   * @return self
+   */
+  public RedisQueueOptions setProcessingQueue(String processingQueue) {
+    json.put("processingQueue", processingQueue);
+    return this;
+  }
+
+  /**
+   * Return the number of concurrent `BRPOPLPUSH` pollers, default 1.
+   * @return pollers
+   */
+  public int getPollers() {
+    return json.getInteger("pollers", 1);
+  }
+
+  /**
+   * Set the number of concurrent `BRPOPLPUSH` pollers. Each poller holds a connection of the blocking pool of the
+   * client, the pollers beyond {@link RedisOptions#getBlockingPoolSize()} (all consumers of the client included) wait
+   * for a connection instead of polling.
+   * @param pollers pollers
+   * @return self
+   */
+  public RedisQueueOptions setPollers(int pollers) {
+    json.put("pollers", pollers);
+    return this;
+  }
+
+  /**
+   * Return the maximum number of items handed out and not yet acknowledged, default 16.
+   * @return max in flight items
+   */
+  public int getMaxInFlight() {
+    return json.getInteger("maxInFlight", 16);
+  }
+
+  /**
+   * Set the maximum number of items handed out and not yet acknowledged. Once reached the pollers stop fetching until
+   * an item is acknowledged, so a slow consumer does not take items other consumers could process.
+   * @param maxInFlight max in flight items
+   * @return self
+   */
+  public RedisQueueOptions setMaxInFlight(int maxInFlight) {
+    json.put("maxInFlight", maxInFlight);
+    return this;
+  }
+
+  /**
+   * Return the server side timeout in seconds of each `BRPOPLPUSH`, default 1.
+   * @return poll timeout
+   */
+  public int getPollTimeout() {
+    return json.getInteger("pollTimeout", 1);
+  }
+
+  /**
+   * Set the server side timeout in seconds of each `BRPOPLPUSH`, this is also how long a stop can take.
+   * @param pollTimeout poll timeout
+   * @return self
+   */
+  public RedisQueueOptions setPollTimeout(int pollTimeout) {
+    json.put("pollTimeout", pollTimeout);
+    return this;
+  }
+
+  /**
+   * Return the time in milliseconds an item can stay unacknowledged before it is put back in the queue, default 30000.
+   * @return visibility timeout
+   */
+  public long getVisibilityTimeout() {
+    return json.getLong("visibilityTimeout", 30000L);
+  }
+
+  /**
+   * Set the time in milliseconds an item can stay unacknowledged before it is put back in the queue for another
+   * attempt, `0` to never requeue.
+   * @param visibilityTimeout visibility timeout
+   * @return self
+   */
+  public RedisQueueOptions setVisibilityTimeout(long visibilityTimeout) {
+    json.put("visibilityTimeout", visibilityTimeout);
+    return this;
+  }
+
+  public RedisQueueOptions() {
+    json = new JsonObject();
+  }
+
+  public RedisQueueOptions(JsonObject json) {
+    this.json = json.copy();
+  }
+
+  public RedisQueueOptions(RedisQueueOptions options) {
+    this(options.toJSON());
+  }
+
+  public JsonObject toJSON() {
+    return json;
+  }
+}
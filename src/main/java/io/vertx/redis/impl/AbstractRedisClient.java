@@ -20,26 +20,71 @@ import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisInterceptor;
 import io.vertx.redis.RedisOptions;
+import io.vertx.redis.spi.RedisMetrics;
+import io.vertx.redis.spi.RedisMetricsFactory;
+import io.vertx.redis.spi.RedisTracer;
+import io.vertx.redis.spi.RedisTracerFactory;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public abstract class AbstractRedisClient implements RedisClient {
 
+  private static final RedisMetricsFactory METRICS_FACTORY = ServiceHelper.loadFactoryOrNull(RedisMetricsFactory.class);
+  private static final RedisTracerFactory TRACER_FACTORY = ServiceHelper.loadFactoryOrNull(RedisTracerFactory.class);
+
+  private final Vertx vertx;
+  private final RedisOptions config;
   private final EventBus eb;
   private final RedisSubscriptions subscriptions;
   private final String encoding;
   private final Charset charset;
   private final Charset binaryCharset;
   private final String baseAddress;
+  private final boolean warmUpPing;
+  private final RedisMetrics metrics;
+  // null unless enabled
+  private final SlowLog slowLog;
+  // null unless a tracer is available
+  private final RedisTracer tracer;
 
   // we need 2 connections, one for normal commands and a second in case we do pub/sub
   private final RedisConnection redis;
   private final RedisConnection pubsub;
+  // when enabled, a connection per event loop thread so commands never hop to another thread
+  private final Map<Thread, RedisConnection> affine;
+  // dedicated connection for the commands with large replies, null when there are none
+  private final RedisConnection bulk;
+  private final Set<RedisCommand> bulkCommands;
+  // dedicated connections for transactions, so they are not interleaved with other commands
+  private final RedisConnectionPool transactions;
+  // dedicated connections for blocking commands, so they do not hold back the pipeline
+  private final RedisConnectionPool blocking;
+  private final long blockingTimeoutGrace;
+  // the connections of the monitor streams, each one listens to MONITOR alone
+  private final Set<RedisConnection> monitors;
+  // copy on write, shared with the recording clients
+  private final AtomicReference<RedisInterceptor[]> interceptors;
+  // the built-in interceptors run after the ones added by the user, null unless enabled
+  private final SingleFlight singleFlight;
+  private final ReadBatcher readBatcher;
+  private final int builtIns;
+  // when set commands are only recorded, to be sent later as a batch
+  private final List<Command<?>> recorder;
 
   AbstractRedisClient(Vertx vertx, RedisOptions config) {
+    this.vertx = vertx;
+    this.config = config;
     this.eb = vertx.eventBus();
     this.encoding = config.getEncoding();
     this.charset = Charset.forName(encoding);
@@ -47,27 +92,258 @@ public abstract class AbstractRedisClient implements RedisClient {
     this.baseAddress = config.getAddress();
 
     subscriptions = new RedisSubscriptions(vertx);
+    metrics = METRICS_FACTORY == null ? RedisMetrics.NOOP : METRICS_FACTORY.create(vertx, config);
+    slowLog = config.getSlowLogThreshold() >= 0 ? new SlowLog(config.getSlowLogThreshold(), config.getSlowLogMaxLen()) : null;
+    tracer = TRACER_FACTORY == null ? null : TRACER_FACTORY.create(vertx, config);
+
+    redis = new RedisConnection(vertx, config, null, metrics, slowLog, tracer);
+    affine = config.isContextAffinity() ? new ConcurrentHashMap<>() : null;
+    pubsub = new RedisConnection(vertx, config, subscriptions, metrics, slowLog, tracer);
+    bulkCommands = EnumSet.noneOf(RedisCommand.class);
+    for (String command : config.getBulkCommands()) {
+      bulkCommands.add(RedisCommand.valueOf(command.trim().toUpperCase().replace(' ', '_')));
+    }
+    bulk = bulkCommands.isEmpty() ? null : new RedisConnection(vertx, config, null, metrics, slowLog, tracer);
+    // no heartbeat on the dedicated connections: a PING sent between MULTI and EXEC would be queued in the transaction
+    // and one stuck behind a blocked command would time out and close a healthy connection
+    final RedisOptions dedicated = new RedisOptions(config).setPingInterval(0);
+    // the pooled connections belong to the client, not to the context of whoever borrows them first
+    final Context context = vertx.getOrCreateContext();
+    transactions = new RedisConnectionPool(vertx, context, dedicated, config.getTransactionPoolSize(), config.getTransactionPoolTimeout(), metrics, slowLog, tracer);
+    // blocking commands are expected to wait, for the server as much as for a connection
+    blocking = new RedisConnectionPool(vertx, context, dedicated, config.getBlockingPoolSize(), -1, metrics, slowLog, tracer);
+    this.blockingTimeoutGrace = config.getBlockingTimeoutGrace();
+    monitors = ConcurrentHashMap.newKeySet();
+
+    this.warmUpPing = config.isWarmUpPing();
+    final List<RedisInterceptor> builtIn = new ArrayList<>();
+    singleFlight = config.isCoalesceReads() ? new SingleFlight() : null;
+    if (singleFlight != null) {
+      builtIn.add(singleFlight);
+    }
+    readBatcher = config.getReadBatchWindow() >= 0 ? new ReadBatcher(vertx, config.getReadBatchWindow(), config.getReadBatchSize()) : null;
+    if (readBatcher != null) {
+      builtIn.add(readBatcher);
+    }
+    builtIns = builtIn.size();
+    this.interceptors = new AtomicReference<>(builtIn.toArray(new RedisInterceptor[builtIn.size()]));
+    this.recorder = null;
+  }
 
-    redis = new RedisConnection(vertx, config, null);
-    pubsub = new RedisConnection(vertx, config, subscriptions);
+  /**
+   * Create a client that records the commands issued on it instead of sending them.
+   */
+  AbstractRedisClient(AbstractRedisClient client, List<Command<?>> recorder) {
+    this.vertx = client.vertx;
+    this.config = client.config;
+    this.eb = client.eb;
+    this.encoding = client.encoding;
+    this.charset = client.charset;
+    this.binaryCharset = client.binaryCharset;
+    this.baseAddress = client.baseAddress;
+    this.subscriptions = client.subscriptions;
+
+    this.redis = client.redis;
+    this.affine = client.affine;
+    this.pubsub = client.pubsub;
+    this.bulk = client.bulk;
+    this.bulkCommands = client.bulkCommands;
+    this.transactions = client.transactions;
+    this.blocking = client.blocking;
+    this.blockingTimeoutGrace = client.blockingTimeoutGrace;
+    this.monitors = client.monitors;
+
+    this.warmUpPing = client.warmUpPing;
+    this.interceptors = client.interceptors;
+    this.singleFlight = client.singleFlight;
+    this.readBatcher = client.readBatcher;
+    this.builtIns = client.builtIns;
+    this.metrics = client.metrics;
+    this.slowLog = client.slowLog;
+    this.tracer = client.tracer;
+    this.recorder = recorder;
+  }
+
+  /**
+   * Eagerly connect the shared connections and perform their handshake, optionally checking each one with a PING.
+   *
+   * @param handler called once all connections are ready or as soon as one fails
+   */
+  void warmUp(Handler<AsyncResult<Void>> handler) {
+    final List<RedisConnection> connections = new ArrayList<>();
+    connections.add(redis);
+    connections.add(pubsub);
+    if (bulk != null) {
+      connections.add(bulk);
+    }
+    // with context affinity only the connection of the calling event loop is known, the others are opened on the
+    // first command of their event loop
+    final RedisConnection current = connection();
+    if (current != redis) {
+      connections.add(current);
+    }
+    final AtomicInteger cnt = new AtomicInteger(connections.size());
+    final AtomicBoolean failed = new AtomicBoolean();
+
+    final Handler<AsyncResult<Void>> cb = res -> {
+      if (res.failed()) {
+        if (failed.compareAndSet(false, true)) {
+          handler.handle(res);
+        }
+      } else if (cnt.decrementAndGet() == 0) {
+        handler.handle(Future.succeededFuture());
+      }
+    };
+
+    for (RedisConnection connection : connections) {
+      connection.connect(connect -> {
+        if (connect.succeeded() && warmUpPing) {
+          connection.send(new Command<>(Vertx.currentContext(), RedisCommand.PING, null, charset, ResponseTransform.NONE, Void.class).handler(cb));
+        } else {
+          cb.handle(connect);
+        }
+      });
+    }
   }
 
   @Override
   public synchronized void close(Handler<AsyncResult<Void>> handler) {
+    if (recorder != null) {
+      // the connections belong to the client the commands are recorded for
+      handler.handle(Future.succeededFuture());
+      return;
+    }
+
     // this is a special case it should sent the message QUIT and then close the sockets
-    final AtomicInteger cnt = new AtomicInteger(0);
+    final List<RedisConnection> connections = new ArrayList<>();
+    connections.add(redis);
+    if (bulk != null) {
+      connections.add(bulk);
+    }
+    if (affine != null) {
+      connections.addAll(affine.values());
+      affine.clear();
+    }
+
+    final AtomicInteger cnt = new AtomicInteger(connections.size() + 3);
 
     final Handler<AsyncResult<Void>> cb = v -> {
-      if (cnt.incrementAndGet() == 2) {
+      if (cnt.decrementAndGet() == 0) {
+        metrics.close();
         handler.handle(Future.succeededFuture());
       }
     };
 
-    redis.disconnect(cb);
+    for (RedisConnection connection : connections) {
+      connection.disconnect(cb);
+    }
     pubsub.disconnect(cb);
+    transactions.close(cb);
+    blocking.close(cb);
+
+    // QUIT would be answered among the events, the monitor connections are dropped
+    for (RedisConnection monitor : monitors) {
+      monitor.kill("Client closed");
+    }
+    monitors.clear();
+  }
+
+  /**
+   * Whether the client was closed, unlike the shared connections the blocking pool is not reopened by later commands.
+   */
+  final boolean isClosed() {
+    return blocking.isClosed();
+  }
+
+  /**
+   * Open a connection for a monitor stream, it is closed with the client unless closed before.
+   */
+  final RedisConnection openMonitorConnection() {
+    // no heartbeat, the connection only listens, and no reconnect, MONITOR would not be sent again
+    final RedisConnection connection = new RedisConnection(vertx, new RedisOptions(config).setPingInterval(0).setReconnectAttempts(0), null);
+    monitors.add(connection);
+    return connection;
+  }
+
+  final void closeMonitorConnection(RedisConnection connection, String message) {
+    monitors.remove(connection);
+    connection.kill(message);
+  }
+
+  /**
+   * Borrow a dedicated connection for a transaction, fails if none is returned within the transaction pool timeout.
+   */
+  final void acquireTransactionConnection(Handler<AsyncResult<RedisConnection>> handler) {
+    transactions.acquire(handler);
+  }
+
+  /**
+   * Return a dedicated connection once the transaction is over.
+   */
+  final void releaseTransactionConnection(RedisConnection connection) {
+    transactions.release(connection);
   }
 
-  private ResponseTransform getResponseTransformFor(RedisCommand command) {
+  /**
+   * Drop a dedicated connection whose session state is unknown, e.g.: it was lost in the middle of a transaction.
+   */
+  final void discardTransactionConnection(RedisConnection connection, String message) {
+    transactions.discard(connection);
+    connection.kill(message);
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return connection().writeQueueFull();
+  }
+
+  @Override
+  public RedisClient drainHandler(Handler<Void> handler) {
+    if (handler == null) {
+      connection().drainHandler(null);
+    } else {
+      // the queue drains on the connection context, the handler runs on the context that set it
+      final Context context = Vertx.currentContext();
+      connection().drainHandler(context == null ? handler : v -> Contexts.run(context, handler));
+    }
+    return this;
+  }
+
+  /**
+   * Return the connection for normal commands, with context affinity this is the connection of the calling event loop.
+   */
+  private RedisConnection connection() {
+    if (affine != null) {
+      final Context context = Vertx.currentContext();
+
+      if (context != null && context.isEventLoopContext() && Context.isOnEventLoopThread()) {
+        // the contexts of an event loop share its connection, only ever accessed from the event loop thread
+        final Thread thread = Thread.currentThread();
+        RedisConnection connection = affine.get(thread);
+
+        if (connection == null) {
+          // created on the calling context, so its socket and timers belong to it and it is closed with it, the other
+          // contexts of the event loop then get a new one with their next command
+          final RedisConnection created = new RedisConnection(vertx, context, config, null, metrics, slowLog, tracer);
+          affine.put(thread, created);
+          context.addCloseHook(completion -> {
+            if (affine.remove(thread, created)) {
+              created.disconnect(completion);
+            } else {
+              // already closed with the client
+              completion.handle(Future.succeededFuture());
+            }
+          });
+          connection = created;
+        }
+        return connection;
+      }
+    }
+
+    return redis;
+  }
+
+  private ResponseTransform getResponseTransformFor(RedisCommand command, Class<?> returnType) {
     if (command == RedisCommand.HGETALL) {
       return ResponseTransform.HASH;
     }
@@ -75,13 +351,67 @@ public abstract class AbstractRedisClient implements RedisClient {
       return ResponseTransform.INFO;
     }
 
-    if (command == RedisCommand.EVAL || command == RedisCommand.EVALSHA) {
+    // scripts can reply anything, only wrap it when a JsonArray is expected
+    if ((command == RedisCommand.EVAL || command == RedisCommand.EVALSHA) && returnType == JsonArray.class) {
       return ResponseTransform.ARRAY;
     }
 
     return ResponseTransform.NONE;
   }
 
+  final Vertx vertx() {
+    return vertx;
+  }
+
+  final RedisOptions config() {
+    return config;
+  }
+
+  final Charset charset() {
+    return charset;
+  }
+
+  final RedisMetrics metrics() {
+    return metrics;
+  }
+
+  final SlowLog slowLog() {
+    return slowLog;
+  }
+
+  /**
+   * Send the commands as a single `MULTI` ... `EXEC` write on the normal connection.
+   */
+  final void sendBatch(final List<Command<?>> commands, final Handler<AsyncResult<Boolean>> resultHandler) {
+    bypass();
+    connection().send(newBatch(commands, resultHandler));
+  }
+
+  /**
+   * Called before sending commands that do not go through the interceptors, e.g.: a batch or a transaction, so reads
+   * issued afterwards do not join a flight that started before their writes and the reads collected before them are
+   * not overtaken.
+   */
+  final void bypass() {
+    if (singleFlight != null) {
+      singleFlight.clear();
+    }
+    if (readBatcher != null) {
+      readBatcher.flush();
+    }
+  }
+
+  final BatchCommand newBatch(final List<Command<?>> commands, final Handler<AsyncResult<Boolean>> resultHandler) {
+    return (BatchCommand) new BatchCommand(Vertx.currentContext(), commands, charset).handler(resultHandler);
+  }
+
+  final <T> Command<T> newCommand(final RedisCommand command, final List<?> redisArgs, final Class<T> returnType,
+                                  final boolean binary,
+                                  final Handler<AsyncResult<T>> resultHandler) {
+
+    return new Command<>(Vertx.currentContext(), command, redisArgs, binary ? binaryCharset : charset, getResponseTransformFor(command, returnType), returnType).handler(resultHandler);
+  }
+
   final void sendString(final RedisCommand command, final List<?> args, final Handler<AsyncResult<String>> resultHandler) {
     send(command, args, String.class, false, resultHandler);
   }
@@ -106,7 +436,48 @@ public abstract class AbstractRedisClient implements RedisClient {
                       final boolean binary,
                       final Handler<AsyncResult<T>> resultHandler) {
 
-    final Command<T> cmd = new Command<>(Vertx.currentContext(), command, redisArgs, binary ? binaryCharset : charset, getResponseTransformFor(command), returnType).handler(resultHandler);
+    final RedisInterceptor[] chain = interceptors.get();
+
+    if (chain.length == 0) {
+      dispatch(command, redisArgs, returnType, binary, resultHandler);
+    } else {
+      new Invocation<>(this, chain, command, redisArgs, returnType, binary, resultHandler).proceed();
+    }
+  }
+
+  @Override
+  public RedisClient addInterceptor(RedisInterceptor interceptor) {
+    RedisInterceptor[] chain;
+    RedisInterceptor[] updated;
+    do {
+      chain = interceptors.get();
+      // before the built-in ones, so it sees the commands as issued
+      final int index = chain.length - builtIns;
+      updated = new RedisInterceptor[chain.length + 1];
+      System.arraycopy(chain, 0, updated, 0, index);
+      updated[index] = interceptor;
+      System.arraycopy(chain, index, updated, index + 1, builtIns);
+    } while (!interceptors.compareAndSet(chain, updated));
+    return this;
+  }
+
+  final boolean recording() {
+    return recorder != null;
+  }
+
+  /**
+   * Send a command once it went through the interceptors.
+   */
+  final <T> void dispatch(final RedisCommand command, final List<?> redisArgs, final Class<T> returnType,
+                          final boolean binary,
+                          final Handler<AsyncResult<T>> resultHandler) {
+
+    final Command<T> cmd = newCommand(command, redisArgs, returnType, binary, resultHandler);
+
+    if (recorder != null) {
+      recorder.add(cmd);
+      return;
+    }
 
     switch (command) {
       case PSUBSCRIBE:
@@ -183,15 +554,68 @@ public abstract class AbstractRedisClient implements RedisClient {
         }
         pubsub.send(cmd);
         break;
+      case BLPOP:
+      case BRPOP:
+      case BRPOPLPUSH:
+        sendBlocking(cmd, redisArgs);
+        break;
       case QUIT:
         // this is a special case that must be sent to all connections
-        redis.send(cmd);
+        connection().send(cmd);
         pubsub.send(cmd);
         break;
       default:
+        if (bulk != null && bulkCommands.contains(command)) {
+          // large replies must not hold back the normal connection
+          bulk.send(cmd);
+          break;
+        }
         // all other commands are sent to the normal connection
-        redis.send(cmd);
+        connection().send(cmd);
         break;
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Send a blocking command on a connection of its own. The last argument of these commands is the server side timeout
+   * in seconds, when there is no reply within that time plus the grace period the connection is considered stuck.
+   */
+  private <T> void sendBlocking(final Command<T> cmd, final List<?> redisArgs) {
+    final Handler<AsyncResult<T>> handler = cmd.handler();
+    final long seconds = Long.parseLong(String.valueOf(redisArgs.get(redisArgs.size() - 1)));
+
+    blocking.acquire(acquire -> {
+      if (acquire.failed()) {
+        if (handler != null) {
+          handler.handle(Future.failedFuture(acquire.cause()));
+        }
+        return;
+      }
+
+      final RedisConnection connection = acquire.result();
+      final AtomicBoolean done = new AtomicBoolean();
+      final long timer = seconds > 0 ? vertx.setTimer(seconds * 1000 + blockingTimeoutGrace, t -> {
+        if (done.compareAndSet(false, true)) {
+          // the server still considers the connection blocked, it cannot be reused
+          blocking.discard(connection);
+          metrics.timeout(cmd.name());
+          connection.kill("Timeout waiting for a reply to a blocking command after " + seconds + "s");
+        }
+      }) : -1;
+
+      cmd.handler(res -> {
+        if (done.compareAndSet(false, true)) {
+          if (timer != -1) {
+            vertx.cancelTimer(timer);
+          }
+          blocking.release(connection);
+        }
+        if (handler != null) {
+          handler.handle(res);
+        }
+      });
+
+      connection.send(cmd);
+    });
+  }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * A transaction sent as a single write: `MULTI`, the recorded commands and `EXEC`. The `QUEUED` acknowledgements are
+ * consumed here and each recorded command is completed with its own element of the `EXEC` reply.
+ *
+ * The result is `true` when the transaction was executed and `false` when it was aborted because a watched key was
+ * modified.
+ */
+class BatchCommand extends Command<Boolean> {
+
+  private static final byte[] MULTI = "*1\r\n$5\r\nMULTI\r\n".getBytes();
+  private static final byte[] EXEC = "*1\r\n$4\r\nEXEC\r\n".getBytes();
+
+  private final List<Command<?>> commands;
+  // commands rejected by the server while queuing, these already got their error
+  private final boolean[] rejected;
+
+  private int replies;
+  private boolean done;
+  // leave the commands pending when the transaction is aborted, the caller retries it
+  private boolean retried;
+
+  BatchCommand(Context context, List<Command<?>> commands, Charset encoding) {
+    super(context, "MULTI", encode(commands), encoding, ResponseTransform.NONE, Boolean.class);
+    this.commands = commands;
+    this.rejected = new boolean[commands.size()];
+    setExpectedReplies(commands.size() + 2);
+  }
+
+  private static Buffer encode(List<Command<?>> commands) {
+    final Buffer buffer = Buffer.buffer();
+    buffer.appendBytes(MULTI);
+    for (Command<?> command : commands) {
+      command.writeTo(buffer);
+    }
+    buffer.appendBytes(EXEC);
+    return buffer;
+  }
+
+  @Override
+  void handleReply(Reply reply, boolean last) {
+    // EXEC is the last reply, the only one that completes the batch
+    final int pos = replies++;
+
+    if (pos == 0) {
+      // MULTI, if it failed so will EXEC
+      return;
+    }
+
+    if (pos <= commands.size()) {
+      // QUEUED or the reason the command was not accepted
+      if (reply.is('-')) {
+        rejected[pos - 1] = true;
+        commands.get(pos - 1).handleReply(reply);
+      }
+      return;
+    }
+
+    // EXEC
+    if (reply.is('-')) {
+      handle(Future.failedFuture(reply.asType(String.class)));
+      return;
+    }
+
+    final Reply[] results = (Reply[]) reply.data();
+
+    if (results == null) {
+      // a watched key was modified, nothing was executed
+      if (!retried) {
+        failCommands("Transaction aborted");
+      }
+      done = true;
+      super.handle(Future.succeededFuture(false));
+      return;
+    }
+
+    for (int i = 0; i < results.length && i < commands.size(); i++) {
+      commands.get(i).handleReply(results[i]);
+    }
+
+    done = true;
+    super.handle(Future.succeededFuture(true));
+  }
+
+  @Override
+  public void handle(AsyncResult<Boolean> asyncResult) {
+    // the connection fails a command once per expected reply
+    if (done) {
+      return;
+    }
+    done = true;
+
+    if (asyncResult.failed()) {
+      failCommands(asyncResult.cause().getMessage());
+    }
+
+    super.handle(asyncResult);
+  }
+
+  /**
+   * Do not complete the recorded commands when the transaction is aborted, see {@link #abort()}.
+   */
+  BatchCommand retried() {
+    retried = true;
+    return this;
+  }
+
+  /**
+   * Complete the recorded commands of an aborted transaction that will not be retried.
+   */
+  void abort() {
+    failCommands("Transaction aborted");
+  }
+
+  private void failCommands(String message) {
+    for (int i = 0; i < commands.size(); i++) {
+      if (!rejected[i]) {
+        commands.get(i).handle(Future.failedFuture(message));
+      }
+    }
+  }
+}
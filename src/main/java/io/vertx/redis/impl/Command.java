@@ -17,10 +17,13 @@ package io.vertx.redis.impl;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.streams.WriteStream;
+import io.vertx.redis.spi.RedisTracer;
 
 import java.nio.charset.Charset;
 import java.util.List;
@@ -75,6 +78,9 @@ public class Command<T> {
   }
 
   private final Context context;
+  private final String name;
+  // the first argument, usually the key, kept for the slow log
+  private final Object key;
   private final Buffer buffer;
   private final ResponseTransform transform;
   private final String encoding;
@@ -82,6 +88,15 @@ public class Command<T> {
 
   private int expectedReplies = 1;
   private Handler<AsyncResult<T>> handler;
+  // timestamps of the trip of the command, only recorded when metrics or the slow log are enabled
+  private long queued;
+  private long sent;
+  private long replied;
+  private int replySize;
+  private SlowLog slowLog;
+  // null unless traced
+  private RedisTracer tracer;
+  private Object span;
 
   public Command(Context context, RedisCommand command, final List<?> args, Charset encoding, ResponseTransform transform, Class<T> returnType) {
     this.context = context;
@@ -98,6 +113,8 @@ public class Command<T> {
     }
 
     String[] commandTokens = command.getTokens();
+    this.name = commandTokens.length == 1 ? commandTokens[0] : String.join(" ", commandTokens);
+    this.key = totalArgs == 0 ? null : args.get(0);
 
     // serialize the request
     buffer = Buffer.buffer();
@@ -116,6 +133,20 @@ public class Command<T> {
     }
   }
 
+  /**
+   * Create a command from an already serialized request.
+   */
+  Command(Context context, String name, Buffer buffer, Charset encoding, ResponseTransform transform, Class<T> returnType) {
+    this.context = context;
+    this.name = name;
+    this.key = null;
+    this.buffer = buffer;
+    this.encoding = encoding.name();
+
+    this.transform = transform;
+    this.returnType = returnType;
+  }
+
   // setters
 
   public Command<T> setExpectedReplies(int expectedReplies) {
@@ -130,6 +161,87 @@ public class Command<T> {
 
   // getters
 
+  Handler<AsyncResult<T>> handler() {
+    return handler;
+  }
+
+  /**
+   * The command name as reported to the metrics, e.g.: {@code CLIENT SETNAME}.
+   */
+  String name() {
+    return name;
+  }
+
+  /**
+   * The first argument as a String, usually the key.
+   */
+  String key() {
+    if (key instanceof byte[]) {
+      return new String((byte[]) key, Charset.forName(encoding));
+    }
+    return key == null ? null : key.toString();
+  }
+
+  long queued() {
+    return queued;
+  }
+
+  long sent() {
+    return sent;
+  }
+
+  void sent(long sent) {
+    this.sent = sent;
+  }
+
+  long replied() {
+    return replied;
+  }
+
+  int replySize() {
+    return replySize;
+  }
+
+  /**
+   * Record the time the last reply was parsed and its size.
+   */
+  void replied(long replied, int replySize) {
+    this.replied = replied;
+    this.replySize = replySize;
+  }
+
+  /**
+   * Report the trip of this command to a tracer.
+   */
+  void trace(RedisTracer tracer, Object span) {
+    this.tracer = tracer;
+    this.span = span;
+  }
+
+  /**
+   * Called once the command was written to the socket.
+   */
+  void written() {
+    if (tracer != null) {
+      tracer.write(span);
+    }
+  }
+
+  /**
+   * Time the trip of this command and record it in the slow log if it was slow.
+   */
+  void slowLog(SlowLog slowLog, long queued) {
+    this.slowLog = slowLog;
+    this.queued = queued;
+  }
+
+  /**
+   * The size in bytes of the serialized request.
+   */
+  int length() {
+    return buffer.length();
+  }
+
   public int getExpectedReplies() {
     return expectedReplies;
   }
@@ -149,23 +261,154 @@ public class Command<T> {
   // methods
 
   public void handle(AsyncResult<T> asyncResult) {
+    handle(asyncResult, true);
+  }
+
+  /**
+   * Call the handler with a result, the span only ends with the last one of a command that expects several replies
+   * (e.g.: SUBSCRIBE to many channels), like the metrics do.
+   */
+  private void handle(AsyncResult<T> asyncResult, boolean last) {
+    // only commands that got a reply, a connection failure is not a slow command
+    if (slowLog != null && replied != 0) {
+      slowLog.record(this, asyncResult.succeeded());
+    }
+
+    if (last && tracer != null) {
+      final RedisTracer tracer = this.tracer;
+      // a command is only completed once
+      this.tracer = null;
+      tracer.reply(span, replySize, asyncResult.failed() ? asyncResult.cause() : null);
+    }
+
     if (handler != null) {
       if (context != null) {
-        if (Vertx.currentContext() == context) {
-          handler.handle(asyncResult);
-        } else {
-          context.runOnContext(v -> handler.handle(asyncResult));
-        }
+        Contexts.run(context, v -> handler.handle(asyncResult));
       } else {
         handler.handle(asyncResult);
       }
     }
   }
 
+  /**
+   * Decode a reply to this command and call the handler with the result. A reply that cannot be converted to the
+   * expected type (e.g.: a non numeric bulk reply as a Long) fails the command instead of escaping into the socket
+   * handler, which would leave it without a result.
+   */
+  void handleReply(Reply reply) {
+    handleReply(reply, true);
+  }
+
+  /**
+   * Same as {@link #handleReply(Reply)}, for one of the replies of a command that expects several.
+   *
+   * @param last whether this is the last reply the command expects
+   */
+  void handleReply(Reply reply, boolean last) {
+    AsyncResult<T> result;
+    try {
+      result = decode(reply);
+    } catch (RuntimeException e) {
+      result = Future.failedFuture(e);
+    }
+    handle(result, last);
+  }
+
+  private AsyncResult<T> decode(Reply reply) {
+    switch (reply.type()) {
+      case '-': // Error
+        return Future.failedFuture(reply.asType(String.class));
+      case '+':   // Status
+        switch (transform) {
+          case ARRAY:
+            return succeeded(new JsonArray().add(reply.asType(String.class)));
+          default:
+            return succeeded(reply.asType(returnType));
+        }
+      case '$':  // Bulk
+        switch (transform) {
+          case ARRAY:
+            return succeeded(new JsonArray().add(reply.asType(String.class, encoding)));
+          case INFO:
+            String info = reply.asType(String.class, encoding);
+
+            if (info == null) {
+              return succeeded(null);
+            } else {
+              String lines[] = info.split("\\r?\\n");
+              JsonObject value = new JsonObject();
+
+              JsonObject section = null;
+              for (String line : lines) {
+                if (line.length() == 0) {
+                  // end of section
+                  section = null;
+                  continue;
+                }
+
+                if (line.charAt(0) == '#') {
+                  // begin section
+                  section = new JsonObject();
+                  // create a sub key with the section name
+                  value.put(line.substring(2).toLowerCase(), section);
+                } else {
+                  // entry in section
+                  int split = line.indexOf(':');
+                  if (section == null) {
+                    value.put(line.substring(0, split), line.substring(split + 1));
+                  } else {
+                    section.put(line.substring(0, split), line.substring(split + 1));
+                  }
+                }
+              }
+              return succeeded(value);
+            }
+          default:
+            return succeeded(reply.asType(returnType, encoding));
+        }
+      case '*': // Multi
+        switch (transform) {
+          case HASH:
+            return succeeded(reply.asType(JsonObject.class, encoding));
+          default:
+            if (returnType == Object.class) {
+              // the raw tree was asked for
+              return succeeded(reply.asType(Object.class, encoding));
+            } else if (returnType != JsonArray.class && ("EVAL".equals(name) || "EVALSHA".equals(name))) {
+              // a script can reply anything, fail here rather than with a ClassCastException in the handler
+              return Future.failedFuture("Cannot decode the multi bulk reply of the script as " + returnType.getSimpleName());
+            } else {
+              return succeeded(reply.asType(JsonArray.class, encoding));
+            }
+        }
+      case ':':   // Integer
+        switch (transform) {
+          case ARRAY:
+            return succeeded(new JsonArray().add(reply.asType(Long.class)));
+          default:
+            return succeeded(reply.asType(returnType));
+        }
+      default:
+        return Future.failedFuture("Unknown message type");
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private AsyncResult<T> succeeded(Object value) {
+    return Future.succeededFuture((T) value);
+  }
+
   public void writeTo(WriteStream<Buffer> writeStream) {
     writeStream.write(buffer);
   }
 
+  /**
+   * Appends the serialized command to a buffer, used to write several commands to the socket at once.
+   */
+  void writeTo(Buffer batch) {
+    batch.appendBuffer(buffer);
+  }
+
   private void appendToBuffer(final Object value, final Charset encoding, final Buffer buffer) {
     buffer.appendByte(BYTES_PREFIX);
     if (value == null) {
@@ -0,0 +1,41 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * Runs handlers on a given context, without going through its task queue when already on it.
+ */
+final class Contexts {
+
+  private Contexts() {
+  }
+
+  /**
+   * Run the handler on the context: right away when called from it, otherwise as a task of the context so exceptions
+   * reach its exception handler and {@link Vertx#currentContext()} is the context during the call.
+   */
+  static void run(Context context, Handler<Void> handler) {
+    if (Vertx.currentContext() == context) {
+      handler.handle(null);
+    } else {
+      context.runOnContext(handler);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.redis.RedisInterceptor;
+import io.vertx.redis.RedisInvocation;
+
+import java.util.List;
+
+/**
+ * Walks a command through the interceptors of the client, the last step sends it.
+ */
+class Invocation<T> implements RedisInvocation {
+
+  private final AbstractRedisClient client;
+  private final RedisInterceptor[] interceptors;
+  private final RedisCommand command;
+  private final Class<T> returnType;
+  private final boolean binary;
+
+  private List<?> args;
+  private Handler<AsyncResult<T>> handler;
+  private int next;
+
+  Invocation(AbstractRedisClient client, RedisInterceptor[] interceptors, RedisCommand command, List<?> args, Class<T> returnType, boolean binary, Handler<AsyncResult<T>> handler) {
+    this.client = client;
+    this.interceptors = interceptors;
+    this.command = command;
+    this.args = args;
+    this.returnType = returnType;
+    this.binary = binary;
+    this.handler = handler;
+  }
+
+  @Override
+  public String command() {
+    final String[] tokens = command.getTokens();
+    return tokens.length == 1 ? tokens[0] : String.join(" ", tokens);
+  }
+
+  /**
+   * Create an invocation of another command that continues from the same interceptor as this one.
+   */
+  <R> Invocation<R> fork(RedisCommand command, List<?> args, Class<R> returnType, Handler<AsyncResult<R>> handler) {
+    final Invocation<R> fork = new Invocation<>(client, interceptors, command, args, returnType, binary, handler);
+    fork.next = next;
+    return fork;
+  }
+
+  RedisCommand redisCommand() {
+    return command;
+  }
+
+  /**
+   * Whether the command is only recorded to be sent later, e.g.: in a batch.
+   */
+  boolean recording() {
+    return client.recording();
+  }
+
+  @Override
+  public List<?> args() {
+    return args;
+  }
+
+  @Override
+  public void args(List<?> args) {
+    this.args = args;
+  }
+
+  @Override
+  public Class<?> returnType() {
+    return returnType;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Handler<AsyncResult<Object>> handler() {
+    return (Handler<AsyncResult<Object>>) (Handler<?>) handler;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void handler(Handler<AsyncResult<Object>> handler) {
+    this.handler = (Handler<AsyncResult<T>>) (Handler<?>) handler;
+  }
+
+  @Override
+  public void proceed() {
+    if (next < interceptors.length) {
+      interceptors[next++].intercept(this);
+    } else {
+      client.dispatch(command, args, returnType, binary, handler);
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.WriteStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects keys into batches and sends a single multi key command per batch (e.g.: `DEL`, `MIGRATE ... KEYS`). The
+ * result handler is called once the stream is ended and all batches were acknowledged, with the sum of the counts
+ * reported per batch.
+ *
+ * The first failed batch fails the result handler, the keys written afterwards are dropped and the drain handler is
+ * still called so a pump keeps going until the end of its source.
+ */
+class KeyBatchStream implements WriteStream<String> {
+
+  private final int batchSize;
+  private final BiConsumer<List<String>, Handler<AsyncResult<Long>>> send;
+  private final Handler<AsyncResult<Long>> resultHandler;
+
+  private List<String> batch;
+  // keys either waiting for a full batch or sent and not yet acknowledged
+  private int outstanding;
+  private int inFlight;
+  private int maxSize;
+  private long count;
+  private boolean ending;
+  private boolean done;
+
+  private Handler<Void> drainHandler;
+  private Handler<Throwable> exceptionHandler;
+
+  KeyBatchStream(int batchSize, BiConsumer<List<String>, Handler<AsyncResult<Long>>> send, Handler<AsyncResult<Long>> resultHandler) {
+    this.batchSize = batchSize;
+    this.send = send;
+    this.resultHandler = resultHandler;
+    this.batch = new ArrayList<>(batchSize);
+    this.maxSize = 4 * batchSize;
+  }
+
+  @Override
+  public WriteStream<String> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public WriteStream<String> write(String key) {
+    if (done) {
+      return this;
+    }
+    batch.add(key);
+    outstanding++;
+    // a write queue smaller than a batch would be full before the batch is sent, and never drain
+    if (batch.size() >= batchSize || writeQueueFull()) {
+      flush();
+    }
+    return this;
+  }
+
+  @Override
+  public void end() {
+    ending = true;
+    flush();
+    checkEnd();
+  }
+
+  @Override
+  public WriteStream<String> setWriteQueueMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+    return this;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return outstanding >= maxSize;
+  }
+
+  @Override
+  public WriteStream<String> drainHandler(Handler<Void> handler) {
+    this.drainHandler = handler;
+    return this;
+  }
+
+  private void flush() {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    final List<String> keys = batch;
+    batch = new ArrayList<>(batchSize);
+    inFlight++;
+
+    send.accept(keys, res -> {
+      final boolean wasFull = writeQueueFull();
+      inFlight--;
+      outstanding -= keys.size();
+
+      if (res.failed()) {
+        if (!done) {
+          done = true;
+          // nothing more is sent, the keys waiting for a batch are dropped
+          outstanding -= batch.size();
+          batch.clear();
+          if (exceptionHandler != null) {
+            exceptionHandler.handle(res.cause());
+          }
+          resultHandler.handle(Future.failedFuture(res.cause()));
+        }
+      } else {
+        count += res.result();
+      }
+
+      if (wasFull && !writeQueueFull() && drainHandler != null) {
+        drainHandler.handle(null);
+      }
+
+      checkEnd();
+    });
+  }
+
+  private void checkEnd() {
+    if (ending && inFlight == 0 && !done) {
+      done = true;
+      resultHandler.handle(Future.succeededFuture(count));
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Merges several streams into one, running at most `concurrency` of them at the same time. Elements are emitted in the
+ * order they arrive, pause and resume apply to all running streams. The failure of a stream is reported to the
+ * exception handler and the merged stream goes on with the others, it ends once all of them ended or failed.
+ *
+ * The streams may emit on other event loops (e.g.: one client per instance), their events are all handled on the
+ * context of the merged stream, which is meant to be used from that context only.
+ */
+class MergedReadStream<T> implements ReadStream<T> {
+
+  private final Context context;
+  private final Deque<ReadStream<T>> queued;
+  private final List<ReadStream<T>> running = new ArrayList<>();
+  private final int concurrency;
+  // elements emitted by a stream before it saw the pause
+  private final Deque<T> pending = new ArrayDeque<>();
+
+  private boolean paused;
+  private boolean ended;
+
+  private Handler<T> handler;
+  private Handler<Void> endHandler;
+  private Handler<Throwable> exceptionHandler;
+
+  MergedReadStream(Context context, List<? extends ReadStream<T>> streams, int concurrency) {
+    this.context = context;
+    this.queued = new ArrayDeque<>(streams);
+    this.concurrency = concurrency > 0 ? concurrency : Integer.MAX_VALUE;
+  }
+
+  @Override
+  public ReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> handler(Handler<T> handler) {
+    this.handler = handler;
+    // setting the handler starts the streams
+    if (handler != null) {
+      startNext();
+    }
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> pause() {
+    paused = true;
+    for (ReadStream<T> stream : new ArrayList<>(running)) {
+      stream.pause();
+    }
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> resume() {
+    paused = false;
+    while (!paused && !pending.isEmpty()) {
+      emit(pending.poll());
+    }
+    if (!paused) {
+      for (ReadStream<T> stream : new ArrayList<>(running)) {
+        stream.resume();
+      }
+      checkEnd();
+    }
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> endHandler(Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    return this;
+  }
+
+  private void startNext() {
+    while (running.size() < concurrency && !queued.isEmpty()) {
+      final ReadStream<T> stream = queued.poll();
+      running.add(stream);
+
+      stream.exceptionHandler(t -> Contexts.run(context, v -> {
+        if (exceptionHandler != null) {
+          exceptionHandler.handle(t);
+        }
+        // a failed stream does not end, the others go on without it
+        if (running.remove(stream)) {
+          startNext();
+        }
+      }));
+      stream.endHandler(v -> Contexts.run(context, v0 -> {
+        if (running.remove(stream)) {
+          startNext();
+        }
+      }));
+      if (paused) {
+        stream.pause();
+      }
+      stream.handler(item -> Contexts.run(context, v -> {
+        if (paused) {
+          pending.add(item);
+        } else {
+          emit(item);
+        }
+      }));
+    }
+
+    checkEnd();
+  }
+
+  private void emit(T item) {
+    final Handler<T> handler = this.handler;
+    if (handler != null) {
+      handler.handle(item);
+    }
+  }
+
+  private void checkEnd() {
+    if (running.isEmpty() && queued.isEmpty() && pending.isEmpty() && !ended) {
+      ended = true;
+      if (endHandler != null) {
+        endHandler.handle(null);
+      }
+    }
+  }
+}
@@ -0,0 +1,247 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.redis.op.MonitorOptions;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs `MONITOR` on a connection of its own and emits each command seen by the server as a JsonObject:
+ *
+ * * `time`: the server timestamp in seconds, with microseconds
+ * * `db`: the database index
+ * * `client`: the address of the client or `lua` when called from a script
+ * * `command`: the command name in upper case
+ * * `args`: the arguments as a JsonArray of Strings
+ */
+class MonitorStream implements ReadStream<JsonObject> {
+
+  private final AbstractRedisClient client;
+  private final double sampleRate;
+  private final Set<String> commands;
+  // the events parsed from the last read while paused, the socket is paused as well so no more are read
+  private final Deque<JsonObject> buffer = new ArrayDeque<>();
+
+  private RedisConnection connection;
+  private boolean paused;
+
+  private Handler<JsonObject> handler;
+  private Handler<Void> endHandler;
+  private Handler<Throwable> exceptionHandler;
+
+  MonitorStream(AbstractRedisClient client, MonitorOptions options) {
+    this.client = client;
+    this.sampleRate = options.getSampleRate();
+    this.commands = new HashSet<>(options.getCommands());
+  }
+
+  @Override
+  public ReadStream<JsonObject> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public ReadStream<JsonObject> handler(Handler<JsonObject> handler) {
+    this.handler = handler;
+
+    if (handler != null && connection == null) {
+      // setting the handler starts monitoring
+      final RedisConnection connection = client.openMonitorConnection();
+      this.connection = connection;
+      connection.unmatchedHandler(this::handleEvent);
+      connection.lostHandler(t -> failed(connection, t));
+      // a command of its own for each start, a command is only ever sent once
+      connection.send(client.newCommand(RedisCommand.MONITOR, null, Void.class, false, res -> {
+        if (res.failed()) {
+          failed(connection, res.cause());
+        }
+      }));
+    } else if (handler == null && connection != null) {
+      // unsetting it stops, there is no point in sending QUIT, it would be answered among the events
+      final RedisConnection connection = this.connection;
+      this.connection = null;
+      buffer.clear();
+      client.closeMonitorConnection(connection, "Monitor stopped");
+      if (endHandler != null) {
+        endHandler.handle(null);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public ReadStream<JsonObject> pause() {
+    paused = true;
+    if (connection != null) {
+      connection.pause();
+    }
+    return this;
+  }
+
+  @Override
+  public ReadStream<JsonObject> resume() {
+    paused = false;
+
+    JsonObject event;
+    while (!paused && handler != null && (event = buffer.poll()) != null) {
+      handler.handle(event);
+    }
+
+    if (!paused && connection != null) {
+      connection.resume();
+    }
+    return this;
+  }
+
+  @Override
+  public ReadStream<JsonObject> endHandler(Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    return this;
+  }
+
+  /**
+   * The stream ends once MONITOR was rejected or the connection was lost, it is not resumed on another connection.
+   */
+  private void failed(RedisConnection failed, Throwable cause) {
+    // only once, and not when stopped by unsetting the handler
+    if (connection != failed) {
+      return;
+    }
+    connection = null;
+    buffer.clear();
+    client.closeMonitorConnection(failed, "Monitor failed");
+
+    if (exceptionHandler != null) {
+      exceptionHandler.handle(cause);
+    }
+    if (endHandler != null) {
+      endHandler.handle(null);
+    }
+  }
+
+  private void handleEvent(Reply reply) {
+    final Handler<JsonObject> handler = this.handler;
+
+    if (handler == null || !reply.is('+')) {
+      return;
+    }
+
+    // sample before parsing, unwanted events should cost as little as possible
+    if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return;
+    }
+
+    final JsonObject event = parse(reply.asType(String.class));
+
+    if (event != null && (commands.isEmpty() || commands.contains(event.getString("command")))) {
+      if (paused) {
+        buffer.add(event);
+      } else {
+        handler.handle(event);
+      }
+    }
+  }
+
+  /**
+   * Parse a line such as `1339518083.107412 [0 127.0.0.1:60866] "set" "key" "va\"lue"`.
+   *
+   * @return the event or null when the line is not a well formed event, e.g.: a truncated `\x` escape
+   */
+  static JsonObject parse(String line) {
+    try {
+      return parseEvent(line);
+    } catch (IndexOutOfBoundsException | NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static JsonObject parseEvent(String line) {
+    final int sp = line.indexOf(' ');
+    final int open = line.indexOf('[', sp);
+    final int close = line.indexOf(']', open);
+
+    if (sp == -1 || open == -1 || close == -1) {
+      return null;
+    }
+
+    final String source = line.substring(open + 1, close);
+    final int split = source.indexOf(' ');
+
+    final JsonArray tokens = new JsonArray();
+    final ByteArrayOutputStream token = new ByteArrayOutputStream();
+
+    int i = close + 1;
+    while (i < line.length()) {
+      if (line.charAt(i++) != '"') {
+        continue;
+      }
+
+      token.reset();
+      while (i < line.length()) {
+        final char c = line.charAt(i++);
+        if (c == '"') {
+          break;
+        }
+        if (c == '\\' && i < line.length()) {
+          final char e = line.charAt(i++);
+          switch (e) {
+            case 'n': token.write('\n'); break;
+            case 'r': token.write('\r'); break;
+            case 't': token.write('\t'); break;
+            case 'a': token.write(7); break;
+            case 'b': token.write('\b'); break;
+            case 'x':
+              token.write(Integer.parseInt(line.substring(i, i + 2), 16));
+              i += 2;
+              break;
+            default:
+              token.write(e);
+          }
+        } else {
+          final byte[] bytes = String.valueOf(c).getBytes(StandardCharsets.UTF_8);
+          token.write(bytes, 0, bytes.length);
+        }
+      }
+      tokens.add(new String(token.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    if (tokens.isEmpty()) {
+      return null;
+    }
+
+    final String command = tokens.getString(0).toUpperCase();
+    tokens.remove(0);
+
+    return new JsonObject()
+        .put("time", Double.parseDouble(line.substring(0, sp)))
+        .put("db", Integer.parseInt(split == -1 ? source : source.substring(0, split)))
+        .put("client", split == -1 ? null : source.substring(split + 1))
+        .put("command", command)
+        .put("args", tokens);
+  }
+}
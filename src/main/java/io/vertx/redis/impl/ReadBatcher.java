@@ -0,0 +1,173 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.redis.RedisInterceptor;
+import io.vertx.redis.RedisInvocation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the `GET` and `HGET` commands issued on an event loop within a time window, or until the batch is full,
+ * and sends them as one `MGET` and one `HMGET` per hash. The replies are then handed to the original handlers.
+ *
+ * Each event loop has a batch of its own, only touched from that event loop. Any other command flushes the batch
+ * first, so the commands of an event loop are still sent in the order they were issued. This includes batches and
+ * transactions, which do not go through the interceptors, see {@link AbstractRedisClient#bypass()}.
+ */
+class ReadBatcher implements RedisInterceptor {
+
+  private static final class Batch {
+    final List<Invocation<?>> gets = new ArrayList<>();
+    final Map<Object, List<Invocation<?>>> hgets = new LinkedHashMap<>();
+    int size;
+    long timer = -1;
+  }
+
+  private final Vertx vertx;
+  private final long window;
+  private final int maxSize;
+
+  private final Map<Context, Batch> batches = new ConcurrentHashMap<>();
+
+  ReadBatcher(Vertx vertx, long window, int maxSize) {
+    this.vertx = vertx;
+    this.window = window;
+    this.maxSize = maxSize;
+  }
+
+  @Override
+  public void intercept(RedisInvocation invocation) {
+    final Invocation<?> inv = (Invocation<?>) invocation;
+    final Context context = Vertx.currentContext();
+
+    // recorded commands are part of a transaction, without a context there is nothing to flush the batch on
+    if (inv.recording() || context == null) {
+      invocation.proceed();
+      return;
+    }
+
+    Batch batch = batches.get(context);
+
+    if (!batchable(inv)) {
+      if (batch != null) {
+        flush(context, batch);
+      }
+      invocation.proceed();
+      return;
+    }
+
+    if (batch == null) {
+      final Batch created = new Batch();
+      batches.put(context, created);
+
+      if (window > 0) {
+        created.timer = vertx.setTimer(window, t -> {
+          created.timer = -1;
+          flush(context, created);
+        });
+      } else {
+        // the commands issued in the current event loop turn
+        context.runOnContext(v -> flush(context, created));
+      }
+      batch = created;
+    }
+
+    if (inv.redisCommand() == RedisCommand.GET) {
+      batch.gets.add(inv);
+    } else {
+      batch.hgets.computeIfAbsent(inv.args().get(0), k -> new ArrayList<>()).add(inv);
+    }
+
+    if (++batch.size >= maxSize) {
+      flush(context, batch);
+    }
+  }
+
+  /**
+   * Send the batch of the calling event loop, if any.
+   */
+  void flush() {
+    final Context context = Vertx.currentContext();
+
+    if (context != null) {
+      final Batch batch = batches.get(context);
+      if (batch != null) {
+        flush(context, batch);
+      }
+    }
+  }
+
+  private static boolean batchable(Invocation<?> invocation) {
+    final RedisCommand command = invocation.redisCommand();
+    // the binary variants decode differently
+    return (command == RedisCommand.GET || command == RedisCommand.HGET) && invocation.returnType() == String.class;
+  }
+
+  private void flush(Context context, Batch batch) {
+    if (!batches.remove(context, batch)) {
+      // already flushed
+      return;
+    }
+
+    if (batch.timer != -1) {
+      vertx.cancelTimer(batch.timer);
+      batch.timer = -1;
+    }
+
+    if (!batch.gets.isEmpty()) {
+      send(batch.gets, RedisCommand.MGET, 0);
+    }
+    for (List<Invocation<?>> hgets : batch.hgets.values()) {
+      send(hgets, RedisCommand.HMGET, 1);
+    }
+  }
+
+  /**
+   * Send the invocations as a single command, the argument at the given index of each invocation is collected.
+   */
+  private static void send(List<Invocation<?>> invocations, RedisCommand command, int index) {
+    if (invocations.size() == 1) {
+      invocations.get(0).proceed();
+      return;
+    }
+
+    final Invocation<?> first = invocations.get(0);
+    final List<Object> args = new ArrayList<>(invocations.size() + index);
+    // the hash key
+    args.addAll(first.args().subList(0, index));
+    for (Invocation<?> invocation : invocations) {
+      args.add(invocation.args().get(index));
+    }
+
+    first.fork(command, args, JsonArray.class, res -> {
+      for (int i = 0; i < invocations.size(); i++) {
+        final Invocation<?> invocation = invocations.get(i);
+        if (invocation.handler() != null) {
+          invocation.handler().handle(res.failed() ? Future.failedFuture(res.cause()) : Future.succeededFuture(res.result().getValue(i)));
+        }
+      }
+    }).proceed();
+  }
+}
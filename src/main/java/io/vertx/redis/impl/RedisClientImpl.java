@@ -16,33 +16,223 @@
 package io.vertx.redis.impl;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
 import io.vertx.redis.RedisClient;
 import io.vertx.redis.RedisOptions;
 import io.vertx.redis.RedisTransaction;
 import io.vertx.redis.op.*;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import static io.vertx.redis.impl.RedisCommand.*;
 
 public final class RedisClientImpl extends AbstractRedisClient {
 
-  RedisTransaction transaction;
+  // watchAndRun statistics
+  private final AtomicLong watchRuns = new AtomicLong();
+  private final AtomicLong watchConflicts = new AtomicLong();
+  private final AtomicLong watchExhausted = new AtomicLong();
+  // returned by transaction(), a session shared by its callers
+  private final RedisTransaction transaction = new RedisTransactionImpl();
 
   public class RedisTransactionImpl implements RedisTransaction{
 
+    // dedicated connection, borrowed on the first command and returned once there is no WATCH/MULTI session open
+    private RedisConnection connection;
+    private boolean acquiring;
+    // commands issued while waiting for a connection
+    private final List<Command<?>> queued = new ArrayList<>();
+    private int inFlight;
+    // the session state as acknowledged by the server, only updated from the replies
+    private boolean watching;
+    private boolean multi;
+
     @Override
     public void close(Handler<AsyncResult<Void>> handler) {
       RedisClientImpl.this.close(handler);
     }
 
+    private void sendString(final RedisCommand command, final List<?> args, final Handler<AsyncResult<String>> resultHandler) {
+      send(command, args, String.class, false, resultHandler);
+    }
+
+    private void sendJsonArray(final RedisCommand command, final List<?> args, final Handler<AsyncResult<JsonArray>> resultHandler) {
+      send(command, args, JsonArray.class, false, resultHandler);
+    }
+
+    private <T> void send(final RedisCommand command, final List<?> redisArgs, final Class<T> returnType,
+                          final boolean binary,
+                          final Handler<AsyncResult<T>> resultHandler) {
+
+      switch (command) {
+        case SUBSCRIBE:
+        case PSUBSCRIBE:
+        case UNSUBSCRIBE:
+        case PUNSUBSCRIBE:
+        case QUIT:
+          // these are not connection state of the transaction
+          RedisClientImpl.this.send(command, redisArgs, returnType, binary, resultHandler);
+          return;
+      }
+
+      bypass();
+
+      final Command<T> cmd = newCommand(command, redisArgs, returnType, binary, resultHandler);
+      final RedisConnection target;
+
+      synchronized (this) {
+        inFlight++;
+        // while the queued commands are being flushed new ones must wait behind them
+        target = acquiring ? null : connection;
+
+        if (target == null) {
+          queued.add(cmd);
+          if (acquiring) {
+            return;
+          }
+          acquiring = true;
+        }
+      }
+
+      if (target != null) {
+        send(target, cmd);
+      } else {
+        acquireTransactionConnection(this::acquired);
+      }
+    }
+
+    private <T> void send(RedisConnection conn, Command<T> cmd) {
+      final Handler<AsyncResult<T>> handler = cmd.handler();
+
+      cmd.handler(res -> {
+        replied(conn, cmd.name(), res);
+        if (handler != null) {
+          handler.handle(res);
+        }
+        // the handler may have continued the session on this connection
+        release();
+      });
+
+      conn.send(cmd);
+    }
+
+    private void acquired(AsyncResult<RedisConnection> acquire) {
+      if (acquire.failed()) {
+        final List<Command<?>> commands;
+
+        synchronized (this) {
+          acquiring = false;
+          inFlight -= queued.size();
+          commands = new ArrayList<>(queued);
+          queued.clear();
+        }
+
+        for (Command<?> cmd : commands) {
+          cmd.handle(Future.failedFuture(acquire.cause()));
+        }
+        return;
+      }
+
+      synchronized (this) {
+        connection = acquire.result();
+      }
+
+      // the commands queued meanwhile, e.g.: MULTI, must be written before any command issued concurrently
+      for (;;) {
+        final RedisConnection target;
+        final List<Command<?>> commands;
+
+        synchronized (this) {
+          if (queued.isEmpty()) {
+            acquiring = false;
+            return;
+          }
+          target = connection;
+          if (target != null) {
+            commands = new ArrayList<>(queued);
+            queued.clear();
+          } else {
+            // the flushed commands were answered and the connection returned, the rest needs a new one
+            commands = null;
+          }
+        }
+
+        if (target == null) {
+          acquireTransactionConnection(this::acquired);
+          return;
+        }
+
+        for (Command<?> cmd : commands) {
+          send(target, cmd);
+        }
+      }
+    }
+
+    /**
+     * Track the session state from the replies, a rejected WATCH or MULTI does not open a session.
+     */
+    private void replied(RedisConnection conn, String command, AsyncResult<?> res) {
+      final RedisConnection lost;
+
+      synchronized (this) {
+        inFlight--;
+
+        switch (command) {
+          case "WATCH":
+            watching |= res.succeeded();
+            break;
+          case "UNWATCH":
+            watching = false;
+            break;
+          case "MULTI":
+            multi |= res.succeeded();
+            break;
+          case "EXEC":
+          case "DISCARD":
+            // both also forget about the watched keys, no matter the outcome
+            multi = false;
+            watching = false;
+            break;
+        }
+
+        if (res.succeeded() || conn != connection || conn.isConnected()) {
+          return;
+        }
+
+        // the server side session is gone with the socket
+        lost = connection;
+        connection = null;
+        multi = false;
+        watching = false;
+      }
+
+      discardTransactionConnection(lost, "Transaction connection lost");
+    }
+
+    private void release() {
+      final RedisConnection conn;
+
+      synchronized (this) {
+        if (connection == null || inFlight > 0 || watching || multi) {
+          return;
+        }
+        conn = connection;
+        connection = null;
+      }
+
+      releaseTransactionConnection(conn);
+    }
+
     @Override
     public RedisTransaction append(String key, String value, Handler<AsyncResult<String>> handler) {
       sendString(APPEND, toPayload(key, value), handler);
@@ -1464,7 +1654,42 @@ public final class RedisClientImpl extends AbstractRedisClient {
 
   public RedisClientImpl(Vertx vertx, RedisOptions config) {
     super(vertx, config);
-    this.transaction = new RedisTransactionImpl();
+
+    if (config.isEagerConnect()) {
+      warmUp(v -> {});
+    }
+  }
+
+  private RedisClientImpl(RedisClientImpl client, List<Command<?>> recorder) {
+    super(client, recorder);
+  }
+
+  /**
+   * Return a client that adds the commands issued on it to the given list instead of sending them.
+   */
+  RedisClientImpl recorder(List<Command<?>> recorded) {
+    return new RedisClientImpl(this, recorded);
+  }
+
+  void watchConflict() {
+    watchConflicts.incrementAndGet();
+    metrics().watchConflict();
+  }
+
+  void watchExhausted() {
+    watchExhausted.incrementAndGet();
+  }
+
+  public RedisClientImpl(Vertx vertx, RedisOptions config, Handler<AsyncResult<RedisClient>> readyHandler) {
+    super(vertx, config);
+
+    warmUp(warmUp -> {
+      if (warmUp.failed()) {
+        readyHandler.handle(Future.failedFuture(warmUp.cause()));
+      } else {
+        readyHandler.handle(Future.succeededFuture(this));
+      }
+    });
   }
 
   @Override
@@ -1842,6 +2067,62 @@ public final class RedisClientImpl extends AbstractRedisClient {
     return this;
   }
 
+  @Override
+  public RedisClient evalScript(Script script, List<String> keys, List<String> args, Handler<AsyncResult<JsonArray>> handler) {
+    return evalScriptAs(JsonArray.class, script, keys, args, handler);
+  }
+
+  @Override
+  public <T> RedisClient evalAs(Class<T> type, String script, List<String> keys, List<String> args, Handler<AsyncResult<T>> handler) {
+    keys = (keys != null) ? keys : Collections.emptyList();
+    args = (args != null) ? args : Collections.emptyList();
+    send(EVAL, toPayload(script, keys.size(), keys, args), type, false, handler);
+    return this;
+  }
+
+  @Override
+  public <T> RedisClient evalshaAs(Class<T> type, String sha1, List<String> keys, List<String> args, Handler<AsyncResult<T>> handler) {
+    keys = (keys != null) ? keys : Collections.emptyList();
+    args = (args != null) ? args : Collections.emptyList();
+    send(EVALSHA, toPayload(sha1, keys.size(), keys, args), type, false, handler);
+    return this;
+  }
+
+  @Override
+  public <T> RedisClient evalScriptAs(Class<T> type, Script script, List<String> keys, List<String> args, Handler<AsyncResult<T>> handler) {
+    keys = (keys != null) ? keys : Collections.emptyList();
+    args = (args != null) ? args : Collections.emptyList();
+    if (recording()) {
+      // the recorded commands are written once, a retry would never be sent: EVAL caches the script as well
+      send(EVAL, toPayload(script.getSource(), keys.size(), keys, args), type, false, handler);
+      return this;
+    }
+
+    // the digest of the bytes SCRIPT LOAD sends, which are encoded like any other argument
+    final List<?> payload = toPayload(script.getSha1(charset()), keys.size(), keys, args);
+
+    send(EVALSHA, payload, type, false, evalsha -> {
+      if (evalsha.failed() && evalsha.cause().getMessage() != null && evalsha.cause().getMessage().startsWith("NOSCRIPT")) {
+        // the server does not know the script (yet), load it and retry right after it
+        final Throwable[] loadFailure = {null};
+        sendString(SCRIPT_LOAD, toPayload(script.getSource()), load -> {
+          if (load.failed()) {
+            loadFailure[0] = load.cause();
+          }
+        });
+        send(EVALSHA, payload, type, false, retry -> {
+          // replies are in order, a script that does not compile is reported instead of NOSCRIPT
+          if (handler != null) {
+            handler.handle(loadFailure[0] != null ? Future.failedFuture(loadFailure[0]) : retry);
+          }
+        });
+      } else if (handler != null) {
+        handler.handle(evalsha);
+      }
+    });
+    return this;
+  }
+
   @Override
   public RedisClient exists(String key, Handler<AsyncResult<Long>> handler) {
     sendLong(EXISTS, toPayload(key), handler);
@@ -2118,6 +2399,11 @@ public final class RedisClientImpl extends AbstractRedisClient {
     return this;
   } 
 
+  @Override
+  public ReadStream<JsonObject> monitorStream(MonitorOptions options) {
+    return new MonitorStream(this, options != null ? options : new MonitorOptions());
+  }
+
   @Override
   public RedisClient move(String key, int destdb, Handler<AsyncResult<Long>> handler) {
     sendLong(MOVE, toPayload(key, destdb), handler);
@@ -2578,6 +2864,47 @@ public final class RedisClientImpl extends AbstractRedisClient {
     return transaction;
   }
 
+  @Override
+  public RedisTransaction newTransaction() {
+    return new RedisTransactionImpl();
+  }
+
+  @Override
+  public RedisClient batch(Handler<RedisClient> commands, Handler<AsyncResult<Boolean>> handler) {
+    final List<Command<?>> recorded = new ArrayList<>();
+    commands.handle(recorder(recorded));
+    sendBatch(recorded, handler);
+    return this;
+  }
+
+  @Override
+  public RedisClient watchAndRun(List<String> keys, Handler<RedisClient> reads, Handler<RedisClient> writes, Handler<AsyncResult<Void>> handler) {
+    watchRuns.incrementAndGet();
+    new WatchAndRun(this, keys, reads, writes, handler).run();
+    return this;
+  }
+
+  @Override
+  public JsonObject watchStats() {
+    return new JsonObject()
+        .put("runs", watchRuns.get())
+        .put("conflicts", watchConflicts.get())
+        .put("exhausted", watchExhausted.get());
+  }
+
+  @Override
+  public JsonArray clientSlowLog() {
+    return slowLog() == null ? new JsonArray() : slowLog().get();
+  }
+
+  @Override
+  public RedisClient clientSlowLogReset() {
+    if (slowLog() != null) {
+      slowLog().reset();
+    }
+    return this;
+  }
+
 
   @Override
   public RedisClient ttl(String key, Handler<AsyncResult<Long>> handler) {
@@ -2765,6 +3092,61 @@ public final class RedisClientImpl extends AbstractRedisClient {
     return this;
   } 
 
+  @Override
+  public ReadStream<String> scanStream(ScanOptions options) {
+    return new ScanStream<>((cursor, handler) -> scan(cursor, options, handler), RedisClientImpl::elements);
+  }
+
+  /**
+   * See {@link RedisClient#parallelScanStream(List, ScanOptions, int)}. The keys of all scans are merged on the context
+   * of the caller, or on a context of the first client when not called from one.
+   */
+  public static ReadStream<String> parallelScanStream(List<RedisClient> clients, ScanOptions options, int concurrency) {
+    final List<ReadStream<String>> streams = new ArrayList<>(clients.size());
+    for (RedisClient client : clients) {
+      streams.add(client.scanStream(options));
+    }
+
+    Context context = Vertx.currentContext();
+    if (context == null && !clients.isEmpty()) {
+      context = ((AbstractRedisClient) clients.get(0)).vertx().getOrCreateContext();
+    }
+    return new MergedReadStream<>(context, streams, concurrency);
+  }
+
+  @Override
+  public ReadStream<String> sscanStream(String key, ScanOptions options) {
+    return new ScanStream<>((cursor, handler) -> sscan(key, cursor, options, handler), RedisClientImpl::elements);
+  }
+
+  @Override
+  public ReadStream<JsonArray> hscanStream(String key, ScanOptions options) {
+    return new ScanStream<>((cursor, handler) -> hscan(key, cursor, options, handler), RedisClientImpl::pairs);
+  }
+
+  @Override
+  public ReadStream<JsonArray> zscanStream(String key, ScanOptions options) {
+    return new ScanStream<>((cursor, handler) -> zscan(key, cursor, options, handler), RedisClientImpl::pairs);
+  }
+
+  @Override
+  public WriteStream<String> delStream(int batchSize, Handler<AsyncResult<Long>> handler) {
+    return new KeyBatchStream(batchSize, (keys, done) -> sendLong(DEL, keys, done), handler);
+  }
+
+  @Override
+  public WriteStream<String> migrateStream(String host, int port, int destdb, long timeout, MigrateOptions options, int batchSize, Handler<AsyncResult<Long>> handler) {
+    return new KeyBatchStream(batchSize, (keys, done) ->
+      sendString(MIGRATE, toPayload(host, port, "", destdb, timeout, options != null ? options.toJsonArray() : null, "KEYS", keys), migrate -> {
+        if (migrate.failed()) {
+          done.handle(Future.failedFuture(migrate.cause()));
+        } else {
+          // NOKEY when none of the keys exist anymore
+          done.handle(Future.succeededFuture("OK".equals(migrate.result()) ? (long) keys.size() : 0L));
+        }
+      }), handler);
+  }
+
   @Override
   public RedisClient sscan(String key, String cursor, ScanOptions options, Handler<AsyncResult<JsonArray>> handler) {
     sendJsonArray(SSCAN, toPayload(key, cursor, options != null ? options.toJsonArray() : null), handler);
@@ -2855,6 +3237,19 @@ public final class RedisClientImpl extends AbstractRedisClient {
     return this;
   }
 
+  @SuppressWarnings("unchecked")
+  private static List<String> elements(JsonArray page) {
+    return page.getList();
+  }
+
+  private static List<JsonArray> pairs(JsonArray page) {
+    final List<JsonArray> pairs = new ArrayList<>(page.size() / 2);
+    for (int i = 0; i + 1 < page.size(); i += 2) {
+      pairs.add(new JsonArray().add(page.getValue(i)).add(page.getValue(i + 1)));
+    }
+    return pairs;
+  }
+
   /**
    * A helper method to package method parameters into JsonArray payload.
    *
@@ -83,6 +83,7 @@ public enum RedisCommand {
   GETRANGE("GETRANGE"),
   GETSET("GETSET"),
   HDEL("HDEL"),
+  HELLO("HELLO"),
   HEXISTS("HEXISTS"),
   HGET("HGET"),
   HGETALL("HGETALL"),
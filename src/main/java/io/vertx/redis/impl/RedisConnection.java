@@ -16,20 +16,25 @@
 package io.vertx.redis.impl;
 
 import io.vertx.core.*;
-import io.vertx.core.json.JsonArray;
-import io.vertx.core.json.JsonObject;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.impl.NoStackTraceThrowable;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.core.net.NetClient;
 import io.vertx.core.net.NetClientOptions;
 import io.vertx.core.net.NetSocket;
 import io.vertx.redis.RedisOptions;
+import io.vertx.redis.spi.RedisMetrics;
+import io.vertx.redis.spi.RedisTracer;
 
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -38,6 +43,7 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 class RedisConnection {
 
+  private final Vertx vertx;
   private final Context context;
 
   private static final Logger log = LoggerFactory.getLogger(RedisConnection.class);
@@ -52,17 +58,48 @@ class RedisConnection {
    * is send to the wire.
    *
    * For this reason we must **ALWAYS** synchronize the access to the queues and writes to the socket.
+   *
+   * Both queues can be bounded (see {@link RedisOptions#setMaxPendingCommands(int)} and
+   * {@link RedisOptions#setMaxInFlightCommands(int)}). When the waiting queue is full commands stay in the pending
+   * queue even if the connection is active, when the pending queue is full new commands are failed immediately.
    */
   // pending: commands that have not yet been sent to the server
-  private final Queue<Command<?>> pending = new LinkedList<>();
+  private final Queue<Command<?>> pending = new ArrayDeque<>();
   // waiting: commands that have been sent but not answered
-  private final Queue<Command<?>> waiting = new LinkedList<>();
+  private final Queue<Command<?>> waiting = new ArrayDeque<>();
+
+  private final int maxPending;
+  private final int maxInFlight;
+
+  // back pressure, the flag is only updated from the connection context
+  private volatile boolean writeQueueFull;
+  private volatile Handler<Void> drainHandler;
+  // receives the replies no command is waiting for, e.g.: the events following MONITOR
+  private volatile Handler<Reply> unmatchedHandler;
+  private volatile Handler<Throwable> lostHandler;
+
+  // handlers waiting for the connection handshake to complete
+  private final Queue<Handler<AsyncResult<Void>>> connectHandlers = new ArrayDeque<>();
 
   private final ReplyParser replyParser;
 
-  private final NetClient client;
+  // created on connect and closed once the connection is over, so a discarded connection leaves no close hook behind
+  private NetClient client;
   private final RedisOptions config;
 
+  private final RedisMetrics metrics;
+  private final SlowLog slowLog;
+  // null unless traced
+  private final RedisTracer tracer;
+  private final int db;
+  // replies larger than this are reported, -1 when disabled
+  private final int largeReplyThreshold;
+  // replies holding back at least that many commands for longer than the threshold are reported, -1 when disabled
+  private final long headOfLineThreshold;
+  private final int headOfLineQueueSize;
+  // avoids taking timestamps when nothing is recorded
+  private final boolean measured;
+
   private enum State {
     /**
      * The connection is not active. The is a stop state.
@@ -79,24 +116,67 @@ class RedisConnection {
     /**
      * Connection problem
      */
-    ERROR
+    ERROR,
+    /**
+     * The connection was lost and a new attempt is scheduled according to the reconnect policy.
+     */
+    RECONNECTING
   }
 
   private final AtomicReference<State> state = new AtomicReference<>(State.DISCONNECTED);
 
   private volatile NetSocket netSocket;
 
+  // reconnect policy state, only used from the connection context
+  private int reconnectAttempt;
+  private long reconnectTimer = -1;
+  // set when the user closes the connection, no background reconnects are scheduled after that
+  private boolean closing;
+  // set once the handshake of the current socket succeeded, only used from the connection context
+  private boolean ready;
+
+  // heartbeat state, only used from the connection context
+  private final long pingInterval;
+  private final long pingTimeout;
+  private long lastReply;
+  private long heartbeatTimer = -1;
+  private long pingTimeoutTimer = -1;
+  // round trip of the last heartbeat PING in nanoseconds
+  private volatile long pingLatency = -1;
+
   /**
    * Create a RedisConnection.
    */
   public RedisConnection(Vertx vertx, RedisOptions config, RedisSubscriptions subscriptions) {
-    this.context = vertx.getOrCreateContext();
-    this.config = config;
+    this(vertx, config, subscriptions, RedisMetrics.NOOP, null, null);
+  }
+
+  /**
+   * Create a RedisConnection reporting to the metrics, the slow log and the tracer (if enabled) of its client.
+   */
+  RedisConnection(Vertx vertx, RedisOptions config, RedisSubscriptions subscriptions, RedisMetrics metrics, SlowLog slowLog, RedisTracer tracer) {
+    this(vertx, vertx.getOrCreateContext(), config, subscriptions, metrics, slowLog, tracer);
+  }
 
-    // create a netClient for the connection
-    client = vertx.createNetClient(new NetClientOptions()
-        .setTcpKeepAlive(config.isTcpKeepAlive())
-        .setTcpNoDelay(config.isTcpNoDelay()));
+  /**
+   * Create a RedisConnection bound to the given context, its socket and timers belong to that context.
+   */
+  RedisConnection(Vertx vertx, Context context, RedisOptions config, RedisSubscriptions subscriptions, RedisMetrics metrics, SlowLog slowLog, RedisTracer tracer) {
+    this.vertx = vertx;
+    this.context = context;
+    this.config = config;
+    this.metrics = metrics;
+    this.slowLog = slowLog;
+    this.tracer = tracer;
+    this.db = config.getSelect() == null ? 0 : config.getSelect();
+    this.largeReplyThreshold = config.getLargeReplyThreshold();
+    this.headOfLineThreshold = config.getHeadOfLineThreshold() < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(config.getHeadOfLineThreshold());
+    this.headOfLineQueueSize = config.getHeadOfLineQueueSize();
+    this.measured = metrics.isEnabled() || slowLog != null || tracer != null || headOfLineThreshold >= 0;
+    this.maxPending = config.getMaxPendingCommands();
+    this.maxInFlight = config.getMaxInFlightCommands();
+    this.pingInterval = config.getPingInterval();
+    this.pingTimeout = config.getPingTimeout();
 
     if (subscriptions != null) {
       this.replyParser = new ReplyParser(reply -> {
@@ -133,61 +213,182 @@ class RedisConnection {
   }
 
   private void connect() {
+    // the NetClient and the socket belong to the context of the connection, not to the one of the caller
+    runOnContext(v -> doConnect());
+  }
+
+  private void doConnect() {
     if (state.compareAndSet(State.DISCONNECTED, State.CONNECTING)) {
       replyParser.reset();
 
+      if (client == null) {
+        client = vertx.createNetClient(new NetClientOptions()
+            .setTcpKeepAlive(config.isTcpKeepAlive())
+            .setTcpNoDelay(config.isTcpNoDelay()));
+      }
+
       client.connect(config.getPort(), config.getHost(), asyncResult -> {
         if (asyncResult.failed()) {
           runOnContext(v -> {
             if (state.compareAndSet(State.CONNECTING, State.ERROR)) {
               // clean up any waiting command
               clearQueue(waiting, asyncResult.cause());
-              // clean up any pending command
-              clearQueue(pending, asyncResult.cause());
 
               // close the socket if previously connected
               if (netSocket != null) {
                 netSocket.close();
+                netSocket = null;
               }
 
-              state.set(State.DISCONNECTED);
-            }
-          });
-        } else {
-          netSocket = asyncResult.result()
-              .handler(replyParser)
-              .closeHandler(v -> runOnContext(v0 -> {
-                state.set(State.ERROR);
-                // clean up any waiting command
-                clearQueue(waiting, "Connection closed");
+              if (!reconnect()) {
                 // clean up any pending command
-                clearQueue(pending, "Connection closed");
+                failPending(asyncResult.cause());
 
+                closeClient();
                 state.set(State.DISCONNECTED);
-              }))
-              .exceptionHandler(e -> runOnContext(v0 -> {
-                state.set(State.ERROR);
-                // clean up any waiting command
-                clearQueue(waiting, e);
-                // clean up any pending command
-                clearQueue(pending, e);
+              }
+            }
+          });
+        } else {
+          final NetSocket socket = asyncResult.result();
 
-                netSocket.close();
-                state.set(State.DISCONNECTED);
-              }));
+          netSocket = socket
+              .handler(measured ? buffer -> {
+                metrics.bytesRead(buffer.length());
+                replyParser.handle(buffer);
+              } : replyParser)
+              .closeHandler(v -> runOnContext(v0 -> connectionLost(socket, "Connection closed", null)))
+              .exceptionHandler(e -> runOnContext(v0 -> connectionLost(socket, null, e)));
 
           runOnContext(v -> {
             // clean up any waiting command
             clearQueue(waiting, "Connection lost");
 
             // handle the connection handshake
-            doAuth();
+            handshake();
           });
         }
       });
     }
   }
 
+  /**
+   * Handles the loss of an established socket, either by a close or by an exception. Commands already written to the
+   * socket are always failed, pending commands are only failed if no reconnect is scheduled.
+   */
+  private void connectionLost(NetSocket socket, String message, Throwable cause) {
+    // events from a socket that has already been discarded must not affect the current state
+    if (socket != netSocket) {
+      return;
+    }
+
+    netSocket = null;
+    stopHeartbeat();
+    state.set(State.ERROR);
+
+    // clean up any waiting command
+    if (cause != null) {
+      clearQueue(waiting, cause);
+    } else {
+      clearQueue(waiting, message);
+    }
+
+    socket.close();
+
+    final Handler<Throwable> lostHandler = this.lostHandler;
+    if (lostHandler != null) {
+      lostHandler.handle(cause != null ? cause : new NoStackTraceThrowable(message));
+    }
+
+    if (!reconnect()) {
+      // clean up any pending command
+      if (cause != null) {
+        failPending(cause);
+      } else {
+        failPending(message);
+      }
+
+      closeClient();
+      state.set(State.DISCONNECTED);
+    }
+  }
+
+  /**
+   * Schedules a background reconnect according to the reconnect policy in {@link RedisOptions}. The delay grows
+   * exponentially with each failed attempt, up to the configured maximum, and is randomized by the jitter factor so
+   * many clients do not hit the server at the same time.
+   *
+   * @return false if the policy is disabled or the attempts are exhausted, the caller must then fail the pending queue
+   */
+  private boolean reconnect() {
+    final int maxAttempts = config.getReconnectAttempts();
+
+    if (closing || maxAttempts == 0 || (maxAttempts > 0 && reconnectAttempt >= maxAttempts)) {
+      reconnectAttempt = 0;
+      return false;
+    }
+
+    final double jitter = config.getReconnectJitter();
+    double delay = Math.min(
+        config.getReconnectMaxDelay(),
+        config.getReconnectDelay() * Math.pow(config.getReconnectMultiplier(), reconnectAttempt++));
+
+    if (jitter > 0) {
+      delay += delay * jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+    }
+
+    state.set(State.RECONNECTING);
+    metrics.reconnect();
+
+    if (!config.isQueueWhileReconnecting()) {
+      // clean up any pending command
+      clearQueue(pending, "Connection lost, reconnecting");
+      checkDrained();
+    }
+
+    reconnectTimer = vertx.setTimer(Math.max(1, (long) delay), id -> {
+      reconnectTimer = -1;
+      if (state.compareAndSet(State.RECONNECTING, State.DISCONNECTED)) {
+        connect();
+      }
+    });
+
+    return true;
+  }
+
+  /**
+   * Eagerly opens the connection and performs the handshake, the handler is called once the connection is ready to
+   * send commands or once connecting failed (and no reconnect will be attempted).
+   *
+   * @param handler the handler notified of the handshake result
+   */
+  void connect(Handler<AsyncResult<Void>> handler) {
+    if (state.get() == State.DISCONNECTED) {
+      connect();
+    }
+
+    runOnContext(v -> {
+      switch (state.get()) {
+        case CONNECTED:
+          if (ready) {
+            handler.handle(Future.succeededFuture());
+          } else {
+            // the handshake replies are still to come
+            connectHandlers.add(handler);
+          }
+          break;
+        case DISCONNECTED:
+          // a previous attempt already failed, start over
+          connect();
+          connectHandlers.add(handler);
+          break;
+        default:
+          connectHandlers.add(handler);
+          break;
+      }
+    });
+  }
+
   void disconnect(Handler<AsyncResult<Void>> closeHandler) {
     switch (state.get()) {
       case CONNECTING:
@@ -202,17 +403,33 @@ class RedisConnection {
               // clean up any waiting command
               clearQueue(waiting, "Connection closed");
               // clean up any pending command
-              clearQueue(pending, "Connection closed");
+              failPending("Connection closed");
 
               netSocket.close();
+              netSocket = null;
+              stopHeartbeat();
+              closeClient();
               state.set(State.DISCONNECTED);
-
-              closeHandler.handle(Future.succeededFuture());
+            } else {
+              // the connection was lost before QUIT was answered
+              cancelReconnect();
             }
+
+            closeHandler.handle(Future.succeededFuture());
           });
         });
 
-        send(cmd);
+        runOnContext(v -> {
+          closing = true;
+          send(cmd);
+        });
+        break;
+
+      case RECONNECTING:
+        runOnContext(v -> {
+          cancelReconnect();
+          closeHandler.handle(Future.succeededFuture());
+        });
         break;
 
       case ERROR:
@@ -223,6 +440,88 @@ class RedisConnection {
     }
   }
 
+  /**
+   * Whether the socket is established, a connection that is not has lost any server side session state.
+   */
+  boolean isConnected() {
+    return state.get() == State.CONNECTED;
+  }
+
+  void unmatchedHandler(Handler<Reply> handler) {
+    this.unmatchedHandler = handler;
+  }
+
+  /**
+   * Called when an established socket is lost, for the users of a connection whose server side state does not survive
+   * a reconnect (e.g.: MONITOR).
+   */
+  void lostHandler(Handler<Throwable> handler) {
+    this.lostHandler = handler;
+  }
+
+  /**
+   * Stop reading from the socket, the server buffers the replies until {@link #resume()}.
+   */
+  void pause() {
+    runOnContext(v -> {
+      if (netSocket != null) {
+        netSocket.pause();
+      }
+    });
+  }
+
+  void resume() {
+    runOnContext(v -> {
+      if (netSocket != null) {
+        netSocket.resume();
+      }
+    });
+  }
+
+  /**
+   * Close the connection right away failing the commands waiting for a reply. Unlike {@link #disconnect(Handler)} no
+   * QUIT is sent, since it would be queued behind the command the connection is stuck on.
+   */
+  void kill(String message) {
+    runOnContext(v -> {
+      final NetSocket socket = netSocket;
+      if (socket != null) {
+        closing = true;
+        connectionLost(socket, message, null);
+      } else {
+        failPending(message);
+        disconnect(v0 -> {});
+      }
+    });
+  }
+
+  /**
+   * Release the resources of the NetClient once the connection is over, a later command creates a new one.
+   */
+  private void closeClient() {
+    final NetClient client = this.client;
+    if (client != null) {
+      this.client = null;
+      client.close();
+    }
+  }
+
+  private void cancelReconnect() {
+    if (state.compareAndSet(State.RECONNECTING, State.ERROR)) {
+      if (reconnectTimer != -1) {
+        vertx.cancelTimer(reconnectTimer);
+        reconnectTimer = -1;
+      }
+      reconnectAttempt = 0;
+
+      // clean up any pending command
+      failPending("Connection closed");
+
+      closeClient();
+      state.set(State.DISCONNECTED);
+    }
+  }
+
   /**
    * Sends a message to redis, if the connection is not active then the command is queued for processing and the
    * procedure to start a connection is started.
@@ -232,6 +531,9 @@ class RedisConnection {
    * @param command the redis command to send
    */
   void send(final Command<?> command) {
+    if (slowLog != null) {
+      command.slowLog(slowLog, System.nanoTime());
+    }
     // start the handshake if not connected
     if (state.get() == State.DISCONNECTED) {
       connect();
@@ -239,21 +541,29 @@ class RedisConnection {
 
     // write to the socket in the netSocket context
     runOnContext(v -> {
-      switch (state.get()) {
+      final State current = state.get();
+      if (current == State.RECONNECTING && !config.isQueueWhileReconnecting()) {
+        command.handle(Future.failedFuture("Connection lost, reconnecting"));
+        return;
+      }
+
+      switch (current) {
         case CONNECTED:
-          // The order read must match the order written, vertx guarantees
-          // that this is only called from a single thread.
-          for (int i = 0; i < command.getExpectedReplies(); ++i) {
-            waiting.add(command);
+          // commands already queued must go first, otherwise the order would not be kept, and nothing is written
+          // before the handshake is answered
+          if (ready && pending.isEmpty() && canWrite()) {
+            traced(command);
+            write(command);
+          } else {
+            enqueue(command);
           }
-
-          command.writeTo(netSocket);
           break;
+        case RECONNECTING:
         case CONNECTING:
         case ERROR:
         case DISCONNECTED:
           if (state.get() != State.CONNECTED) {
-            pending.add(command);
+            enqueue(command);
           } else {
             // state changed so start over...
             send(command);
@@ -264,87 +574,301 @@ class RedisConnection {
   }
 
   /**
-   * Once a socket connection is established one needs to authenticate if there is a password
+   * Returns true when the number of queued commands reached {@link RedisOptions#getMaxPendingCommands()}, at this
+   * point new commands will be failed until the queue is drained.
    */
-  private void doAuth() {
-    if (config.getAuth() != null) {
-      // we need to authenticate first
-      final List<Object> args = new ArrayList<>();
-      args.add(config.getAuth());
-
-      Command<String> authCmd = new Command<>(context, RedisCommand.AUTH, args, Charset.forName(config.getEncoding()), ResponseTransform.NONE, String.class).handler(auth -> {
-        if (auth.failed()) {
-          // clean up any waiting command
-          clearQueue(pending, auth.cause());
-          netSocket.close();
-          state.set(State.DISCONNECTED);
-        } else {
-          // auth success, proceed with select
-          doSelect();
-        }
-      });
+  boolean writeQueueFull() {
+    return writeQueueFull;
+  }
 
-      // write to the socket in the netSocket context
-      runOnContext(v -> {
-        // queue it
-        waiting.add(authCmd);
-        authCmd.writeTo(netSocket);
-      });
-    } else {
-      // no auth, proceed with select
-      doSelect();
+  /**
+   * Set a handler to be called once the pending queue is drained to half of its maximum size after being full.
+   */
+  void drainHandler(Handler<Void> handler) {
+    this.drainHandler = handler;
+  }
+
+  private boolean canWrite() {
+    return maxInFlight < 0 || waiting.size() < maxInFlight;
+  }
+
+  private void write(Command<?> command) {
+    // The order read must match the order written, vertx guarantees
+    // that this is only called from a single thread.
+    for (int i = 0; i < command.getExpectedReplies(); ++i) {
+      waiting.add(command);
+    }
+
+    if (measured) {
+      metrics.waitingChanged(command.getExpectedReplies());
+      metrics.bytesWritten(command.length());
+      command.sent(System.nanoTime());
+    }
+
+    command.writeTo(netSocket);
+    command.written();
+  }
+
+  /**
+   * Start the span of a command once it is buffered or written, so a command rejected or re-dispatched by
+   * {@link #send(Command)} is reported once and only when it was sent.
+   */
+  private void traced(Command<?> command) {
+    if (tracer != null) {
+      command.trace(tracer, tracer.enqueue(command.name(), command.key(), db, command.length()));
+    }
+  }
+
+  private void enqueue(Command<?> command) {
+    if (maxPending >= 0 && pending.size() >= maxPending) {
+      writeQueueFull = true;
+      command.handle(Future.failedFuture("Too many pending commands (" + maxPending + ")"));
+      return;
+    }
+
+    traced(command);
+    pending.add(command);
+    metrics.pendingChanged(1);
+
+    if (maxPending >= 0 && pending.size() >= maxPending) {
+      writeQueueFull = true;
     }
   }
 
-  private void doSelect() {
-    // optionally there could be a select command
+  private void flushPending(Buffer batch) {
+    final long now = measured ? System.nanoTime() : 0;
+    int flushed = 0;
+    int replies = 0;
+
+    Command<?> command;
+    // send as much as the in flight limit allows in a single write
+    while (canWrite() && (command = pending.poll()) != null) {
+      // The order read must match the order written, vertx guarantees
+      // that this is only called from a single thread.
+      for (int i = 0; i < command.getExpectedReplies(); ++i) {
+        waiting.add(command);
+      }
+      flushed++;
+      replies += command.getExpectedReplies();
+      command.sent(now);
+
+      if (batch == null) {
+        batch = Buffer.buffer();
+      }
+      command.writeTo(batch);
+      // the batch goes out in this same event loop turn
+      command.written();
+    }
+
+    if (measured) {
+      metrics.pendingChanged(-flushed);
+      metrics.waitingChanged(replies);
+    }
+
+    if (batch != null && batch.length() > 0) {
+      metrics.bytesWritten(batch.length());
+      netSocket.write(batch);
+    }
+    checkDrained();
+  }
+
+  private void checkDrained() {
+    if (writeQueueFull && pending.size() <= maxPending / 2) {
+      writeQueueFull = false;
+      final Handler<Void> handler = drainHandler;
+      if (handler != null) {
+        handler.handle(null);
+      }
+    }
+  }
+
+  /**
+   * Once a socket connection is established the handshake commands (AUTH, HELLO, SELECT and CLIENT SETNAME) are
+   * written in a single batch. The pending commands are only written once all of them are answered, otherwise a failed
+   * SELECT or CLIENT SETNAME would leave the server running commands that are reported as failed, e.g.: on the default
+   * database. A lone AUTH is the exception, after a failed AUTH the server rejects every command so the pending ones
+   * go out in the same write.
+   * <p>
+   * If any handshake command fails the pending commands are failed with its error and the socket is closed.
+   */
+  private void handshake() {
+    final NetSocket socket = netSocket;
+    ready = false;
+    final Charset charset = Charset.forName(config.getEncoding());
+    final List<Command<?>> commands = new ArrayList<>(4);
+
+    if (config.getAuth() != null) {
+      commands.add(new Command<>(context, RedisCommand.AUTH, Collections.singletonList(config.getAuth()), charset, ResponseTransform.NONE, String.class));
+    }
+    if (config.isHello()) {
+      commands.add(new Command<>(context, RedisCommand.HELLO, Collections.singletonList(2), charset, ResponseTransform.NONE, Void.class));
+    }
     if (config.getSelect() != null) {
+      commands.add(new Command<>(context, RedisCommand.SELECT, Collections.singletonList(config.getSelect()), charset, ResponseTransform.NONE, String.class));
+    }
+    if (config.getClientName() != null) {
+      commands.add(new Command<>(context, RedisCommand.CLIENT_SETNAME, Collections.singletonList(config.getClientName()), charset, ResponseTransform.NONE, String.class));
+    }
 
-      final List<Object> args = new ArrayList<>();
-      args.add(config.getSelect());
+    final Buffer batch = Buffer.buffer();
+    final long now = measured ? System.nanoTime() : 0;
 
-      Command<String> selectCmd = new Command<>(context, RedisCommand.SELECT, args, Charset.forName(config.getEncoding()), ResponseTransform.NONE, String.class).handler(select -> {
-        if (select.failed()) {
-          // clean up any waiting command
-          clearQueue(pending, select.cause());
+    for (int i = 0; i < commands.size(); i++) {
+      final boolean last = i == commands.size() - 1;
 
-          netSocket.close();
-          state.set(State.DISCONNECTED);
-        } else {
-          // select success, proceed with resend
-          resendPending();
+      commands.get(i).handler(res -> {
+        if (res.failed()) {
+          handshakeFailed(socket, res.cause());
+        } else if (last && socket == netSocket) {
+          handshakeCompleted();
         }
       });
 
-      // write to the socket in the netSocket context
-      runOnContext(v -> {
-        // queue it
-        waiting.add(selectCmd);
-        selectCmd.writeTo(netSocket);
-      });
+      commands.get(i).sent(now);
+      commands.get(i).writeTo(batch);
+    }
+
+    if (state.compareAndSet(State.CONNECTING, State.CONNECTED)) {
+      waiting.addAll(commands);
+      metrics.waitingChanged(commands.size());
+
+      if (commands.isEmpty()) {
+        handshakeCompleted();
+      } else if (commands.size() == 1 && config.getAuth() != null) {
+        // the server does not run anything after a failed AUTH
+        flushPending(batch);
+      } else {
+        metrics.bytesWritten(batch.length());
+        socket.write(batch);
+      }
     } else {
-      // no select, proceed with resend
-      resendPending();
+      // the connection was closed in the meantime, the handshake is never written
+      for (Command<?> command : commands) {
+        command.handle(Future.failedFuture("Connection closed during the handshake"));
+      }
     }
   }
 
-  private void resendPending() {
-    runOnContext(v -> {
-      Command<?> command;
-      if (state.compareAndSet(State.CONNECTING, State.CONNECTED)) {
-        // we are connected so clean up the pending queue
-        while ((command = pending.poll()) != null) {
-          // The order read must match the order written, vertx guarantees
-          // that this is only called from a single thread.
-          for (int i = 0; i < command.getExpectedReplies(); ++i) {
-            waiting.add(command);
-          }
+  private void handshakeCompleted() {
+    // a successful handshake resets the reconnect policy
+    reconnectAttempt = 0;
+    closing = false;
+    ready = true;
 
-          // write to the socket in the netSocket context
-          command.writeTo(netSocket);
-        }
+    // the commands queued during the handshake
+    flushPending(null);
+    startHeartbeat();
+
+    Handler<AsyncResult<Void>> handler;
+    while ((handler = connectHandlers.poll()) != null) {
+      handler.handle(Future.succeededFuture());
+    }
+  }
+
+  private void handshakeFailed(NetSocket socket, Throwable cause) {
+    // only the first failure is relevant, the others are a consequence of cleaning up the waiting queue
+    if (socket != netSocket) {
+      return;
+    }
+
+    netSocket = null;
+    stopHeartbeat();
+    state.set(State.ERROR);
+
+    // the rest of the handshake, and after a lone AUTH the commands written with it, must not succeed
+    clearQueue(waiting, cause);
+    // clean up any pending command
+    failPending(cause);
+
+    socket.close();
+    closeClient();
+    state.set(State.DISCONNECTED);
+  }
+
+  /**
+   * A half open socket (e.g.: dropped by a NAT device) is only noticed by TCP keep alive after several minutes. When
+   * enabled, the heartbeat sends a PING once the connection did not receive any reply for the ping interval and closes
+   * the connection if the PING is not answered within the ping timeout, so commands fail fast and the reconnect policy
+   * can kick in.
+   * <p>
+   * Only an idle connection is pinged, a PING written behind a slow command (e.g.: a large SUNIONSTORE or a blocking
+   * pop) would time out although the server is fine.
+   */
+  private void startHeartbeat() {
+    if (pingInterval <= 0 || heartbeatTimer != -1) {
+      return;
+    }
+
+    final NetSocket socket = netSocket;
+    lastReply = System.nanoTime();
+
+    heartbeatTimer = vertx.setPeriodic(pingInterval, id -> {
+      if (socket == netSocket && pingTimeoutTimer == -1 && waiting.isEmpty() && System.nanoTime() - lastReply >= TimeUnit.MILLISECONDS.toNanos(pingInterval)) {
+        ping(socket);
+      }
+    });
+  }
+
+  private void stopHeartbeat() {
+    if (heartbeatTimer != -1) {
+      vertx.cancelTimer(heartbeatTimer);
+      heartbeatTimer = -1;
+    }
+    if (pingTimeoutTimer != -1) {
+      vertx.cancelTimer(pingTimeoutTimer);
+      pingTimeoutTimer = -1;
+    }
+  }
+
+  private void ping(NetSocket socket) {
+    final long start = System.nanoTime();
+
+    final Command<String> ping = new Command<>(context, RedisCommand.PING, null, Charset.forName(config.getEncoding()), ResponseTransform.NONE, String.class).handler(res -> {
+      // any reply, even an error, proves the connection is alive
+      if (socket == netSocket && pingTimeoutTimer != -1) {
+        vertx.cancelTimer(pingTimeoutTimer);
+        pingTimeoutTimer = -1;
+        pingLatency = System.nanoTime() - start;
+        metrics.pingLatency(pingLatency);
       }
     });
+
+    pingTimeoutTimer = vertx.setTimer(pingTimeout, id -> {
+      pingTimeoutTimer = -1;
+      log.warn("No reply to PING within " + pingTimeout + "ms, closing the connection");
+      metrics.timeout("PING");
+      connectionLost(socket, "Connection closed, no reply to PING within " + pingTimeout + "ms", null);
+    });
+
+    // the heartbeat does not count for the in flight limit
+    write(ping);
+  }
+
+  /**
+   * Round trip of the last heartbeat PING in nanoseconds or -1 if no PING was answered yet.
+   */
+  long pingLatency() {
+    return pingLatency;
+  }
+
+  private void failPending(String message) {
+    clearQueue(pending, message);
+    checkDrained();
+
+    Handler<AsyncResult<Void>> handler;
+    while ((handler = connectHandlers.poll()) != null) {
+      handler.handle(Future.failedFuture(message));
+    }
+  }
+
+  private void failPending(Throwable cause) {
+    clearQueue(pending, cause);
+    checkDrained();
+
+    Handler<AsyncResult<Void>> handler;
+    while ((handler = connectHandlers.poll()) != null) {
+      handler.handle(Future.failedFuture(cause));
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -352,105 +876,60 @@ class RedisConnection {
 
     runOnContext(v -> {
       final Command cmd = waiting.poll();
+      final long previousReply = lastReply;
+
+      if (pingInterval > 0 || measured) {
+        lastReply = System.nanoTime();
+      }
+
+      if (cmd != null && headOfLineThreshold >= 0) {
+        // the time this reply kept the commands behind it waiting, counted from the previous reply or the write
+        checkHeadOfLine(cmd, lastReply - Math.max(previousReply, cmd.sent()));
+      }
+
+      // a slot in the waiting queue is now free
+      if (ready && state.get() == State.CONNECTED && !pending.isEmpty()) {
+        flushPending(null);
+      }
 
       if (cmd != null) {
-        switch (reply.type()) {
-          case '-': // Error
-            cmd.handle(Future.failedFuture(reply.asType(String.class)));
-            return;
-          case '+':   // Status
-            switch (cmd.responseTransform()) {
-              case ARRAY:
-                cmd.handle(Future.succeededFuture(new JsonArray().add(reply.asType(String.class))));
-                break;
-              default:
-                cmd.handle(Future.succeededFuture(reply.asType(cmd.returnType())));
-                break;
-            }
-            return;
-          case '$':  // Bulk
-            switch (cmd.responseTransform()) {
-              case ARRAY:
-                cmd.handle(Future.succeededFuture(new JsonArray().add(reply.asType(String.class, cmd.encoding()))));
-                break;
-              case INFO:
-                String info = reply.asType(String.class, cmd.encoding());
-
-                if (info == null) {
-                  cmd.handle(Future.succeededFuture(null));
-                } else {
-                  String lines[] = info.split("\\r?\\n");
-                  JsonObject value = new JsonObject();
-
-                  JsonObject section = null;
-                  for (String line : lines) {
-                    if (line.length() == 0) {
-                      // end of section
-                      section = null;
-                      continue;
-                    }
-
-                    if (line.charAt(0) == '#') {
-                      // begin section
-                      section = new JsonObject();
-                      // create a sub key with the section name
-                      value.put(line.substring(2).toLowerCase(), section);
-                    } else {
-                      // entry in section
-                      int split = line.indexOf(':');
-                      if (section == null) {
-                        value.put(line.substring(0, split), line.substring(split + 1));
-                      } else {
-                        section.put(line.substring(0, split), line.substring(split + 1));
-                      }
-                    }
-                  }
-                  cmd.handle(Future.succeededFuture(value));
-                }
-                break;
-              default:
-                cmd.handle(Future.succeededFuture(reply.asType(cmd.returnType(), cmd.encoding())));
-                break;
-            }
-            return;
-          case '*': // Multi
-            switch (cmd.responseTransform()) {
-              case HASH:
-                cmd.handle(Future.succeededFuture(reply.asType(JsonObject.class, cmd.encoding())));
-                break;
-              default:
-                cmd.handle(Future.succeededFuture(reply.asType(JsonArray.class, cmd.encoding())));
-                break;
-            }
-            return;
-          case ':':   // Integer
-            switch (cmd.responseTransform()) {
-              case ARRAY:
-                cmd.handle(Future.succeededFuture(new JsonArray().add(reply.asType(Long.class))));
-                break;
-              default:
-                cmd.handle(Future.succeededFuture(reply.asType(cmd.returnType())));
-                break;
-            }
-            return;
-          default:
-            cmd.handle(Future.failedFuture("Unknown message type"));
+        metrics.waitingChanged(-1);
+        // the slots of a command are contiguous, this is its last reply when the next slot is someone else's
+        final boolean last = waiting.peek() != cmd;
+        if (measured && last) {
+          cmd.replied(lastReply, reply.size());
+          metrics.commandCompleted(cmd.name(), lastReply - cmd.sent(), !reply.is('-'));
         }
+        if (largeReplyThreshold >= 0 && reply.size() > largeReplyThreshold) {
+          log.warn("Reply of " + reply.size() + " bytes to " + cmd.name() + (cmd.key() == null ? "" : " " + cmd.key()));
+          metrics.largeReply(cmd.name(), reply.size());
+        }
+        cmd.handleReply(reply, last);
+      } else if (unmatchedHandler != null) {
+        unmatchedHandler.handle(reply);
       } else {
         log.error("No handler waiting for message: " + reply.asType(String.class));
       }
     });
   }
 
-  private void runOnContext(Handler<Void> handler) {
-    if (Vertx.currentContext() == context) {
-      handler.handle(null);
-    } else {
-      context.runOnContext(handler);
+  private void checkHeadOfLine(Command<?> cmd, long time) {
+    final int blocked = waiting.size() + pending.size();
+
+    if (time > headOfLineThreshold && blocked >= headOfLineQueueSize) {
+      log.warn("Reply to " + cmd.name() + (cmd.key() == null ? "" : " " + cmd.key()) + " held back " + blocked
+          + " commands for " + TimeUnit.NANOSECONDS.toMillis(time) + "ms");
+      metrics.headOfLineBlocking(cmd.name(), blocked, time);
     }
   }
 
-  private static void clearQueue(Queue<Command<?>> q, String message) {
+  private void runOnContext(Handler<Void> handler) {
+    Contexts.run(context, handler);
+  }
+
+  private void clearQueue(Queue<Command<?>> q, String message) {
+    cleared(q, q.size());
+
     Command<?> cmd;
 
     // clean up any pending command
@@ -459,7 +938,9 @@ class RedisConnection {
     }
   }
 
-  private static void clearQueue(Queue<Command<?>> q, Throwable cause) {
+  private void clearQueue(Queue<Command<?>> q, Throwable cause) {
+    cleared(q, q.size());
+
     Command<?> cmd;
 
     // clean up any pending command
@@ -467,4 +948,14 @@ class RedisConnection {
       cmd.handle(Future.failedFuture(cause));
     }
   }
+
+  private void cleared(Queue<Command<?>> q, int size) {
+    if (size > 0) {
+      if (q == pending) {
+        metrics.pendingChanged(-size);
+      } else {
+        metrics.waitingChanged(-size);
+      }
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.redis.RedisOptions;
+import io.vertx.redis.spi.RedisMetrics;
+import io.vertx.redis.spi.RedisTracer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of connections that are not shared with the pipelined traffic of the client. A connection is borrowed
+ * for the lifetime of a session that needs the server side connection state for itself (e.g.: MULTI/EXEC, WATCH) and
+ * returned to the pool once the session is over.
+ *
+ * Connections are created lazily up to the maximum size, when all are in use the borrowers wait in FIFO order, for
+ * at most the acquire timeout if there is one. The connections belong to the context of the client rather than to the
+ * one of their first borrower, so they outlive it.
+ */
+class RedisConnectionPool {
+
+  private final Vertx vertx;
+  private final Context context;
+  private final RedisOptions config;
+  private final int maxSize;
+  private final long acquireTimeout;
+  private final RedisMetrics metrics;
+  private final SlowLog slowLog;
+  private final RedisTracer tracer;
+
+  private final List<RedisConnection> all = new ArrayList<>();
+  private final Deque<RedisConnection> idle = new ArrayDeque<>();
+  private final Queue<Waiter> waiters = new ArrayDeque<>();
+  private boolean closed;
+
+  private static final class Waiter {
+    final Handler<AsyncResult<RedisConnection>> handler;
+    long timer = -1;
+
+    Waiter(Handler<AsyncResult<RedisConnection>> handler) {
+      this.handler = handler;
+    }
+  }
+
+  RedisConnectionPool(Vertx vertx, Context context, RedisOptions config, int maxSize, long acquireTimeout, RedisMetrics metrics, SlowLog slowLog, RedisTracer tracer) {
+    this.vertx = vertx;
+    this.context = context;
+    this.config = config;
+    this.maxSize = maxSize;
+    this.acquireTimeout = acquireTimeout;
+    this.metrics = metrics;
+    this.slowLog = slowLog;
+    this.tracer = tracer;
+  }
+
+  /**
+   * Borrow a connection, the handler is called as soon as one is available or failed once the acquire timeout expires.
+   */
+  void acquire(Handler<AsyncResult<RedisConnection>> handler) {
+    RedisConnection connection;
+
+    synchronized (this) {
+      if (closed) {
+        connection = null;
+      } else {
+        connection = idle.pollFirst();
+        if (connection == null) {
+          if (all.size() < maxSize) {
+            connection = newConnection();
+            all.add(connection);
+          } else {
+            final Waiter waiter = new Waiter(handler);
+            if (acquireTimeout >= 0) {
+              waiter.timer = vertx.setTimer(Math.max(1, acquireTimeout), t -> {
+                synchronized (this) {
+                  // already handed a connection
+                  if (!waiters.remove(waiter)) {
+                    return;
+                  }
+                }
+                handler.handle(Future.failedFuture("No connection available within " + acquireTimeout + "ms"));
+              });
+            }
+            waiters.add(waiter);
+            return;
+          }
+        }
+      }
+    }
+
+    if (connection == null) {
+      handler.handle(Future.failedFuture("Connection closed"));
+    } else {
+      handler.handle(Future.succeededFuture(connection));
+    }
+  }
+
+  /**
+   * Return a connection to the pool, if there is a borrower waiting it gets the connection right away.
+   */
+  void release(RedisConnection connection) {
+    Waiter waiter;
+
+    synchronized (this) {
+      waiter = waiters.poll();
+      if (waiter == null && !closed) {
+        // most recently used first, the others can go stale and be reconnected lazily
+        idle.addFirst(connection);
+        return;
+      }
+    }
+
+    if (waiter == null) {
+      // returned after the pool was closed
+      connection.disconnect(v -> {});
+      return;
+    }
+
+    handOver(waiter, connection);
+  }
+
+  /**
+   * Remove a borrowed connection that cannot be reused from the pool, the caller is responsible for closing it.
+   */
+  void discard(RedisConnection connection) {
+    Waiter waiter;
+    RedisConnection replacement;
+
+    synchronized (this) {
+      all.remove(connection);
+      waiter = waiters.poll();
+      if (waiter == null) {
+        return;
+      }
+      replacement = newConnection();
+      all.add(replacement);
+    }
+
+    handOver(waiter, replacement);
+  }
+
+  private RedisConnection newConnection() {
+    return new RedisConnection(vertx, context, config, null, metrics, slowLog, tracer);
+  }
+
+  private void handOver(Waiter waiter, RedisConnection connection) {
+    if (waiter.timer != -1) {
+      vertx.cancelTimer(waiter.timer);
+    }
+    waiter.handler.handle(Future.succeededFuture(connection));
+  }
+
+  synchronized boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Close the pool: idle connections are sent a QUIT while borrowed ones are closed right away, their commands may never
+   * be answered (e.g.: a blocking pop without timeout) and a QUIT would be queued behind them.
+   */
+  void close(Handler<AsyncResult<Void>> handler) {
+    final List<RedisConnection> connections;
+    final List<RedisConnection> borrowed;
+    final List<Waiter> waiting;
+
+    synchronized (this) {
+      closed = true;
+      connections = new ArrayList<>(idle);
+      borrowed = new ArrayList<>(all);
+      borrowed.removeAll(idle);
+      all.clear();
+      idle.clear();
+      waiting = new ArrayList<>(waiters);
+      waiters.clear();
+    }
+
+    for (Waiter waiter : waiting) {
+      if (waiter.timer != -1) {
+        vertx.cancelTimer(waiter.timer);
+      }
+      waiter.handler.handle(Future.failedFuture("Connection closed"));
+    }
+
+    for (RedisConnection connection : borrowed) {
+      connection.kill("Connection closed");
+    }
+
+    if (connections.isEmpty()) {
+      handler.handle(Future.succeededFuture());
+      return;
+    }
+
+    final AtomicInteger cnt = new AtomicInteger(connections.size());
+
+    for (RedisConnection connection : connections) {
+      connection.disconnect(v -> {
+        if (cnt.decrementAndGet() == 0) {
+          handler.handle(Future.succeededFuture());
+        }
+      });
+    }
+  }
+}
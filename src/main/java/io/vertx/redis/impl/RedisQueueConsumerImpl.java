@@ -0,0 +1,381 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisQueueConsumer;
+import io.vertx.redis.RedisQueueOptions;
+import io.vertx.redis.op.Script;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * All state is only touched from the context the consumer was created on, so no synchronization is needed.
+ */
+public class RedisQueueConsumerImpl implements RedisQueueConsumer {
+
+  private static final Logger log = LoggerFactory.getLogger(RedisQueueConsumerImpl.class);
+
+  // only put the item back if it was not acknowledged in the meantime
+  private static final Script REQUEUE = new Script(
+      "if redis.call('lrem', KEYS[1], 1, ARGV[1]) > 0 then return redis.call('rpush', KEYS[2], ARGV[1]) end return 0");
+
+  private static final Script ACK = new Script(
+      "redis.call('zrem', KEYS[2], ARGV[1]) return redis.call('lrem', KEYS[1], 1, ARGV[1])");
+
+  // requeues a bounded number of expired items, then gives a receive time to the oldest items of the processing list
+  // that have none, e.g.: left by a consumer that crashed right after BRPOPLPUSH, so they expire as well
+  private static final Script REQUEUE_EXPIRED = new Script(
+      "local now = tonumber(ARGV[1]) " +
+      "local limit = tonumber(ARGV[3]) " +
+      "local requeued = {} " +
+      "for _, item in ipairs(redis.call('zrangebyscore', KEYS[3], '-inf', now - tonumber(ARGV[2]), 'LIMIT', 0, limit)) do " +
+      "  redis.call('zrem', KEYS[3], item) " +
+      "  if redis.call('lrem', KEYS[1], 1, item) > 0 then " +
+      "    redis.call('rpush', KEYS[2], item) " +
+      "    requeued[#requeued + 1] = item " +
+      "  end " +
+      "end " +
+      "for _, item in ipairs(redis.call('lrange', KEYS[1], -limit, -1)) do " +
+      "  if not redis.call('zscore', KEYS[3], item) then " +
+      "    redis.call('zadd', KEYS[3], now, item) " +
+      "  end " +
+      "end " +
+      "return requeued");
+
+  // the most items a single run of the requeue script looks at, so it never blocks the server for long
+  private static final int REQUEUE_LIMIT = 100;
+
+  private static final long RETRY_DELAY = 1000;
+
+  private static final class Entry {
+    final String item;
+    final long received;
+
+    Entry(String item, long received) {
+      this.item = item;
+      this.received = received;
+    }
+  }
+
+  private final Vertx vertx;
+  private final Context context;
+  private final RedisClient client;
+
+  private final String queue;
+  private final String processing;
+  // the time each item of the processing list was received, shared by all the consumers of the queue
+  private final String receivedTimes;
+  private final int pollers;
+  private final int maxInFlight;
+  private final int pollTimeout;
+  private final long visibilityTimeout;
+
+  // items handed out and not yet acknowledged, in the order they were received
+  private final Deque<Entry> inFlight = new ArrayDeque<>();
+  // pollers waiting for a BRPOPLPUSH reply
+  private int polling;
+  // pollers waiting for an in flight slot
+  private int parked;
+  // pollers that did not stop yet
+  private int active;
+  // timers of the pollers waiting to retry a failed poll
+  private final Deque<Long> retries = new ArrayDeque<>();
+
+  private boolean running;
+  // start() was called before the previous stop() completed
+  private boolean restart;
+  private long timer = -1;
+  private Handler<String> handler;
+  private Handler<AsyncResult<Void>> stopHandler;
+
+  private long received;
+  private long acked;
+  private long requeued;
+
+  public RedisQueueConsumerImpl(Vertx vertx, RedisClient client, RedisQueueOptions options) {
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.client = client;
+
+    this.queue = options.getQueue();
+    this.processing = options.getProcessingQueue();
+    this.receivedTimes = processing + ":received";
+    this.pollers = options.getPollers();
+    this.maxInFlight = options.getMaxInFlight();
+    this.pollTimeout = options.getPollTimeout();
+    this.visibilityTimeout = options.getVisibilityTimeout();
+  }
+
+  @Override
+  public RedisQueueConsumer handler(Handler<String> handler) {
+    context.runOnContext(v -> {
+      this.handler = handler;
+      // the pollers wait for a handler
+      unpark();
+    });
+    return this;
+  }
+
+  @Override
+  public RedisQueueConsumer start() {
+    context.runOnContext(v -> {
+      if (running) {
+        return;
+      }
+
+      if (stopHandler != null) {
+        // the pollers of the previous run are still blocked in BRPOPLPUSH, start once they returned
+        restart = true;
+        return;
+      }
+
+      running = true;
+
+      for (int i = 0; i < pollers; i++) {
+        active++;
+        poll();
+      }
+
+      if (visibilityTimeout > 0) {
+        timer = vertx.setPeriodic(Math.max(1, visibilityTimeout / 2), t -> requeueExpired());
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public void stop(Handler<AsyncResult<Void>> handler) {
+    context.runOnContext(v -> {
+      running = false;
+      restart = false;
+
+      final Handler<AsyncResult<Void>> previous = stopHandler;
+      stopHandler = previous == null ? handler : res -> {
+        previous.handle(res);
+        handler.handle(res);
+      };
+
+      if (timer != -1) {
+        vertx.cancelTimer(timer);
+        timer = -1;
+      }
+
+      // parked pollers and the ones waiting to retry have nothing outstanding
+      while (parked > 0) {
+        parked--;
+        pollerStopped();
+      }
+      while (!retries.isEmpty()) {
+        vertx.cancelTimer(retries.poll());
+        pollerStopped();
+      }
+
+      if (active == 0) {
+        pollerStopped();
+      }
+    });
+  }
+
+  @Override
+  public RedisQueueConsumer ack(String item, Handler<AsyncResult<Void>> handler) {
+    context.runOnContext(v -> {
+      forget(item);
+
+      acked++;
+      client.evalScriptAs(Long.class, ACK, Arrays.asList(processing, receivedTimes), Collections.singletonList(item), lrem -> {
+        if (handler != null) {
+          handler.handle(lrem.failed() ? Future.failedFuture(lrem.cause()) : Future.succeededFuture());
+        }
+      });
+
+      unpark();
+    });
+    return this;
+  }
+
+  @Override
+  public void stats(Handler<AsyncResult<JsonObject>> handler) {
+    context.runOnContext(v -> {
+      final JsonObject stats = new JsonObject()
+          .put("received", received)
+          .put("acked", acked)
+          .put("requeued", requeued)
+          .put("inFlight", inFlight.size())
+          .put("oldestInFlight", inFlight.isEmpty() ? 0 : System.currentTimeMillis() - inFlight.peek().received);
+
+      client.llen(queue, llen -> {
+        if (llen.failed()) {
+          handler.handle(Future.failedFuture(llen.cause()));
+          return;
+        }
+        stats.put("queue", llen.result());
+
+        client.llen(processing, llen2 -> {
+          if (llen2.failed()) {
+            handler.handle(Future.failedFuture(llen2.cause()));
+            return;
+          }
+          stats.put("processing", llen2.result());
+          handler.handle(Future.succeededFuture(stats));
+        });
+      });
+    });
+  }
+
+  private void poll() {
+    if (!running) {
+      pollerStopped();
+      return;
+    }
+
+    // every outstanding poll may bring one more item, and there must be someone to hand it to
+    if (handler == null || inFlight.size() + polling >= maxInFlight) {
+      parked++;
+      return;
+    }
+
+    polling++;
+    client.brpoplpush(queue, processing, pollTimeout, brpoplpush -> {
+      polling--;
+
+      if (brpoplpush.failed()) {
+        if (!running) {
+          pollerStopped();
+        } else if (clientClosed()) {
+          // the blocking pool of a closed client fails every poll, there is no point in retrying
+          log.warn("Failed to poll " + queue + ", the client is closed", brpoplpush.cause());
+          running = false;
+          if (timer != -1) {
+            vertx.cancelTimer(timer);
+            timer = -1;
+          }
+          pollerStopped();
+        } else {
+          log.warn("Failed to poll " + queue + ", retrying", brpoplpush.cause());
+          retries.add(vertx.setTimer(RETRY_DELAY, t -> {
+            retries.remove(t);
+            poll();
+          }));
+        }
+        return;
+      }
+
+      final String item = brpoplpush.result();
+
+      // null when the poll timed out
+      if (item == null) {
+        poll();
+        return;
+      }
+
+      if (!running || handler == null) {
+        // stopped or left without a handler while polling, the item goes back for another consumer
+        client.evalScriptAs(Long.class, REQUEUE, Arrays.asList(processing, queue), Collections.singletonList(item), requeue -> {
+          if (requeue.failed()) {
+            log.warn("Failed to requeue an item of " + queue, requeue.cause());
+          }
+          poll();
+        });
+        return;
+      }
+
+      final long now = System.currentTimeMillis();
+      received++;
+      inFlight.add(new Entry(item, now));
+      client.zadd(receivedTimes, now, item, zadd -> {
+        if (zadd.failed()) {
+          // the scan gives it a receive time
+          log.warn("Failed to record the receive time of an item of " + queue, zadd.cause());
+        }
+      });
+      handler.handle(item);
+
+      poll();
+    });
+  }
+
+  private boolean clientClosed() {
+    return client instanceof AbstractRedisClient && ((AbstractRedisClient) client).isClosed();
+  }
+
+  private void unpark() {
+    while (parked > 0 && handler != null && inFlight.size() + polling < maxInFlight) {
+      parked--;
+      poll();
+    }
+  }
+
+  private void pollerStopped() {
+    if (active > 0) {
+      active--;
+    }
+
+    if (active == 0 && stopHandler != null) {
+      final Handler<AsyncResult<Void>> handler = stopHandler;
+      stopHandler = null;
+      handler.handle(Future.succeededFuture());
+
+      if (restart) {
+        restart = false;
+        start();
+      }
+    }
+  }
+
+  private void forget(String item) {
+    final Iterator<Entry> it = inFlight.iterator();
+    while (it.hasNext()) {
+      if (it.next().item.equals(item)) {
+        it.remove();
+        return;
+      }
+    }
+  }
+
+  private void requeueExpired() {
+    final List<String> args = Arrays.asList(String.valueOf(System.currentTimeMillis()), String.valueOf(visibilityTimeout), String.valueOf(REQUEUE_LIMIT));
+
+    client.evalScriptAs(JsonArray.class, REQUEUE_EXPIRED, Arrays.asList(processing, queue, receivedTimes), args, requeue -> {
+      if (requeue.failed()) {
+        log.warn("Failed to requeue the expired items of " + queue, requeue.cause());
+        return;
+      }
+
+      for (Object item : requeue.result()) {
+        requeued++;
+        // the items of other consumers are not in flight here
+        forget((String) item);
+      }
+
+      unpark();
+    });
+  }
+}
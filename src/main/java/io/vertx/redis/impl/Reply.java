@@ -19,10 +19,15 @@ import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public final class Reply {
 
   private final byte type;
   private final Object data;
+  // bytes on the wire, only known for top level replies
+  private int size;
 
   public Reply(byte type, Object data) {
     this.type = type;
@@ -38,6 +43,17 @@ public final class Reply {
     ((Reply[]) data)[pos] = reply;
   }
 
+  void size(int size) {
+    this.size = size;
+  }
+
+  /**
+   * The size in bytes of the serialized reply, 0 for the elements of a multi-bulk reply.
+   */
+  int size() {
+    return size;
+  }
+
   public boolean is(byte b) {
     return type == b;
   }
@@ -77,7 +93,13 @@ public final class Reply {
     }
 
     if (type == Long.class) {
-      return (T) data;
+      if (data instanceof Long) {
+        return (T) data;
+      }
+      if (data instanceof Buffer) {
+        return (T) Long.valueOf(((Buffer) data).toString(encoding));
+      }
+      return (T) Long.valueOf(data.toString());
     }
 
     if (type == Void.class) {
@@ -85,6 +107,21 @@ public final class Reply {
     }
 
     if (type == Buffer.class) {
+      if (data instanceof Buffer) {
+        return (T) data;
+      }
+      return (T) Buffer.buffer(data.toString(), encoding);
+    }
+
+    if (type == Object.class) {
+      // the raw tree: Long, Buffer, String (status and errors) and List for multi bulk
+      if (data instanceof Reply[]) {
+        final List<Object> multi = new ArrayList<>(((Reply[]) data).length);
+        for (Reply r : (Reply[]) data) {
+          multi.add(r.asType(Object.class, encoding));
+        }
+        return (T) multi;
+      }
       return (T) data;
     }
 
@@ -179,6 +179,7 @@ public class ReplyParser implements Handler<Buffer> {
               break loop;
             }
 
+            ret.size(_offset - offset);
             handler.handle(ret);
             break;
         }
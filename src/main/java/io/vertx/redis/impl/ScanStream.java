@@ -0,0 +1,149 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Drives a `SCAN` like cursor and emits the elements of each page. The next page is requested while the current one is
+ * being emitted, but never more than one page ahead, so a paused stream stops scanning.
+ */
+class ScanStream<T> implements ReadStream<T> {
+
+  private final BiConsumer<String, Handler<AsyncResult<JsonArray>>> scan;
+  private final Function<JsonArray, Collection<T>> decoder;
+  private final Deque<T> buffer = new ArrayDeque<>();
+
+  private String cursor = "0";
+  // size of the last page, used as prefetch threshold
+  private int pageSize;
+  private boolean fetching;
+  private boolean completed;
+  private boolean ended;
+  private boolean paused;
+  private boolean emitting;
+
+  private Handler<T> handler;
+  private Handler<Void> endHandler;
+  private Handler<Throwable> exceptionHandler;
+
+  ScanStream(BiConsumer<String, Handler<AsyncResult<JsonArray>>> scan, Function<JsonArray, Collection<T>> decoder) {
+    this.scan = scan;
+    this.decoder = decoder;
+  }
+
+  @Override
+  public ReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> handler(Handler<T> handler) {
+    this.handler = handler;
+    // setting the handler starts the scan
+    if (handler != null) {
+      drain();
+    }
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> pause() {
+    paused = true;
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> resume() {
+    paused = false;
+    drain();
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> endHandler(Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    return this;
+  }
+
+  private void fetch() {
+    if (fetching || completed || handler == null || buffer.size() > pageSize) {
+      return;
+    }
+
+    fetching = true;
+    scan.accept(cursor, res -> {
+      fetching = false;
+
+      if (res.failed()) {
+        completed = true;
+        ended = true;
+        if (exceptionHandler != null) {
+          exceptionHandler.handle(res.cause());
+        }
+        return;
+      }
+
+      final JsonArray page = res.result();
+      cursor = page.getString(0);
+      completed = "0".equals(cursor);
+
+      final Collection<T> items = decoder.apply(page.getJsonArray(1));
+      pageSize = items.size();
+      buffer.addAll(items);
+
+      drain();
+    });
+  }
+
+  private void drain() {
+    if (emitting) {
+      return;
+    }
+
+    emitting = true;
+    try {
+      // prefetch the next page while this one is processed
+      fetch();
+
+      T item;
+      while (!paused && handler != null && (item = buffer.poll()) != null) {
+        handler.handle(item);
+      }
+    } finally {
+      emitting = false;
+    }
+
+    fetch();
+
+    if (completed && !fetching && !ended && buffer.isEmpty()) {
+      ended = true;
+      if (endHandler != null) {
+        endHandler.handle(null);
+      }
+    }
+  }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.redis.RedisInterceptor;
+import io.vertx.redis.RedisInvocation;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces identical read commands: while a read is waiting for its reply, the same read with the same arguments is
+ * not sent again but completed with the same result.
+ *
+ * Any other command ends all the flights in progress for the callers that come after it, so a read issued after a
+ * write never gets a result read before that write. This includes the commands recorded for a batch and the ones
+ * sent around the interceptors, see {@link AbstractRedisClient#bypass()}. The results are copied for each caller, since JSON objects and
+ * buffers are mutable.
+ */
+class SingleFlight implements RedisInterceptor {
+
+  private static final Set<RedisCommand> READS = EnumSet.of(
+      RedisCommand.GET, RedisCommand.MGET, RedisCommand.GETRANGE, RedisCommand.STRLEN, RedisCommand.EXISTS,
+      RedisCommand.HGET, RedisCommand.HMGET, RedisCommand.HGETALL, RedisCommand.HKEYS, RedisCommand.HVALS,
+      RedisCommand.HLEN, RedisCommand.HEXISTS,
+      RedisCommand.LRANGE, RedisCommand.LINDEX, RedisCommand.LLEN,
+      RedisCommand.SMEMBERS, RedisCommand.SISMEMBER, RedisCommand.SCARD,
+      RedisCommand.ZRANGE, RedisCommand.ZRANGEBYSCORE, RedisCommand.ZREVRANGE, RedisCommand.ZSCORE, RedisCommand.ZCARD);
+
+  private static final class Flight {
+    private final List<Handler<AsyncResult<Object>>> followers = new ArrayList<>();
+    private boolean done;
+  }
+
+  private final Map<List<Object>, Flight> flights = new ConcurrentHashMap<>();
+
+  @Override
+  public void intercept(RedisInvocation invocation) {
+    final Invocation<?> inv = (Invocation<?>) invocation;
+
+    if (!READS.contains(inv.redisCommand())) {
+      clear();
+      invocation.proceed();
+      return;
+    }
+
+    // recorded commands are part of a transaction, they must be sent
+    if (inv.recording()) {
+      invocation.proceed();
+      return;
+    }
+
+    final List<Object> key = key(inv);
+
+    if (key == null) {
+      invocation.proceed();
+      return;
+    }
+
+    final Flight flight = new Flight();
+
+    while (true) {
+      final Flight current = flights.putIfAbsent(key, flight);
+
+      if (current == null) {
+        break;
+      }
+
+      if (join(current, invocation.handler())) {
+        return;
+      }
+      // landed in the meantime
+      flights.remove(key, current);
+    }
+
+    final Handler<AsyncResult<Object>> handler = invocation.handler();
+
+    invocation.handler(res -> {
+      final List<Handler<AsyncResult<Object>>> followers;
+
+      synchronized (flight) {
+        flight.done = true;
+        followers = flight.followers;
+      }
+      flights.remove(key, flight);
+
+      // copied before the leader gets the result, its handler may modify it
+      final List<AsyncResult<Object>> results = new ArrayList<>(followers.size());
+      for (int i = 0; i < followers.size(); i++) {
+        results.add(res.failed() ? res : Future.succeededFuture(copy(res.result())));
+      }
+
+      if (handler != null) {
+        handler.handle(res);
+      }
+      for (int i = 0; i < followers.size(); i++) {
+        followers.get(i).handle(results.get(i));
+      }
+    });
+
+    invocation.proceed();
+  }
+
+  /**
+   * End all the flights in progress, the reads issued from now on are sent again.
+   */
+  void clear() {
+    if (!flights.isEmpty()) {
+      flights.clear();
+    }
+  }
+
+  private static boolean join(Flight flight, Handler<AsyncResult<Object>> handler) {
+    final Context context = Vertx.currentContext();
+
+    // the result is delivered on the context of each caller
+    final Handler<AsyncResult<Object>> follower = res -> {
+      if (handler == null) {
+        return;
+      }
+      if (context == null || context == Vertx.currentContext()) {
+        handler.handle(res);
+      } else {
+        context.runOnContext(v -> handler.handle(res));
+      }
+    };
+
+    synchronized (flight) {
+      if (flight.done) {
+        return false;
+      }
+      flight.followers.add(follower);
+      return true;
+    }
+  }
+
+  /**
+   * The identity of a read, null if the arguments cannot be compared.
+   */
+  private static List<Object> key(Invocation<?> invocation) {
+    final List<?> args = invocation.args();
+    final List<Object> key = new ArrayList<>((args == null ? 0 : args.size()) + 2);
+
+    key.add(invocation.redisCommand());
+    // e.g.: get and getBinary
+    key.add(invocation.returnType());
+
+    if (args != null) {
+      for (Object arg : args) {
+        if (!(arg instanceof String || arg instanceof Number || arg instanceof Boolean)) {
+          return null;
+        }
+        key.add(arg);
+      }
+    }
+    return key;
+  }
+
+  private static Object copy(Object result) {
+    if (result instanceof JsonArray) {
+      return ((JsonArray) result).copy();
+    }
+    if (result instanceof JsonObject) {
+      return ((JsonObject) result).copy();
+    }
+    if (result instanceof Buffer) {
+      return ((Buffer) result).copy();
+    }
+    return result;
+  }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The client side counterpart of `SLOWLOG`: commands that took longer than the threshold from the moment they were
+ * handed to a connection until their reply was decoded are kept in a ring buffer, the oldest entries are overwritten.
+ *
+ * Besides the total time each entry splits where it was spent:
+ *
+ * * `queued`: waiting in the pending queue, e.g.: while connecting or because of the in flight limit
+ * * `wire`: from the write to the socket until the reply was parsed, this includes the replies to the commands ahead
+ * * `decode`: turning the reply into the result type
+ *
+ * Times are in microseconds. Entries are recorded from the event loops of the connections, so access is synchronized.
+ */
+class SlowLog {
+
+  private final long threshold;
+  private final JsonObject[] entries;
+
+  private long ids;
+  private int next;
+  private int size;
+
+  SlowLog(long threshold, int maxLen) {
+    this.threshold = TimeUnit.MICROSECONDS.toNanos(threshold);
+    this.entries = new JsonObject[Math.max(1, maxLen)];
+  }
+
+  /**
+   * Called when the result of a command is about to be handed to its handler.
+   */
+  void record(Command<?> command, boolean succeeded) {
+    final long now = System.nanoTime();
+    final long total = now - command.queued();
+
+    if (total < threshold) {
+      return;
+    }
+
+    final JsonObject entry = new JsonObject()
+        .put("timestamp", System.currentTimeMillis())
+        .put("command", command.name())
+        .put("key", command.key())
+        .put("requestBytes", command.length())
+        .put("replyBytes", command.replySize())
+        .put("queued", micros(command.sent() - command.queued()))
+        .put("wire", micros(command.replied() - command.sent()))
+        .put("decode", micros(now - command.replied()))
+        .put("total", micros(total))
+        .put("succeeded", succeeded);
+
+    synchronized (this) {
+      entry.put("id", ids++);
+      entries[next] = entry;
+      next = (next + 1) % entries.length;
+      if (size < entries.length) {
+        size++;
+      }
+    }
+  }
+
+  /**
+   * The recorded entries, most recent first.
+   */
+  synchronized JsonArray get() {
+    final JsonArray result = new JsonArray();
+    for (int i = 1; i <= size; i++) {
+      result.add(entries[(next - i + entries.length) % entries.length].copy());
+    }
+    return result;
+  }
+
+  synchronized void reset() {
+    for (int i = 0; i < entries.length; i++) {
+      entries[i] = null;
+    }
+    next = 0;
+    size = 0;
+  }
+
+  private static long micros(long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A check-and-set loop on a dedicated connection: `WATCH` pipelined with the reads, then the writes as a single
+ * `MULTI` ... `EXEC` write, retried with a randomized exponential backoff while `EXEC` is aborted.
+ */
+class WatchAndRun {
+
+  private static final Logger log = LoggerFactory.getLogger(WatchAndRun.class);
+
+  private final RedisClientImpl client;
+  private final Context context;
+  private final List<String> keys;
+  private final Handler<RedisClient> reads;
+  private final Handler<RedisClient> writes;
+  private final Handler<AsyncResult<Void>> handler;
+
+  private final int maxAttempts;
+  private final long delay;
+  private final long maxDelay;
+
+  private RedisConnection connection;
+  private int conflicts;
+
+  WatchAndRun(RedisClientImpl client, List<String> keys, Handler<RedisClient> reads, Handler<RedisClient> writes, Handler<AsyncResult<Void>> handler) {
+    this.client = client;
+    this.context = client.vertx().getOrCreateContext();
+    this.keys = keys;
+    this.reads = reads;
+    this.writes = writes;
+    this.handler = handler;
+
+    final RedisOptions config = client.config();
+    this.maxAttempts = config.getWatchRetryAttempts();
+    this.delay = config.getWatchRetryDelay();
+    this.maxDelay = config.getWatchRetryMaxDelay();
+  }
+
+  void run() {
+    client.acquireTransactionConnection(acquire -> context.runOnContext(v -> {
+      if (acquire.failed()) {
+        handler.handle(Future.failedFuture(acquire.cause()));
+        return;
+      }
+      connection = acquire.result();
+      watch();
+    }));
+  }
+
+  private void watch() {
+    final List<Command<?>> commands = new ArrayList<>();
+    commands.add(client.newCommand(RedisCommand.WATCH, keys, String.class, false, null));
+    reads.handle(client.recorder(commands));
+
+    final int[] outstanding = {commands.size()};
+    final Throwable[] failure = {null};
+
+    for (Command<?> command : commands) {
+      onComplete(command, res -> {
+        if (res.failed() && failure[0] == null) {
+          failure[0] = res.cause();
+        }
+        // the read handlers have been called, time for the writes
+        if (--outstanding[0] == 0) {
+          if (failure[0] != null) {
+            unwatch(failure[0]);
+          } else {
+            exec();
+          }
+        }
+      });
+      connection.send(command);
+    }
+  }
+
+  private void exec() {
+    final List<Command<?>> commands = new ArrayList<>();
+    writes.handle(client.recorder(commands));
+
+    // the write handlers only learn about the abort of the last attempt
+    final BatchCommand batch = client.newBatch(commands, null).retried();
+
+    // EXEC also forgets about the watched keys, no matter the outcome
+    client.bypass();
+    connection.send(batch.handler(exec -> {
+      if (exec.failed()) {
+        finish(Future.failedFuture(exec.cause()));
+        return;
+      }
+
+      if (exec.result()) {
+        finish(Future.succeededFuture());
+        return;
+      }
+
+      client.watchConflict();
+      if (log.isDebugEnabled()) {
+        log.debug("WATCH conflict on " + keys);
+      }
+
+      if (conflicts++ >= maxAttempts) {
+        client.watchExhausted();
+        batch.abort();
+        finish(Future.failedFuture("Too many WATCH conflicts (" + conflicts + ")"));
+        return;
+      }
+
+      final long backoff = ThreadLocalRandom.current().nextLong(Math.min(maxDelay, delay << Math.min(conflicts, 30)) + 1);
+
+      if (backoff == 0) {
+        watch();
+      } else {
+        client.vertx().setTimer(backoff, t -> watch());
+      }
+    }));
+  }
+
+  private void unwatch(Throwable cause) {
+    connection.send(client.newCommand(RedisCommand.UNWATCH, null, String.class, false, v -> finish(Future.failedFuture(cause))));
+  }
+
+  private void finish(AsyncResult<Void> result) {
+    if (connection.isConnected()) {
+      client.releaseTransactionConnection(connection);
+    } else {
+      // commands of the session may still be queued to be replayed once it reconnects
+      client.discardTransactionConnection(connection, "Connection lost during watchAndRun");
+    }
+    connection = null;
+    handler.handle(result);
+  }
+
+  private static <T> void onComplete(Command<T> command, Handler<AsyncResult<Void>> done) {
+    final Handler<AsyncResult<T>> handler = command.handler();
+
+    command.handler(res -> {
+      if (handler != null) {
+        handler.handle(res);
+      }
+      done.handle(res.failed() ? Future.failedFuture(res.cause()) : Future.succeededFuture());
+    });
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2011-2016 The original author or authors
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.op;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Sampling and filtering of the events of {@link io.vertx.redis.RedisClient#monitorStream(MonitorOptions)}.
+ */
+@DataObject
+public class MonitorOptions {
+
+  private Double sampleRate;
+  private List<String> commands = new LinkedList<>();
+
+  public MonitorOptions() {}
+
+  public MonitorOptions(MonitorOptions obj) {
+    sampleRate = obj.sampleRate;
+    commands.addAll(obj.commands);
+  }
+
+  public MonitorOptions(JsonObject obj) {
+    sampleRate = obj.getDouble("sampleRate");
+    JsonArray list = obj.getJsonArray("commands");
+    if (list != null) {
+      for (Object command : list) {
+        commands.add(((String) command).toUpperCase());
+      }
+    }
+  }
+
+  public JsonObject toJson() {
+    JsonObject result = new JsonObject();
+    if (sampleRate != null) {
+      result.put("sampleRate", sampleRate);
+    }
+    if (commands.size() > 0) {
+      result.put("commands", new JsonArray(new ArrayList<>(commands)));
+    }
+    return result;
+  }
+
+  /**
+   * Only emit a random fraction of the events.
+   *
+   * @param sampleRate between 0 and 1, e.g.: `0.01` emits about one event out of a hundred
+   * @return self
+   */
+  public MonitorOptions setSampleRate(double sampleRate) {
+    this.sampleRate = sampleRate;
+    return this;
+  }
+
+  /**
+   * Only emit the events of the given command, can be called several times. By default all commands are emitted.
+   *
+   * @param command the command name, e.g.: `GET`
+   * @return self
+   */
+  public MonitorOptions addCommand(String command) {
+    commands.add(command.toUpperCase());
+    return this;
+  }
+
+  public double getSampleRate() {
+    return sampleRate != null ? sampleRate : 1.0;
+  }
+
+  public List<String> getCommands() {
+    return commands;
+  }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.op;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A Lua script together with its SHA1 digest, computed locally so the script can always be invoked with `EVALSHA`.
+ */
+@DataObject
+public class Script {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final String source;
+  private final String sha1;
+
+  public Script(String source) {
+    this.source = source;
+    this.sha1 = sha1(source, StandardCharsets.UTF_8);
+  }
+
+  public Script(Script obj) {
+    source = obj.source;
+    sha1 = obj.sha1;
+  }
+
+  public Script(JsonObject obj) {
+    this(obj.getString("source"));
+  }
+
+  /**
+   * @return the Lua source of the script
+   */
+  public String getSource() {
+    return source;
+  }
+
+  /**
+   * @return the SHA1 digest of the script encoded in UTF-8 as used by `EVALSHA`
+   */
+  public String getSha1() {
+    return sha1;
+  }
+
+  /**
+   * @param charset the charset the script is sent with
+   * @return the SHA1 digest of the script encoded with the given charset, the same as {@link #getSha1()} for UTF-8
+   */
+  public String getSha1(Charset charset) {
+    return StandardCharsets.UTF_8.equals(charset) ? sha1 : sha1(source, charset);
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+        .put("source", source)
+        .put("sha1", sha1);
+  }
+
+  private static String sha1(String source, Charset charset) {
+    final byte[] digest;
+
+    try {
+      digest = MessageDigest.getInstance("SHA-1").digest(source.getBytes(charset));
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+
+    final char[] hex = new char[digest.length * 2];
+    for (int i = 0; i < digest.length; i++) {
+      hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+      hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+    }
+
+    return new String(hex);
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.spi;
+
+/**
+ * Receives the measurements of a Redis client, all methods are no-ops by default so an implementation only overrides
+ * what it reports. One instance is created per client by a {@link RedisMetricsFactory} and shared by all of its
+ * connections, methods can be called concurrently from several event loops.
+ *
+ * Queue sizes are reported as deltas, so the values of several connections add up.
+ */
+public interface RedisMetrics {
+
+  /**
+   * The metrics used when no {@link RedisMetricsFactory} is available.
+   */
+  RedisMetrics NOOP = new RedisMetrics() {
+    @Override
+    public boolean isEnabled() {
+      return false;
+    }
+  };
+
+  /**
+   * Whether this instance records anything, when false the client does not even take the timestamps.
+   */
+  default boolean isEnabled() {
+    return true;
+  }
+
+  /**
+   * A command got its reply.
+   *
+   * @param command the command name, e.g.: {@code GET} or {@code CLIENT SETNAME}, {@code MULTI} for a batch
+   * @param latency nanoseconds from the write to the socket to the last reply
+   * @param succeeded false if the reply was an error
+   */
+  default void commandCompleted(String command, long latency, boolean succeeded) {
+  }
+
+  /**
+   * Commands were added to (positive) or removed from (negative) the queue of commands not yet written.
+   */
+  default void pendingChanged(int delta) {
+  }
+
+  /**
+   * Commands were written to (positive) or answered or failed in (negative) the queue of commands waiting for a reply.
+   */
+  default void waitingChanged(int delta) {
+  }
+
+  default void bytesWritten(long bytes) {
+  }
+
+  default void bytesRead(long bytes) {
+  }
+
+  /**
+   * A lost connection is going to be reconnected.
+   */
+  default void reconnect() {
+  }
+
+  /**
+   * A connection was closed because a command (a blocking command or the heartbeat {@code PING}) was not answered in
+   * time.
+   */
+  default void timeout(String command) {
+  }
+
+  /**
+   * A reply was larger than {@link io.vertx.redis.RedisOptions#getLargeReplyThreshold()}.
+   *
+   * @param command the command name
+   * @param bytes the size of the reply
+   */
+  default void largeReply(String command, int bytes) {
+  }
+
+  /**
+   * A reply kept at least {@link io.vertx.redis.RedisOptions#getHeadOfLineQueueSize()} commands queued behind it on
+   * the same connection for longer than {@link io.vertx.redis.RedisOptions#getHeadOfLineThreshold()}.
+   *
+   * @param command the command name
+   * @param blocked the number of commands queued behind it
+   * @param time nanoseconds the reply took since the previous reply or since it was written
+   */
+  default void headOfLineBlocking(String command, int blocked, long time) {
+  }
+
+  /**
+   * @param latency round trip of a heartbeat {@code PING} in nanoseconds
+   */
+  default void pingLatency(long latency) {
+  }
+
+  /**
+   * A transaction of {@code watchAndRun} was aborted because a watched key was modified.
+   */
+  default void watchConflict() {
+  }
+
+  /**
+   * The client was closed, no more measurements follow.
+   */
+  default void close() {
+  }
+}
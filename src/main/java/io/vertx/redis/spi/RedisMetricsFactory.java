@@ -0,0 +1,34 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.spi;
+
+import io.vertx.core.Vertx;
+import io.vertx.redis.RedisOptions;
+
+/**
+ * Creates the {@link RedisMetrics} of each client. Implementations are found with {@link java.util.ServiceLoader}, so
+ * a metrics backend is plugged in by adding a {@code META-INF/services/io.vertx.redis.spi.RedisMetricsFactory} file
+ * to the classpath. When several are found the first one is used.
+ */
+public interface RedisMetricsFactory {
+
+  /**
+   * @param vertx the vertx instance of the client
+   * @param options the options of the client, e.g.: to tag the measurements with the host or client name
+   * @return the metrics of the client
+   */
+  RedisMetrics create(Vertx vertx, RedisOptions options);
+}
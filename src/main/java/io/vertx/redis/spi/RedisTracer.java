@@ -0,0 +1,54 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.spi;
+
+/**
+ * Traces the trip of each command: handed to a connection, written to the socket and completed. One instance is
+ * created per client by a {@link RedisTracerFactory}, when there is none the client does not call any method.
+ *
+ * All methods are called on the context of the connection. {@link #enqueue} is called once the command is buffered or
+ * written, so commands rejected before (e.g.: while reconnecting) are not traced. When the connection belongs to the
+ * calling context, e.g.: with {@link io.vertx.redis.RedisOptions#setContextAffinity(boolean)}, this is the thread
+ * issuing the command and an implementation can pick up the active span there and return a child span.
+ */
+public interface RedisTracer {
+
+  /**
+   * A command was buffered or written by a connection.
+   *
+   * @param command the command name, e.g.: {@code GET} or {@code CLIENT SETNAME}, {@code MULTI} for a batch
+   * @param key the first argument, usually the key, may be null
+   * @param db the database index of the connection
+   * @param requestBytes the size of the serialized command
+   * @return the span of the command, passed to the other methods
+   */
+  Object enqueue(String command, String key, int db, int requestBytes);
+
+  /**
+   * The command was written to the socket.
+   */
+  default void write(Object span) {
+  }
+
+  /**
+   * The command completed.
+   *
+   * @param span the span returned by {@link #enqueue}
+   * @param replyBytes the size of the reply, 0 if there was none
+   * @param failure the failure, either an error reply or a connection problem, null on success
+   */
+  void reply(Object span, int replyBytes, Throwable failure);
+}
@@ -18,6 +18,8 @@
 var utils = require('vertx-js/util/utils');
 var RedisTransaction = require('vertx-redis-js/redis_transaction');
 var Buffer = require('vertx-js/buffer');
+var ReadStream = require('vertx-js/read_stream');
+var WriteStream = require('vertx-js/write_stream');
 var Vertx = require('vertx-js/vertx');
 
 var io = Packages.io;
@@ -28,7 +30,9 @@ var LimitOptions = io.vertx.redis.op.LimitOptions;
 var SetOptions = io.vertx.redis.op.SetOptions;
 var SortOptions = io.vertx.redis.op.SortOptions;
 var MigrateOptions = io.vertx.redis.op.MigrateOptions;
+var MonitorOptions = io.vertx.redis.op.MonitorOptions;
 var ScanOptions = io.vertx.redis.op.ScanOptions;
+var Script = io.vertx.redis.op.Script;
 var RedisOptions = io.vertx.redis.RedisOptions;
 var GeoMember = io.vertx.redis.op.GeoMember;
 var GeoRadiusOptions = io.vertx.redis.op.GeoRadiusOptions;
@@ -61,6 +65,36 @@ var RedisClient = function(j_val) {
     } else throw new TypeError('function invoked with invalid arguments');
   };
 
+  /**
+   This will return <code>true</code> if the number of commands waiting to be written to the server reached
+   the `maxPendingCommands` option. Commands sent while the queue is full are failed.
+
+   @public
+
+   @return {boolean} true if the command queue is full
+   */
+  this.writeQueueFull = function() {
+    var __args = arguments;
+    if (__args.length === 0) {
+      return j_redisClient["writeQueueFull()"]();
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Set a drain handler on the client. The drain handler will be called when the command queue is no longer full.
+
+   @public
+   @param handler {function} the handler 
+   @return {RedisClient}
+   */
+  this.drainHandler = function(handler) {
+    var __args = arguments;
+    if (__args.length === 1 && typeof __args[0] === 'function') {
+      j_redisClient["drainHandler(io.vertx.core.Handler)"](handler);
+      return that;
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
   /**
    Append a value to a key
 
@@ -1427,6 +1461,35 @@ var RedisClient = function(j_val) {
     } else throw new TypeError('function invoked with invalid arguments');
   };
 
+  /**
+   Execute a Lua script server side using `EVALSHA` so the source is not sent on every call. When the script is not
+   in the server cache (e.g.: after `SCRIPT FLUSH`, a restart or a failover) it is loaded with `SCRIPT LOAD` and
+   `EVALSHA` is sent again right after it, if the script does not compile the `SCRIPT LOAD` error is reported. Within
+   {@link RedisClient#batch} and {@link RedisClient#watchAndRun} the script is sent with `EVAL` since there is no room for a retry. The
+   digest is computed over the script encoded with the `encoding` option, like the bytes sent to the
+   server. As with {@link RedisClient#eval} the reply is always a JsonArray.
+
+   @public
+   @param script {Object} Lua script with its SHA1 digest 
+   @param keys {Array.<string>} List of keys 
+   @param args {Array.<string>} List of argument values 
+   @param handler {function} Handler for the result of this call. 
+   @return {RedisClient}
+   */
+  this.evalScript = function(script, keys, args, handler) {
+    var __args = arguments;
+    if (__args.length === 4 && (typeof __args[0] === 'object' && __args[0] != null) && typeof __args[1] === 'object' && __args[1] instanceof Array && typeof __args[2] === 'object' && __args[2] instanceof Array && typeof __args[3] === 'function') {
+      j_redisClient["evalScript(io.vertx.redis.op.Script,java.util.List,java.util.List,io.vertx.core.Handler)"](script != null ? new Script(new JsonObject(JSON.stringify(script))) : null, utils.convParamListBasicOther(keys), utils.convParamListBasicOther(args), function(ar) {
+      if (ar.succeeded()) {
+        handler(utils.convReturnJson(ar.result()), null);
+      } else {
+        handler(null, ar.cause());
+      }
+    });
+      return that;
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
   /**
    Determine if a key exists
 
@@ -2476,6 +2539,23 @@ var RedisClient = function(j_val) {
     } else throw new TypeError('function invoked with invalid arguments');
   };
 
+  /**
+   Listen for all requests received by the server in real time as a stream of parsed events, on a connection of its
+   own. Each event is a JsonObject with the server `time` in seconds, the `db`, the `client` address (or `lua`), the
+   upper case `command` name and its `args`. The stream fails and ends if the connection is lost or the client is
+   closed.
+
+   @public
+   @param options {Object} sampling and command filter 
+   @return {ReadStream} a stream of events, monitoring starts when a handler is set and stops when it is unset
+   */
+  this.monitorStream = function(options) {
+    var __args = arguments;
+    if (__args.length === 1 && (typeof __args[0] === 'object' && __args[0] != null)) {
+      return utils.convReturnVertxGen(j_redisClient["monitorStream(io.vertx.redis.op.MonitorOptions)"](options != null ? new MonitorOptions(new JsonObject(JSON.stringify(options))) : null), ReadStream);
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
   /**
    Move a key to another database
 
@@ -4184,7 +4264,9 @@ var RedisClient = function(j_val) {
   };
 
   /**
-   Return a RedisTransaction instance
+   Return the RedisTransaction of this client, the same instance on every call. The transaction borrows a dedicated
+   connection so its `WATCH`/`MULTI` session is not interleaved with other commands of the client, the connection is
+   returned once the session is over. Being shared, it holds a single session at a time, see {@link RedisClient#newTransaction}.
 
    @public
 
@@ -4197,6 +4279,128 @@ var RedisClient = function(j_val) {
     } else throw new TypeError('function invoked with invalid arguments');
   };
 
+  /**
+   Return a new RedisTransaction instance with a session of its own: it borrows its own dedicated connection, so
+   several of them can run `WATCH`/`MULTI` sessions at the same time.
+
+   @public
+
+   @return {RedisTransaction} transaction instance
+   */
+  this.newTransaction = function() {
+    var __args = arguments;
+    if (__args.length === 0) {
+      return utils.convReturnVertxGen(j_redisClient["newTransaction()"](), RedisTransaction);
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Send a transaction as a single write: `MULTI`, the commands issued on the client given to the commands handler and
+   `EXEC`. Unlike {@link RedisClient#transaction} the `QUEUED` acknowledgements are not reported, each command handler is
+   called with its typed result from the `EXEC` reply.
+
+   @public
+   @param commands {function} called synchronously with a client that records the commands of the transaction 
+   @param handler {function} called with `true` once the transaction was executed or `false` if it was aborted 
+   @return {RedisClient} self
+   */
+  this.batch = function(commands, handler) {
+    var __args = arguments;
+    if (__args.length === 2 && typeof __args[0] === 'function' && typeof __args[1] === 'function') {
+      j_redisClient["batch(io.vertx.core.Handler,io.vertx.core.Handler)"](function(jVal) {
+      commands(utils.convReturnVertxGen(jVal, RedisClient));
+    }, function(ar) {
+      if (ar.succeeded()) {
+        handler(ar.result(), null);
+      } else {
+        handler(null, ar.cause());
+      }
+    });
+      return that;
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Run a check-and-set on a dedicated connection. The keys are watched and the commands issued by `reads` are sent in
+   the same write, once their handlers were called the commands issued by `writes` are sent as a single
+   `MULTI` ... `EXEC`. When a watched key was modified in the meantime the reads and writes are run again after a
+   short randomized backoff, see {@link RedisOptions#setWatchRetryAttempts}.
+
+   @public
+   @param keys {Array.<string>} the keys to watch 
+   @param reads {function} called with a client that records the reads, each read handler gets its result 
+   @param writes {function} called with a client that records the writes, each write handler gets the result of the last attempt 
+   @param handler {function} called once the writes were executed or the retries are exhausted 
+   @return {RedisClient} self
+   */
+  this.watchAndRun = function(keys, reads, writes, handler) {
+    var __args = arguments;
+    if (__args.length === 4 && typeof __args[0] === 'object' && __args[0] instanceof Array && typeof __args[1] === 'function' && typeof __args[2] === 'function' && typeof __args[3] === 'function') {
+      j_redisClient["watchAndRun(java.util.List,io.vertx.core.Handler,io.vertx.core.Handler,io.vertx.core.Handler)"](utils.convParamListBasicOther(keys), function(jVal) {
+      reads(utils.convReturnVertxGen(jVal, RedisClient));
+    }, function(jVal) {
+      writes(utils.convReturnVertxGen(jVal, RedisClient));
+    }, function(ar) {
+      if (ar.succeeded()) {
+        handler(null, null);
+      } else {
+        handler(null, ar.cause());
+      }
+    });
+      return that;
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Return the statistics of {@link RedisClient#watchAndRun}: the number of `runs`, the `conflicts` that caused a retry and the
+   runs that failed because the retries were `exhausted`. A high conflict rate points to hot keys.
+
+   @public
+
+   @return {Object} statistics
+   */
+  this.watchStats = function() {
+    var __args = arguments;
+    if (__args.length === 0) {
+      return utils.convReturnJson(j_redisClient["watchStats()"]());
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Return the client side slow log, most recent first, see the `slowLogThreshold` option. Each entry
+   has the `id`, `timestamp`, `command`, `key` (the first argument), the `requestBytes` and `replyBytes`, whether it
+   `succeeded` and where the time was spent in microseconds: `queued` before being written, on the `wire` (including
+   the replies to the commands ahead of it), in reply `decode` and the `total`.
+  
+   A long `wire` time with a small reply points to head-of-line blocking or a slow command on the server, a long
+   `decode` time to a large reply.
+
+   @public
+
+   @return {Array} the entries, empty if the slow log is disabled
+   */
+  this.clientSlowLog = function() {
+    var __args = arguments;
+    if (__args.length === 0) {
+      return utils.convReturnJson(j_redisClient["clientSlowLog()"]());
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Clear the client side slow log.
+
+   @public
+
+   @return {RedisClient} self
+   */
+  this.clientSlowLogReset = function() {
+    var __args = arguments;
+    if (__args.length === 0) {
+      j_redisClient["clientSlowLogReset()"]();
+      return that;
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
   /**
    Get the time to live for a key
 
@@ -4979,6 +5183,114 @@ var RedisClient = function(j_val) {
     } else throw new TypeError('function invoked with invalid arguments');
   };
 
+  /**
+   Incrementally iterate the keys space as a stream. The cursor is handled by the stream, the next page is requested
+   while the current one is emitted and the scan stops while the stream is paused.
+
+   @public
+   @param options {Object} Scan options 
+   @return {ReadStream} a stream of keys, the scan starts when a handler is set
+   */
+  this.scanStream = function(options) {
+    var __args = arguments;
+    if (__args.length === 1 && (typeof __args[0] === 'object' && __args[0] != null)) {
+      return utils.convReturnVertxGen(j_redisClient["scanStream(io.vertx.redis.op.ScanOptions)"](options != null ? new ScanOptions(new JsonObject(JSON.stringify(options))) : null), ReadStream);
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Incrementally iterate the members of a set as a stream, see {@link RedisClient#scanStream}.
+
+   @public
+   @param key {string} Key string 
+   @param options {Object} Scan options 
+   @return {ReadStream} a stream of members, the scan starts when a handler is set
+   */
+  this.sscanStream = function(key, options) {
+    var __args = arguments;
+    if (__args.length === 2 && typeof __args[0] === 'string' && (typeof __args[1] === 'object' && __args[1] != null)) {
+      return utils.convReturnVertxGen(j_redisClient["sscanStream(java.lang.String,io.vertx.redis.op.ScanOptions)"](key, options != null ? new ScanOptions(new JsonObject(JSON.stringify(options))) : null), ReadStream);
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Incrementally iterate the fields of a hash as a stream, see {@link RedisClient#scanStream}.
+
+   @public
+   @param key {string} Key string 
+   @param options {Object} Scan options 
+   @return {ReadStream} a stream of `[field, value]` pairs, the scan starts when a handler is set
+   */
+  this.hscanStream = function(key, options) {
+    var __args = arguments;
+    if (__args.length === 2 && typeof __args[0] === 'string' && (typeof __args[1] === 'object' && __args[1] != null)) {
+      return utils.convReturnVertxGen(j_redisClient["hscanStream(java.lang.String,io.vertx.redis.op.ScanOptions)"](key, options != null ? new ScanOptions(new JsonObject(JSON.stringify(options))) : null), ReadStream);
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Incrementally iterate the members of a sorted set as a stream, see {@link RedisClient#scanStream}.
+
+   @public
+   @param key {string} Key string 
+   @param options {Object} Scan options 
+   @return {ReadStream} a stream of `[member, score]` pairs, the scan starts when a handler is set
+   */
+  this.zscanStream = function(key, options) {
+    var __args = arguments;
+    if (__args.length === 2 && typeof __args[0] === 'string' && (typeof __args[1] === 'object' && __args[1] != null)) {
+      return utils.convReturnVertxGen(j_redisClient["zscanStream(java.lang.String,io.vertx.redis.op.ScanOptions)"](key, options != null ? new ScanOptions(new JsonObject(JSON.stringify(options))) : null), ReadStream);
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Delete the keys written to the stream, sending one `DEL` per batch of keys. Can be the target of a pump from
+   {@link RedisClient#scanStream} to delete all the keys matching a pattern.
+
+   @public
+   @param batchSize {number} number of keys per `DEL` 
+   @param handler {function} called once the stream is ended and all keys are deleted, with the number of deleted keys 
+   @return {WriteStream} a stream of keys
+   */
+  this.delStream = function(batchSize, handler) {
+    var __args = arguments;
+    if (__args.length === 2 && typeof __args[0] ==='number' && typeof __args[1] === 'function') {
+      return utils.convReturnVertxGen(j_redisClient["delStream(int,io.vertx.core.Handler)"](batchSize, function(ar) {
+      if (ar.succeeded()) {
+        handler(utils.convReturnLong(ar.result()), null);
+      } else {
+        handler(null, ar.cause());
+      }
+    }), WriteStream);
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Migrate the keys written to the stream to another Redis instance, sending one `MIGRATE` per batch of keys.
+
+   @public
+   @param host {string} Destination host 
+   @param port {number} Destination port 
+   @param destdb {number} Destination database index 
+   @param timeout {number} Timeout in milliseconds of each batch 
+   @param options {Object} Migrate options 
+   @param batchSize {number} number of keys per `MIGRATE` 
+   @param handler {function} called once the stream is ended and all keys are migrated, with the number of migrated keys 
+   @return {WriteStream} a stream of keys
+   */
+  this.migrateStream = function(host, port, destdb, timeout, options, batchSize, handler) {
+    var __args = arguments;
+    if (__args.length === 7 && typeof __args[0] === 'string' && typeof __args[1] ==='number' && typeof __args[2] ==='number' && typeof __args[3] ==='number' && (typeof __args[4] === 'object' && __args[4] != null) && typeof __args[5] ==='number' && typeof __args[6] === 'function') {
+      return utils.convReturnVertxGen(j_redisClient["migrateStream(java.lang.String,int,int,long,io.vertx.redis.op.MigrateOptions,int,io.vertx.core.Handler)"](host, port, destdb, timeout, options != null ? new MigrateOptions(new JsonObject(JSON.stringify(options))) : null, batchSize, function(ar) {
+      if (ar.succeeded()) {
+        handler(utils.convReturnLong(ar.result()), null);
+      } else {
+        handler(null, ar.cause());
+      }
+    }), WriteStream);
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
   /**
    Add one or more geospatial items in the geospatial index represented using a sorted set.
 
@@ -5293,6 +5605,7 @@ var RedisClient = function(j_val) {
  @memberof module:vertx-redis-js/redis_client
  @param vertx {Vertx} 
  @param config {Object} 
+ @param handler {function} 
  @return {RedisClient}
  */
 RedisClient.create = function() {
@@ -5301,6 +5614,33 @@ RedisClient.create = function() {
     return utils.convReturnVertxGen(JRedisClient["create(io.vertx.core.Vertx)"](__args[0]._jdel), RedisClient);
   }else if (__args.length === 2 && typeof __args[0] === 'object' && __args[0]._jdel && (typeof __args[1] === 'object' && __args[1] != null)) {
     return utils.convReturnVertxGen(JRedisClient["create(io.vertx.core.Vertx,io.vertx.redis.RedisOptions)"](__args[0]._jdel, __args[1] != null ? new RedisOptions(new JsonObject(JSON.stringify(__args[1]))) : null), RedisClient);
+  }else if (__args.length === 3 && typeof __args[0] === 'object' && __args[0]._jdel && (typeof __args[1] === 'object' && __args[1] != null) && typeof __args[2] === 'function') {
+    return utils.convReturnVertxGen(JRedisClient["create(io.vertx.core.Vertx,io.vertx.redis.RedisOptions,io.vertx.core.Handler)"](__args[0]._jdel, __args[1] != null ? new RedisOptions(new JsonObject(JSON.stringify(__args[1]))) : null, function(ar) {
+    if (ar.succeeded()) {
+      __args[2](utils.convReturnVertxGen(ar.result(), RedisClient), null);
+    } else {
+      __args[2](null, ar.cause());
+    }
+  }), RedisClient);
+  } else throw new TypeError('function invoked with invalid arguments');
+};
+
+/**
+ Incrementally iterate the keys space of several Redis instances in parallel, e.g.: the masters of a sharded setup.
+ Each instance is scanned with its own cursor, see {@link RedisClient#scanStream}, and the keys are merged into a
+ single stream in the order they arrive. The `COUNT` of the scan options sets the page size of each scan. The merged
+ stream is not thread safe, it emits on the context it is created on and is meant to be used from there.
+
+ @memberof module:vertx-redis-js/redis_client
+ @param clients {Array.<RedisClient>} one client per instance 
+ @param options {Object} Scan options 
+ @param concurrency {number} how many instances are scanned at the same time, `0` for all 
+ @return {ReadStream} a stream of keys, the scans start when a handler is set
+ */
+RedisClient.parallelScanStream = function() {
+  var __args = arguments;
+  if (__args.length === 3 && typeof __args[0] === 'object' && __args[0] instanceof Array && (typeof __args[1] === 'object' && __args[1] != null) && typeof __args[2] ==='number') {
+    return utils.convReturnVertxGen(JRedisClient["parallelScanStream(java.util.List,io.vertx.redis.op.ScanOptions,int)"](utils.convParamListVertxGen(__args[0]), __args[1] != null ? new ScanOptions(new JsonObject(JSON.stringify(__args[1]))) : null, __args[2]), ReadStream);
   } else throw new TypeError('function invoked with invalid arguments');
 };
 
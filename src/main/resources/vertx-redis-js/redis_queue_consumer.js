@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+/** @module vertx-redis-js/redis_queue_consumer */
+var utils = require('vertx-js/util/utils');
+var RedisClient = require('vertx-redis-js/redis_client');
+var Vertx = require('vertx-js/vertx');
+
+var io = Packages.io;
+var JsonObject = io.vertx.core.json.JsonObject;
+var JRedisQueueConsumer = io.vertx.redis.RedisQueueConsumer;
+var RedisQueueOptions = io.vertx.redis.RedisQueueOptions;
+
+/**
+ A reliable consumer of a queue stored in a Redis list. Items are moved atomically to a processing list with
+ `BRPOPLPUSH` and only removed from it once acknowledged, items that are not acknowledged within the visibility
+ timeout are put back in the queue.
+
+ The time each item was received is kept in a sorted set named after the processing list followed by `:received`.
+ Every consumer periodically requeues a bounded number of expired items and gives a receive time to the oldest items
+ of the processing list that have none, so the items left behind by a consumer that crashed are put back as well.
+ The times come from the clocks of the consumers, which should therefore be roughly in sync.
+
+ Items are identified by their value: the same payload in flight twice shares one receive time and is requeued or
+ acknowledged as one, so producers should make the items unique (e.g.: by including an id).
+
+ @class
+*/
+var RedisQueueConsumer = function(j_val) {
+
+  var j_redisQueueConsumer = j_val;
+  var that = this;
+
+  /**
+   Set the handler called with each item, every item must be acknowledged with {@link RedisQueueConsumer#ack}. The
+   pollers only fetch items while a handler is set.
+
+   @public
+   @param handler {function} the item handler 
+   @return {RedisQueueConsumer} self
+   */
+  this.handler = function(handler) {
+    var __args = arguments;
+    if (__args.length === 1 && typeof __args[0] === 'function') {
+      j_redisQueueConsumer["handler(io.vertx.core.Handler)"](handler);
+      return that;
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Start polling the queue. When called before a previous {@link RedisQueueConsumer#stop} completed, polling starts again once
+   the pollers of the previous run returned.
+
+   @public
+
+   @return {RedisQueueConsumer} self
+   */
+  this.start = function() {
+    var __args = arguments;
+    if (__args.length === 0) {
+      j_redisQueueConsumer["start()"]();
+      return that;
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Stop polling the queue, the handler is called once all pollers returned. Items in flight can still be acknowledged,
+   the ones received after the stop are put back in the queue.
+
+   @public
+   @param handler {function} called once stopped 
+   */
+  this.stop = function(handler) {
+    var __args = arguments;
+    if (__args.length === 1 && typeof __args[0] === 'function') {
+      j_redisQueueConsumer["stop(io.vertx.core.Handler)"](function(ar) {
+      if (ar.succeeded()) {
+        handler(null, null);
+      } else {
+        handler(null, ar.cause());
+      }
+    });
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Acknowledge an item, removing it from the processing list.
+
+   @public
+   @param item {string} the item as given to the handler 
+   @param handler {function} called once the item was removed 
+   @return {RedisQueueConsumer} self
+   */
+  this.ack = function(item, handler) {
+    var __args = arguments;
+    if (__args.length === 2 && typeof __args[0] === 'string' && typeof __args[1] === 'function') {
+      j_redisQueueConsumer["ack(java.lang.String,io.vertx.core.Handler)"](item, function(ar) {
+      if (ar.succeeded()) {
+        handler(null, null);
+      } else {
+        handler(null, ar.cause());
+      }
+    });
+      return that;
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  /**
+   Return the statistics of this consumer: the number of items `received`, `acked` and `requeued`, the items
+   currently `inFlight` and the age in milliseconds of the `oldestInFlight` one, together with the length of the
+   `queue` (the backlog) and of the `processing` list.
+
+   @public
+   @param handler {function} called with the statistics 
+   */
+  this.stats = function(handler) {
+    var __args = arguments;
+    if (__args.length === 1 && typeof __args[0] === 'function') {
+      j_redisQueueConsumer["stats(io.vertx.core.Handler)"](function(ar) {
+      if (ar.succeeded()) {
+        handler(utils.convReturnJson(ar.result()), null);
+      } else {
+        handler(null, ar.cause());
+      }
+    });
+    } else throw new TypeError('function invoked with invalid arguments');
+  };
+
+  // A reference to the underlying Java delegate
+  // NOTE! This is an internal API and must not be used in user code.
+  // If you rely on this property your code is likely to break if we change it / remove it without warning.
+  this._jdel = j_redisQueueConsumer;
+};
+
+/**
+
+ @memberof module:vertx-redis-js/redis_queue_consumer
+ @param vertx {Vertx} 
+ @param client {RedisClient} 
+ @param options {Object} 
+ @return {RedisQueueConsumer}
+ */
+RedisQueueConsumer.create = function() {
+  var __args = arguments;
+  if (__args.length === 3 && typeof __args[0] === 'object' && __args[0]._jdel && typeof __args[1] === 'object' && __args[1]._jdel && (typeof __args[2] === 'object' && __args[2] != null)) {
+    return utils.convReturnVertxGen(JRedisQueueConsumer["create(io.vertx.core.Vertx,io.vertx.redis.RedisClient,io.vertx.redis.RedisQueueOptions)"](__args[0]._jdel, __args[1]._jdel, __args[2] != null ? new RedisQueueOptions(new JsonObject(JSON.stringify(__args[2]))) : null), RedisQueueConsumer);
+  } else throw new TypeError('function invoked with invalid arguments');
+};
+
+// We export the Constructor function
+module.exports = RedisQueueConsumer;
\ No newline at end of file
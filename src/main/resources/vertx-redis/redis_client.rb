@@ -1,5 +1,7 @@
 require 'vertx-redis/redis_transaction'
 require 'vertx/buffer'
+require 'vertx/read_stream'
+require 'vertx/write_stream'
 require 'vertx/vertx'
 require 'vertx/util/utils.rb'
 # Generated from io.vertx.redis.RedisClient
@@ -17,12 +19,15 @@ module VertxRedis
     end
     # @param [::Vertx::Vertx] vertx 
     # @param [Hash] config 
+    # @yield 
     # @return [::VertxRedis::RedisClient]
     def self.create(vertx=nil,config=nil)
       if vertx.class.method_defined?(:j_del) && !block_given? && config == nil
         return ::Vertx::Util::Utils.safe_create(Java::IoVertxRedis::RedisClient.java_method(:create, [Java::IoVertxCore::Vertx.java_class]).call(vertx.j_del),::VertxRedis::RedisClient)
       elsif vertx.class.method_defined?(:j_del) && config.class == Hash && !block_given?
         return ::Vertx::Util::Utils.safe_create(Java::IoVertxRedis::RedisClient.java_method(:create, [Java::IoVertxCore::Vertx.java_class,Java::IoVertxRedis::RedisOptions.java_class]).call(vertx.j_del,Java::IoVertxRedis::RedisOptions.new(::Vertx::Util::Utils.to_json_object(config))),::VertxRedis::RedisClient)
+      elsif vertx.class.method_defined?(:j_del) && config.class == Hash && block_given?
+        return ::Vertx::Util::Utils.safe_create(Java::IoVertxRedis::RedisClient.java_method(:create, [Java::IoVertxCore::Vertx.java_class,Java::IoVertxRedis::RedisOptions.java_class,Java::IoVertxCore::Handler.java_class]).call(vertx.j_del,Java::IoVertxRedis::RedisOptions.new(::Vertx::Util::Utils.to_json_object(config)),(Proc.new { |ar| yield(ar.failed ? ar.cause : nil, ar.succeeded ? ::Vertx::Util::Utils.safe_create(ar.result,::VertxRedis::RedisClient) : nil) })),::VertxRedis::RedisClient)
       end
       raise ArgumentError, "Invalid arguments when calling create(vertx,config)"
     end
@@ -35,6 +40,25 @@ module VertxRedis
       end
       raise ArgumentError, "Invalid arguments when calling close()"
     end
+    #  This will return <code>true</code> if the number of commands waiting to be written to the server reached
+    #  the `maxPendingCommands` option. Commands sent while the queue is full are failed.
+    # @return [true,false] true if the command queue is full
+    def write_queue_full?
+      if !block_given?
+        return @j_del.java_method(:writeQueueFull, []).call()
+      end
+      raise ArgumentError, "Invalid arguments when calling write_queue_full?()"
+    end
+    #  Set a drain handler on the client. The drain handler will be called when the command queue is no longer full.
+    # @yield the handler
+    # @return [self]
+    def drain_handler
+      if block_given?
+        @j_del.java_method(:drainHandler, [Java::IoVertxCore::Handler.java_class]).call(Proc.new { yield })
+        return self
+      end
+      raise ArgumentError, "Invalid arguments when calling drain_handler()"
+    end
     #  Append a value to a key
     # @param [String] key Key string
     # @param [String] value Value to append
@@ -730,6 +754,24 @@ module VertxRedis
       end
       raise ArgumentError, "Invalid arguments when calling evalsha(sha1,keys,values)"
     end
+    #  Execute a Lua script server side using `EVALSHA` so the source is not sent on every call. When the script is not
+    #  in the server cache (e.g.: after `SCRIPT FLUSH`, a restart or a failover) it is loaded with `SCRIPT LOAD` and
+    #  `EVALSHA` is sent again right after it, if the script does not compile the `SCRIPT LOAD` error is reported. Within
+    #  {::VertxRedis::RedisClient#batch} and {::VertxRedis::RedisClient#watch_and_run} the script is sent with `EVAL` since there is no room for a retry. The
+    #  digest is computed over the script encoded with the `encoding` option, like the bytes sent to the
+    #  server. As with {::VertxRedis::RedisClient#eval} the reply is always a JsonArray.
+    # @param [Hash] script Lua script with its SHA1 digest
+    # @param [Array<String>] keys List of keys
+    # @param [Array<String>] args List of argument values
+    # @yield Handler for the result of this call.
+    # @return [self]
+    def eval_script(script=nil,keys=nil,args=nil)
+      if script.class == Hash && keys.class == Array && args.class == Array && block_given?
+        @j_del.java_method(:evalScript, [Java::IoVertxRedisOp::Script.java_class,Java::JavaUtil::List.java_class,Java::JavaUtil::List.java_class,Java::IoVertxCore::Handler.java_class]).call(Java::IoVertxRedisOp::Script.new(::Vertx::Util::Utils.to_json_object(script)),keys.map { |element| element },args.map { |element| element },(Proc.new { |ar| yield(ar.failed ? ar.cause : nil, ar.succeeded ? ar.result != nil ? JSON.parse(ar.result.encode) : nil : nil) }))
+        return self
+      end
+      raise ArgumentError, "Invalid arguments when calling eval_script(script,keys,args)"
+    end
     #  Determine if a key exists
     # @param [String] key Key string
     # @yield Handler for the result of this call.
@@ -1273,6 +1315,18 @@ module VertxRedis
       end
       raise ArgumentError, "Invalid arguments when calling monitor()"
     end
+    #  Listen for all requests received by the server in real time as a stream of parsed events, on a connection of its
+    #  own. Each event is a JsonObject with the server `time` in seconds, the `db`, the `client` address (or `lua`), the
+    #  upper case `command` name and its `args`. The stream fails and ends if the connection is lost or the client is
+    #  closed.
+    # @param [Hash] options sampling and command filter
+    # @return [::Vertx::ReadStream] a stream of events, monitoring starts when a handler is set and stops when it is unset
+    def monitor_stream(options=nil)
+      if options.class == Hash && !block_given?
+        return ::Vertx::Util::Utils.safe_create(@j_del.java_method(:monitorStream, [Java::IoVertxRedisOp::MonitorOptions.java_class]).call(Java::IoVertxRedisOp::MonitorOptions.new(::Vertx::Util::Utils.to_json_object(options))),::Vertx::ReadStreamImpl)
+      end
+      raise ArgumentError, "Invalid arguments when calling monitor_stream(options)"
+    end
     #  Move a key to another database
     # @param [String] key Key to migrate
     # @param [Fixnum] destdb Destination database index
@@ -2144,7 +2198,9 @@ module VertxRedis
       end
       raise ArgumentError, "Invalid arguments when calling time()"
     end
-    #  Return a RedisTransaction instance
+    #  Return the RedisTransaction of this client, the same instance on every call. The transaction borrows a dedicated
+    #  connection so its `WATCH`/`MULTI` session is not interleaved with other commands of the client, the connection is
+    #  returned once the session is over. Being shared, it holds a single session at a time, see {::VertxRedis::RedisClient#new_transaction}.
     # @return [::VertxRedis::RedisTransaction] transaction instance
     def transaction
       if !block_given?
@@ -2152,6 +2208,76 @@ module VertxRedis
       end
       raise ArgumentError, "Invalid arguments when calling transaction()"
     end
+    #  Return a new RedisTransaction instance with a session of its own: it borrows its own dedicated connection, so
+    #  several of them can run `WATCH`/`MULTI` sessions at the same time.
+    # @return [::VertxRedis::RedisTransaction] transaction instance
+    def new_transaction
+      if !block_given?
+        return ::Vertx::Util::Utils.safe_create(@j_del.java_method(:newTransaction, []).call(),::VertxRedis::RedisTransaction)
+      end
+      raise ArgumentError, "Invalid arguments when calling new_transaction()"
+    end
+    #  Send a transaction as a single write: `MULTI`, the commands issued on the client given to the commands handler and
+    #  `EXEC`. Unlike {::VertxRedis::RedisClient#transaction} the `QUEUED` acknowledgements are not reported, each command handler is
+    #  called with its typed result from the `EXEC` reply.
+    # @param [Proc] commands called synchronously with a client that records the commands of the transaction
+    # @yield called with `true` once the transaction was executed or `false` if it was aborted
+    # @return [self]
+    def batch(commands=nil)
+      if commands.class == Proc && block_given?
+        @j_del.java_method(:batch, [Java::IoVertxCore::Handler.java_class,Java::IoVertxCore::Handler.java_class]).call((Proc.new { |event| commands.call(::Vertx::Util::Utils.safe_create(event,::VertxRedis::RedisClient)) }),(Proc.new { |ar| yield(ar.failed ? ar.cause : nil, ar.succeeded ? ar.result : nil) }))
+        return self
+      end
+      raise ArgumentError, "Invalid arguments when calling batch(commands)"
+    end
+    #  Run a check-and-set on a dedicated connection. The keys are watched and the commands issued by `reads` are sent in
+    #  the same write, once their handlers were called the commands issued by `writes` are sent as a single
+    #  `MULTI` ... `EXEC`. When a watched key was modified in the meantime the reads and writes are run again after a
+    #  short randomized backoff, see the `watchRetryAttempts` option.
+    # @param [Array<String>] keys the keys to watch
+    # @param [Proc] reads called with a client that records the reads, each read handler gets its result
+    # @param [Proc] writes called with a client that records the writes, each write handler gets the result of the last attempt
+    # @yield called once the writes were executed or the retries are exhausted
+    # @return [self]
+    def watch_and_run(keys=nil,reads=nil,writes=nil)
+      if keys.class == Array && reads.class == Proc && writes.class == Proc && block_given?
+        @j_del.java_method(:watchAndRun, [Java::JavaUtil::List.java_class,Java::IoVertxCore::Handler.java_class,Java::IoVertxCore::Handler.java_class,Java::IoVertxCore::Handler.java_class]).call(keys.map { |element| element },(Proc.new { |event| reads.call(::Vertx::Util::Utils.safe_create(event,::VertxRedis::RedisClient)) }),(Proc.new { |event| writes.call(::Vertx::Util::Utils.safe_create(event,::VertxRedis::RedisClient)) }),(Proc.new { |ar| yield(ar.failed ? ar.cause : nil) }))
+        return self
+      end
+      raise ArgumentError, "Invalid arguments when calling watch_and_run(keys,reads,writes)"
+    end
+    #  Return the statistics of {::VertxRedis::RedisClient#watch_and_run}: the number of `runs`, the `conflicts` that caused a retry and the
+    #  runs that failed because the retries were `exhausted`. A high conflict rate points to hot keys.
+    # @return [Hash{String => Object}] statistics
+    def watch_stats
+      if !block_given?
+        return @j_del.java_method(:watchStats, []).call() != nil ? JSON.parse(@j_del.java_method(:watchStats, []).call().encode) : nil
+      end
+      raise ArgumentError, "Invalid arguments when calling watch_stats()"
+    end
+    #  Return the client side slow log, most recent first, see the `slowLogThreshold` option. Each entry
+    #  has the `id`, `timestamp`, `command`, `key` (the first argument), the `requestBytes` and `replyBytes`, whether it
+    #  `succeeded` and where the time was spent in microseconds: `queued` before being written, on the `wire` (including
+    #  the replies to the commands ahead of it), in reply `decode` and the `total`.
+    # 
+    #  A long `wire` time with a small reply points to head-of-line blocking or a slow command on the server, a long
+    #  `decode` time to a large reply.
+    # @return [Array<String,Object>] the entries, empty if the slow log is disabled
+    def client_slow_log
+      if !block_given?
+        return @j_del.java_method(:clientSlowLog, []).call() != nil ? JSON.parse(@j_del.java_method(:clientSlowLog, []).call().encode) : nil
+      end
+      raise ArgumentError, "Invalid arguments when calling client_slow_log()"
+    end
+    #  Clear the client side slow log.
+    # @return [self]
+    def client_slow_log_reset
+      if !block_given?
+        @j_del.java_method(:clientSlowLogReset, []).call()
+        return self
+      end
+      raise ArgumentError, "Invalid arguments when calling client_slow_log_reset()"
+    end
     #  Get the time to live for a key
     # @param [String] key Key string
     # @yield Handler for the result of this call.
@@ -2571,6 +2697,86 @@ module VertxRedis
       end
       raise ArgumentError, "Invalid arguments when calling zscan(key,cursor,options)"
     end
+    #  Incrementally iterate the keys space as a stream. The cursor is handled by the stream, the next page is requested
+    #  while the current one is emitted and the scan stops while the stream is paused.
+    # @param [Hash] options Scan options
+    # @return [::Vertx::ReadStream] a stream of keys, the scan starts when a handler is set
+    def scan_stream(options=nil)
+      if options.class == Hash && !block_given?
+        return ::Vertx::Util::Utils.safe_create(@j_del.java_method(:scanStream, [Java::IoVertxRedisOp::ScanOptions.java_class]).call(Java::IoVertxRedisOp::ScanOptions.new(::Vertx::Util::Utils.to_json_object(options))),::Vertx::ReadStreamImpl)
+      end
+      raise ArgumentError, "Invalid arguments when calling scan_stream(options)"
+    end
+    #  Incrementally iterate the keys space of several Redis instances in parallel, e.g.: the masters of a sharded setup.
+    #  Each instance is scanned with its own cursor, see {::VertxRedis::RedisClient#scan_stream}, and the keys are merged into a
+    #  single stream in the order they arrive. The `COUNT` of the scan options sets the page size of each scan. The merged
+    #  stream is not thread safe, it emits on the context it is created on and is meant to be used from there.
+    # @param [Array<::VertxRedis::RedisClient>] clients one client per instance
+    # @param [Hash] options Scan options
+    # @param [Fixnum] concurrency how many instances are scanned at the same time, `0` for all
+    # @return [::Vertx::ReadStream] a stream of keys, the scans start when a handler is set
+    def self.parallel_scan_stream(clients=nil,options=nil,concurrency=nil)
+      if clients.class == Array && options.class == Hash && concurrency.class == Fixnum && !block_given?
+        return ::Vertx::Util::Utils.safe_create(Java::IoVertxRedis::RedisClient.java_method(:parallelScanStream, [Java::JavaUtil::List.java_class,Java::IoVertxRedisOp::ScanOptions.java_class,Java::int.java_class]).call(clients.map { |element| element.j_del },Java::IoVertxRedisOp::ScanOptions.new(::Vertx::Util::Utils.to_json_object(options)),concurrency),::Vertx::ReadStreamImpl)
+      end
+      raise ArgumentError, "Invalid arguments when calling parallel_scan_stream(clients,options,concurrency)"
+    end
+    #  Incrementally iterate the members of a set as a stream, see {::VertxRedis::RedisClient#scan_stream}.
+    # @param [String] key Key string
+    # @param [Hash] options Scan options
+    # @return [::Vertx::ReadStream] a stream of members, the scan starts when a handler is set
+    def sscan_stream(key=nil,options=nil)
+      if key.class == String && options.class == Hash && !block_given?
+        return ::Vertx::Util::Utils.safe_create(@j_del.java_method(:sscanStream, [Java::java.lang.String.java_class,Java::IoVertxRedisOp::ScanOptions.java_class]).call(key,Java::IoVertxRedisOp::ScanOptions.new(::Vertx::Util::Utils.to_json_object(options))),::Vertx::ReadStreamImpl)
+      end
+      raise ArgumentError, "Invalid arguments when calling sscan_stream(key,options)"
+    end
+    #  Incrementally iterate the fields of a hash as a stream, see {::VertxRedis::RedisClient#scan_stream}.
+    # @param [String] key Key string
+    # @param [Hash] options Scan options
+    # @return [::Vertx::ReadStream] a stream of `[field, value]` pairs, the scan starts when a handler is set
+    def hscan_stream(key=nil,options=nil)
+      if key.class == String && options.class == Hash && !block_given?
+        return ::Vertx::Util::Utils.safe_create(@j_del.java_method(:hscanStream, [Java::java.lang.String.java_class,Java::IoVertxRedisOp::ScanOptions.java_class]).call(key,Java::IoVertxRedisOp::ScanOptions.new(::Vertx::Util::Utils.to_json_object(options))),::Vertx::ReadStreamImpl)
+      end
+      raise ArgumentError, "Invalid arguments when calling hscan_stream(key,options)"
+    end
+    #  Incrementally iterate the members of a sorted set as a stream, see {::VertxRedis::RedisClient#scan_stream}.
+    # @param [String] key Key string
+    # @param [Hash] options Scan options
+    # @return [::Vertx::ReadStream] a stream of `[member, score]` pairs, the scan starts when a handler is set
+    def zscan_stream(key=nil,options=nil)
+      if key.class == String && options.class == Hash && !block_given?
+        return ::Vertx::Util::Utils.safe_create(@j_del.java_method(:zscanStream, [Java::java.lang.String.java_class,Java::IoVertxRedisOp::ScanOptions.java_class]).call(key,Java::IoVertxRedisOp::ScanOptions.new(::Vertx::Util::Utils.to_json_object(options))),::Vertx::ReadStreamImpl)
+      end
+      raise ArgumentError, "Invalid arguments when calling zscan_stream(key,options)"
+    end
+    #  Delete the keys written to the stream, sending one `DEL` per batch of keys. Can be the target of a pump from
+    #  {::VertxRedis::RedisClient#scan_stream} to delete all the keys matching a pattern.
+    # @param [Fixnum] batchSize number of keys per `DEL`
+    # @yield called once the stream is ended and all keys are deleted, with the number of deleted keys
+    # @return [::Vertx::WriteStream] a stream of keys
+    def del_stream(batchSize=nil)
+      if batchSize.class == Fixnum && block_given?
+        return ::Vertx::Util::Utils.safe_create(@j_del.java_method(:delStream, [Java::int.java_class,Java::IoVertxCore::Handler.java_class]).call(batchSize,(Proc.new { |ar| yield(ar.failed ? ar.cause : nil, ar.succeeded ? ar.result : nil) })),::Vertx::WriteStreamImpl)
+      end
+      raise ArgumentError, "Invalid arguments when calling del_stream(batchSize)"
+    end
+    #  Migrate the keys written to the stream to another Redis instance, sending one `MIGRATE` per batch of keys.
+    # @param [String] host Destination host
+    # @param [Fixnum] port Destination port
+    # @param [Fixnum] destdb Destination database index
+    # @param [Fixnum] timeout Timeout in milliseconds of each batch
+    # @param [Hash] options Migrate options
+    # @param [Fixnum] batchSize number of keys per `MIGRATE`
+    # @yield called once the stream is ended and all keys are migrated, with the number of migrated keys
+    # @return [::Vertx::WriteStream] a stream of keys
+    def migrate_stream(host=nil,port=nil,destdb=nil,timeout=nil,options=nil,batchSize=nil)
+      if host.class == String && port.class == Fixnum && destdb.class == Fixnum && timeout.class == Fixnum && options.class == Hash && batchSize.class == Fixnum && block_given?
+        return ::Vertx::Util::Utils.safe_create(@j_del.java_method(:migrateStream, [Java::java.lang.String.java_class,Java::int.java_class,Java::int.java_class,Java::long.java_class,Java::IoVertxRedisOp::MigrateOptions.java_class,Java::int.java_class,Java::IoVertxCore::Handler.java_class]).call(host,port,destdb,timeout,Java::IoVertxRedisOp::MigrateOptions.new(::Vertx::Util::Utils.to_json_object(options)),batchSize,(Proc.new { |ar| yield(ar.failed ? ar.cause : nil, ar.succeeded ? ar.result : nil) })),::Vertx::WriteStreamImpl)
+      end
+      raise ArgumentError, "Invalid arguments when calling migrate_stream(host,port,destdb,timeout,options,batchSize)"
+    end
     #  Add one or more geospatial items in the geospatial index represented using a sorted set.
     # @param [String] key Key string
     # @param [Float] longitude longitude
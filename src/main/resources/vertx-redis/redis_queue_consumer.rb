@@ -0,0 +1,92 @@
+require 'vertx-redis/redis_client'
+require 'vertx/vertx'
+require 'vertx/util/utils.rb'
+# Generated from io.vertx.redis.RedisQueueConsumer
+module VertxRedis
+  #  A reliable consumer of a queue stored in a Redis list. Items are moved atomically to a processing list with
+  #  `BRPOPLPUSH` and only removed from it once acknowledged, items that are not acknowledged within the visibility
+  #  timeout are put back in the queue.
+  # 
+  #  The time each item was received is kept in a sorted set named after the processing list followed by `:received`.
+  #  Every consumer periodically requeues a bounded number of expired items and gives a receive time to the oldest items
+  #  of the processing list that have none, so the items left behind by a consumer that crashed are put back as well.
+  #  The times come from the clocks of the consumers, which should therefore be roughly in sync.
+  # 
+  #  Items are identified by their value: the same payload in flight twice shares one receive time and is requeued or
+  #  acknowledged as one, so producers should make the items unique (e.g.: by including an id).
+  class RedisQueueConsumer
+    # @private
+    # @param j_del [::VertxRedis::RedisQueueConsumer] the java delegate
+    def initialize(j_del)
+      @j_del = j_del
+    end
+    # @private
+    # @return [::VertxRedis::RedisQueueConsumer] the underlying java delegate
+    def j_del
+      @j_del
+    end
+    # @param [::Vertx::Vertx] vertx 
+    # @param [::VertxRedis::RedisClient] client 
+    # @param [Hash] options 
+    # @return [::VertxRedis::RedisQueueConsumer]
+    def self.create(vertx=nil,client=nil,options=nil)
+      if vertx.class.method_defined?(:j_del) && client.class.method_defined?(:j_del) && options.class == Hash && !block_given?
+        return ::Vertx::Util::Utils.safe_create(Java::IoVertxRedis::RedisQueueConsumer.java_method(:create, [Java::IoVertxCore::Vertx.java_class,Java::IoVertxRedis::RedisClient.java_class,Java::IoVertxRedis::RedisQueueOptions.java_class]).call(vertx.j_del,client.j_del,Java::IoVertxRedis::RedisQueueOptions.new(::Vertx::Util::Utils.to_json_object(options))),::VertxRedis::RedisQueueConsumer)
+      end
+      raise ArgumentError, "Invalid arguments when calling create(vertx,client,options)"
+    end
+    #  Set the handler called with each item, every item must be acknowledged with {::VertxRedis::RedisQueueConsumer#ack}. The
+    #  pollers only fetch items while a handler is set.
+    # @yield the item handler
+    # @return [self]
+    def handler
+      if block_given?
+        @j_del.java_method(:handler, [Java::IoVertxCore::Handler.java_class]).call((Proc.new { |event| yield(event) }))
+        return self
+      end
+      raise ArgumentError, "Invalid arguments when calling handler()"
+    end
+    #  Start polling the queue. When called before a previous {::VertxRedis::RedisQueueConsumer#stop} completed, polling starts again once
+    #  the pollers of the previous run returned.
+    # @return [self]
+    def start
+      if !block_given?
+        @j_del.java_method(:start, []).call()
+        return self
+      end
+      raise ArgumentError, "Invalid arguments when calling start()"
+    end
+    #  Stop polling the queue, the handler is called once all pollers returned. Items in flight can still be acknowledged,
+    #  the ones received after the stop are put back in the queue.
+    # @yield called once stopped
+    # @return [void]
+    def stop
+      if block_given?
+        return @j_del.java_method(:stop, [Java::IoVertxCore::Handler.java_class]).call((Proc.new { |ar| yield(ar.failed ? ar.cause : nil) }))
+      end
+      raise ArgumentError, "Invalid arguments when calling stop()"
+    end
+    #  Acknowledge an item, removing it from the processing list.
+    # @param [String] item the item as given to the handler
+    # @yield called once the item was removed
+    # @return [self]
+    def ack(item=nil)
+      if item.class == String && block_given?
+        @j_del.java_method(:ack, [Java::java.lang.String.java_class,Java::IoVertxCore::Handler.java_class]).call(item,(Proc.new { |ar| yield(ar.failed ? ar.cause : nil) }))
+        return self
+      end
+      raise ArgumentError, "Invalid arguments when calling ack(item)"
+    end
+    #  Return the statistics of this consumer: the number of items `received`, `acked` and `requeued`, the items
+    #  currently `inFlight` and the age in milliseconds of the `oldestInFlight` one, together with the length of the
+    #  `queue` (the backlog) and of the `processing` list.
+    # @yield called with the statistics
+    # @return [void]
+    def stats
+      if block_given?
+        return @j_del.java_method(:stats, [Java::IoVertxCore::Handler.java_class]).call((Proc.new { |ar| yield(ar.failed ? ar.cause : nil, ar.succeeded ? ar.result != nil ? JSON.parse(ar.result.encode) : nil : nil) }))
+      end
+      raise ArgumentError, "Invalid arguments when calling stats()"
+    end
+  end
+end
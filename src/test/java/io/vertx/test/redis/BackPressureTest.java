@@ -0,0 +1,195 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.test.redis;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisOptions;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BackPressureTest extends AbstractRedisClientBase {
+
+  @Test
+  public void testFailFastWhenPendingQueueIsFull() {
+    vertx.runOnContext(v -> {
+      // create the client on this context so all commands are queued before the connection is established
+      RedisClient rdx = RedisClient.create(vertx, getConfig().setMaxPendingCommands(2));
+
+      final AtomicInteger ok = new AtomicInteger();
+      final AtomicInteger ko = new AtomicInteger();
+
+      for (int i = 0; i < 5; i++) {
+        rdx.ping(ping -> {
+          if (ping.succeeded()) {
+            ok.incrementAndGet();
+          } else {
+            ko.incrementAndGet();
+          }
+
+          if (ok.get() + ko.get() == 5) {
+            assertEquals(2, ok.get());
+            assertEquals(3, ko.get());
+            rdx.close(v0 -> testComplete());
+          }
+        });
+      }
+    });
+
+    await();
+  }
+
+  @Test
+  public void testDrainHandler() {
+    vertx.runOnContext(v -> {
+      // create the client on this context so the commands are queued synchronously
+      RedisClient rdx = RedisClient.create(vertx, getConfig().setMaxPendingCommands(4));
+
+      for (int i = 0; i < 4; i++) {
+        rdx.ping(ping -> assertTrue(ping.succeeded()));
+      }
+
+      assertTrue(rdx.writeQueueFull());
+
+      rdx.drainHandler(v0 -> {
+        assertFalse(rdx.writeQueueFull());
+        rdx.close(v1 -> testComplete());
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testDrainHandlerContext() {
+    final Context connectionContext = vertx.getOrCreateContext();
+    final Context callerContext = vertx.getOrCreateContext();
+
+    connectionContext.runOnContext(v -> {
+      // the connection belongs to the context that created the client
+      RedisClient rdx = RedisClient.create(vertx, getConfig().setMaxPendingCommands(4));
+
+      callerContext.runOnContext(v0 -> {
+        rdx.drainHandler(v1 -> {
+          assertSame(callerContext, Vertx.currentContext());
+          rdx.close(v2 -> testComplete());
+        });
+
+        connectionContext.runOnContext(v1 -> {
+          for (int i = 0; i < 4; i++) {
+            rdx.ping(ping -> assertTrue(ping.succeeded()));
+          }
+          assertTrue(rdx.writeQueueFull());
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testMaxInFlight() {
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setMaxInFlightCommands(1));
+
+    final String key = makeKey();
+    final AtomicInteger cnt = new AtomicInteger();
+
+    // replies must arrive in order even if commands are held back by the in flight limit
+    for (int i = 0; i < 10; i++) {
+      final long expected = i + 1;
+      rdx.incr(key, incr -> {
+        assertTrue(incr.succeeded());
+        assertEquals(expected, incr.result().longValue());
+        if (cnt.incrementAndGet() == 10) {
+          rdx.close(v -> testComplete());
+        }
+      });
+    }
+
+    await();
+  }
+
+  @Test
+  public void testKeyBatchStreamSmallWriteQueue() {
+    final String prefix = makeKey();
+    final JsonObject keyvals = new JsonObject();
+    for (int i = 0; i < 20; i++) {
+      keyvals.put(prefix + ":" + i, "v");
+    }
+
+    redis.mset(keyvals, mset -> vertx.runOnContext(v -> {
+      assertTrue(mset.succeeded());
+      // the write queue is full before a batch is complete
+      WriteStream<String> del = redis.delStream(7, reply -> {
+        assertTrue(reply.succeeded());
+        assertEquals(20L, reply.result().longValue());
+        testComplete();
+      });
+      writeAll(keyvals.fieldNames().iterator(), del.setWriteQueueMaxSize(3));
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testKeyBatchStreamFailure() throws Exception {
+    FakeRedisServer server = new FakeRedisServer(vertx).reply("DEL", FakeRedisServer.error("ERR no"));
+    CountDownLatch latch = new CountDownLatch(1);
+    server.listen(listen -> latch.countDown());
+    awaitLatch(latch);
+
+    RedisClient rdx = RedisClient.create(vertx, new RedisOptions().setHost("localhost").setPort(server.port()));
+    AtomicBoolean failed = new AtomicBoolean();
+
+    vertx.runOnContext(v -> {
+      WriteStream<String> del = rdx.delStream(2, reply -> {
+        assertTrue(reply.failed());
+        assertTrue(failed.compareAndSet(false, true));
+      });
+      // the writer waits for a drain after the first batch, it must not wait forever
+      writeAll(Arrays.asList("a", "b", "c", "d", "e").iterator(), del.setWriteQueueMaxSize(2)
+        .exceptionHandler(t -> assertEquals("ERR no", t.getMessage())));
+    });
+
+    waitUntil(failed::get);
+    // the remaining keys are dropped, not sent
+    vertx.setTimer(100, t -> {
+      assertEquals(1, server.received().stream().filter("DEL"::equals).count());
+      rdx.close(v1 -> server.close(v2 -> testComplete()));
+    });
+
+    await();
+  }
+
+  private static void writeAll(Iterator<String> keys, WriteStream<String> stream) {
+    while (keys.hasNext()) {
+      if (stream.writeQueueFull()) {
+        stream.drainHandler(v -> writeAll(keys, stream));
+        return;
+      }
+      stream.write(keys.next());
+    }
+    stream.end();
+  }
+}
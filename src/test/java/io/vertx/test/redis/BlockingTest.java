@@ -0,0 +1,106 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.test.redis;
+
+import io.vertx.redis.RedisClient;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BlockingTest extends AbstractRedisClientBase {
+
+  @Test
+  public void testBlockingDoesNotHoldBackPipeline() {
+    final String list = makeKey();
+    final AtomicBoolean got = new AtomicBoolean();
+
+    redis.blpop(list, 1, blpop -> {
+      assertTrue(blpop.succeeded());
+      assertEquals("hello", blpop.result().getString(1));
+      // the GET did not wait for the BLPOP
+      assertTrue(got.get());
+      testComplete();
+    });
+
+    redis.get(makeKey(), get -> {
+      assertTrue(get.succeeded());
+      got.set(true);
+      redis.rpush(list, "hello", rpush -> assertTrue(rpush.succeeded()));
+    });
+
+    await();
+  }
+
+  @Test
+  public void testBlockingTimeout() {
+    // a negative grace makes the client give up before the server does
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setBlockingTimeoutGrace(-900));
+
+    rdx.blpop(makeKey(), 1, blpop -> {
+      assertTrue(blpop.failed());
+
+      // the stuck connection was replaced
+      rdx.blpop(makeKey(), 1, blpop2 -> {
+        assertTrue(blpop2.failed());
+        rdx.close(v -> testComplete());
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testBlockingWithoutHeartbeat() {
+    // the heartbeat would time out long before the BLPOP
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setPingInterval(50).setPingTimeout(100));
+
+    rdx.blpop(makeKey(), 1, blpop -> {
+      assertTrue(blpop.succeeded());
+      assertNull(blpop.result());
+      rdx.close(v -> testComplete());
+    });
+
+    await();
+  }
+
+  @Test
+  public void testCloseWhileBlocking() {
+    RedisClient rdx = RedisClient.create(vertx, getConfig());
+    // the failed BLPOP and the completed close, in any order
+    final AtomicInteger done = new AtomicInteger();
+
+    // never answered by the server, only closing the connection ends it
+    rdx.blpop(makeKey(), 0, blpop -> {
+      assertTrue(blpop.failed());
+      assertEquals("Connection closed", blpop.cause().getMessage());
+      if (done.incrementAndGet() == 2) {
+        testComplete();
+      }
+    });
+
+    vertx.setTimer(100, t -> {
+      rdx.close(close -> {
+        assertTrue(close.succeeded());
+        if (done.incrementAndGet() == 2) {
+          testComplete();
+        }
+      });
+    });
+
+    await();
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.vertx.test.redis;
 
+import io.vertx.redis.RedisClient;
 import org.junit.Test;
 
 public class ConnectionManagementTest extends AbstractRedisClientBase {
@@ -38,4 +39,76 @@ public class ConnectionManagementTest extends AbstractRedisClientBase {
     });
     await();
   }
+
+  @Test
+  public void testCreateConnected() {
+    RedisClient.create(vertx, getConfig().setWarmUpPing(true), create -> {
+      assertTrue(create.succeeded());
+      create.result().info(res -> {
+        assertTrue(res.succeeded());
+        create.result().close(v -> testComplete());
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testCreateConnectedFailure() {
+    RedisClient.create(vertx, getConfig().setPort(6399), create -> {
+      assertTrue(create.failed());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testClientName() {
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setClientName("vertx-test").setSelect(1));
+
+    rdx.clientGetname(res -> {
+      assertTrue(res.succeeded());
+      assertEquals("vertx-test", res.result());
+      rdx.close(v -> testComplete());
+    });
+    await();
+  }
+
+  @Test
+  public void testFailedSelectDoesNotRunQueuedCommands() {
+    final String key = makeKey();
+    // out of range, the server only has 16 databases by default
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setSelect(99));
+
+    rdx.incr(key, incr -> {
+      assertTrue(incr.failed());
+      assertTrue(incr.cause().getMessage().startsWith("ERR"));
+
+      // the command was held back until the handshake was answered, not run on the default database
+      redis.exists(key, exists -> {
+        assertTrue(exists.succeeded());
+        assertEquals(0L, exists.result().longValue());
+        rdx.close(v -> testComplete());
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testInvalidClientNameDoesNotRunQueuedCommands() {
+    final String key = makeKey();
+    // client names cannot contain spaces
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setClientName("vertx test"));
+
+    rdx.incr(key, incr -> {
+      assertTrue(incr.failed());
+      assertTrue(incr.cause().getMessage().startsWith("ERR"));
+
+      redis.exists(key, exists -> {
+        assertTrue(exists.succeeded());
+        assertEquals(0L, exists.result().longValue());
+        rdx.close(v -> testComplete());
+      });
+    });
+    await();
+  }
 }
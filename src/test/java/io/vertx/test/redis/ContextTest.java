@@ -15,10 +15,20 @@
  */
 package io.vertx.test.redis;
 
+import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.redis.RedisClient;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class ContextTest  extends AbstractRedisClientBase {
 
   @Test
@@ -53,4 +63,102 @@ public class ContextTest  extends AbstractRedisClientBase {
 
     await();
   }
+
+  @Test
+  public void runWithContextAffinity() {
+
+    final String key = makeKey();
+    final String name = "affinity" + System.nanoTime();
+    // fewer event loops than contexts, so some contexts share an event loop
+    final Vertx loops = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(2));
+    final RedisClient rdx = RedisClient.create(loops, getConfig().setContextAffinity(true).setClientName(name));
+
+    final int contexts = 6;
+    final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    final AtomicInteger done = new AtomicInteger();
+
+    for (int i = 0; i < contexts; i++) {
+      final String value = "value" + i;
+      Context ctx = loops.getOrCreateContext();
+
+      ctx.runOnContext(v -> {
+        final Thread thread = Thread.currentThread();
+        threads.add(thread);
+
+        // each event loop pipelines on its own connection, so the GET sees its own SET
+        rdx.set(key + value, value, set -> {
+          assertEquals(thread, Thread.currentThread());
+          rdx.get(key + value, get -> {
+            assertEquals(ctx, Vertx.currentContext());
+            assertEquals(value, get.result());
+
+            if (done.incrementAndGet() == contexts) {
+              // one connection per event loop, not per context
+              redis.clientList(list -> {
+                int connections = 0;
+                for (String client : list.result().split("\n")) {
+                  if (client.contains(" name=" + name + " ")) {
+                    connections++;
+                  }
+                }
+                assertEquals(2, threads.size());
+                assertEquals(threads.size(), connections);
+                rdx.close(close -> loops.close(closed -> testComplete()));
+              });
+            }
+          });
+        });
+      });
+    }
+
+    await();
+  }
+
+  @Test
+  public void runWithContextAffinityAfterUndeploy() {
+
+    final String key = makeKey();
+    final String name = "undeploy" + System.nanoTime();
+    final Vertx loops = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(1));
+    final RedisClient rdx = RedisClient.create(loops, getConfig().setContextAffinity(true).setClientName(name));
+
+    // the first verticle opens the connection of the event loop, the second one uses it
+    loops.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start(Future<Void> started) {
+        rdx.set(key, "value", set -> started.complete());
+      }
+    }, first -> loops.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start() {
+        rdx.get(key, get -> redis.clientList(before -> {
+          assertEquals("value", get.result());
+
+          final Context ctx = context;
+          loops.undeploy(first.result(), undeployed -> ctx.runOnContext(v -> {
+            // closed with the first verticle, the next command opens a new connection
+            rdx.get(key, get1 -> {
+              assertEquals("value", get1.result());
+              redis.clientList(after -> {
+                assertFalse(clientIds(before.result(), name).containsAll(clientIds(after.result(), name)));
+                rdx.close(close -> loops.close(closed -> testComplete()));
+              });
+            });
+          }));
+        }));
+      }
+    }));
+
+    await();
+  }
+
+  private static List<String> clientIds(String clientList, String name) {
+    final List<String> ids = new ArrayList<>();
+    for (String client : clientList.split("\n")) {
+      if (client.contains(" name=" + name + " ")) {
+        ids.add(client.substring(0, client.indexOf(' ')));
+      }
+    }
+    return ids;
+  }
 }
@@ -15,11 +15,15 @@
  */
 package io.vertx.test.redis;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.redis.RedisClient;
+import io.vertx.redis.op.Script;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -85,4 +89,143 @@ public class EvalTest extends AbstractRedisClientBase {
     });
     await();
   }
+
+  @Test
+  public void testEvalScript() {
+    Script script = new Script("return redis.call('incr',KEYS[1])");
+    assertEquals(40, script.getSha1().length());
+
+    final String key = makeKey();
+
+    redis.scriptFlush(flush -> {
+      assertTrue(flush.succeeded());
+      // not cached on the server, loaded transparently
+      redis.evalScript(script, Arrays.asList(key), null, res -> {
+        assertTrue(res.succeeded());
+        assertEquals(1L, res.result().getLong(0).longValue());
+
+        redis.scriptExists(script.getSha1(), exists -> {
+          assertTrue(exists.succeeded());
+          assertEquals(1L, exists.result().getLong(0).longValue());
+
+          redis.evalScript(script, Arrays.asList(key), null, res2 -> {
+            assertTrue(res2.succeeded());
+            assertEquals(2L, res2.result().getLong(0).longValue());
+            testComplete();
+          });
+        });
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testEvalScriptWithClientEncoding() {
+    Script script = new Script("return 'caf\u00e9'");
+    final RedisClient latin1 = RedisClient.create(vertx, getConfig().setEncoding("ISO-8859-1"));
+
+    redis.scriptFlush(flush -> {
+      assertTrue(flush.succeeded());
+      latin1.evalScriptAs(String.class, script, null, null, res -> {
+        assertTrue(res.succeeded());
+        assertEquals("caf\u00e9", res.result());
+
+        // cached under the digest of the bytes sent, so the next call does not need a SCRIPT LOAD
+        latin1.scriptExists(script.getSha1(StandardCharsets.ISO_8859_1), exists -> {
+          assertTrue(exists.succeeded());
+          assertEquals(1L, exists.result().getLong(0).longValue());
+          latin1.close(v -> testComplete());
+        });
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testEvalAs() {
+    redis.evalAs(Long.class, "return 10", null, null, res -> {
+      assertTrue(res.succeeded());
+      assertEquals(10L, res.result().longValue());
+
+      redis.evalAs(Object.class, "return {1,'foo',{2}}", null, null, res2 -> {
+        assertTrue(res2.succeeded());
+        List<?> tree = (List<?>) res2.result();
+        assertEquals(1L, tree.get(0));
+        assertEquals("foo", ((Buffer) tree.get(1)).toString());
+        assertEquals(2L, ((List<?>) tree.get(2)).get(0));
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testEvalScriptCompileError() {
+    Script script = new Script("this is not lua");
+
+    redis.scriptFlush(flush -> {
+      assertTrue(flush.succeeded());
+      redis.evalScript(script, null, null, res -> {
+        // the SCRIPT LOAD error, not the NOSCRIPT of the retry
+        assertTrue(res.failed());
+        assertFalse(res.cause().getMessage().startsWith("NOSCRIPT"));
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testEvalScriptInBatch() {
+    Script script = new Script("return redis.call('incr',KEYS[1])");
+    final String key = makeKey();
+
+    redis.scriptFlush(flush -> {
+      assertTrue(flush.succeeded());
+      redis.batch(batch -> {
+        batch.evalScriptAs(Long.class, script, Arrays.asList(key), null, res -> {
+          assertTrue(res.succeeded());
+          assertEquals(1L, res.result().longValue());
+        });
+      }, batch -> {
+        assertTrue(batch.succeeded());
+        assertTrue(batch.result());
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testEvalAsTypeMismatch() {
+    redis.evalAs(Long.class, "return 'x'", null, null, res -> {
+      // the reply cannot be decoded as a Long, the command fails instead of never completing
+      assertTrue(res.failed());
+      assertTrue(res.cause() instanceof NumberFormatException);
+
+      // the connection is still usable
+      redis.evalAs(Long.class, "return 10", null, null, res2 -> {
+        assertTrue(res2.succeeded());
+        assertEquals(10L, res2.result().longValue());
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testEvalAsTableMismatch() {
+    redis.evalAs(Long.class, "return {1, 2}", null, null, res -> {
+      // a table cannot be decoded as a Long, the command fails instead of handing over a JsonArray
+      assertTrue(res.failed());
+      assertTrue(res.cause().getMessage().contains("Long"));
+
+      redis.evalAs(JsonArray.class, "return {1, 2}", null, null, res2 -> {
+        assertTrue(res2.succeeded());
+        assertEquals(2, res2.result().size());
+        testComplete();
+      });
+    });
+    await();
+  }
 }
@@ -0,0 +1,349 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.test.redis;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetServerOptions;
+import io.vertx.core.net.NetSocket;
+import io.vertx.redis.impl.Reply;
+import io.vertx.redis.impl.ReplyParser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * An in-process stand-in for a Redis server speaking RESP, for tests that need to control what the server does on the
+ * wire. Out of the box it answers `PING`, `ECHO`, `GET`, `SET`, `DEL` from a map, `+OK` to the connection
+ * handshake and transaction commands (without queuing anything) and an error to anything else, on top of that:
+ *
+ * * {@link #reply(String, Function)} scripts the reply to a command
+ * * {@link #latency(String, long)} delays the replies to a command, like a real server the replies that follow on
+ *   the same connection wait as well
+ * * {@link #fragment(int, long)} splits the replies in chunks written separately
+ * * {@link #kill(String)} closes the connection when a command is received and {@link #killConnections()} closes them
+ *   all right away
+ *
+ * The replies due at the same time are written at once, as a server answering a pipeline would. The benchmarks use it
+ * from the test jar for the round trips through the client.
+ */
+public class FakeRedisServer {
+
+  public static Buffer status(String status) {
+    return Buffer.buffer("+" + status + "\r\n");
+  }
+
+  public static Buffer error(String error) {
+    return Buffer.buffer("-" + error + "\r\n");
+  }
+
+  public static Buffer integer(long value) {
+    return Buffer.buffer(":" + value + "\r\n");
+  }
+
+  public static Buffer bulk(String value) {
+    if (value == null) {
+      return nil();
+    }
+    final Buffer bytes = Buffer.buffer(value);
+    return Buffer.buffer("$" + bytes.length() + "\r\n").appendBuffer(bytes).appendString("\r\n");
+  }
+
+  public static Buffer nil() {
+    return Buffer.buffer("$-1\r\n");
+  }
+
+  public static Buffer array(Buffer... elements) {
+    final Buffer buffer = Buffer.buffer("*" + elements.length + "\r\n");
+    for (Buffer element : elements) {
+      buffer.appendBuffer(element);
+    }
+    return buffer;
+  }
+
+  private final Vertx vertx;
+  private final NetServer server;
+
+  private final Map<String, Function<List<String>, Buffer>> replies = new ConcurrentHashMap<>();
+  private final Map<String, Long> latencies = new ConcurrentHashMap<>();
+  private final Set<String> kills = ConcurrentHashMap.newKeySet();
+  private final Map<String, String> data = new ConcurrentHashMap<>();
+
+  private final List<Connection> connections = new CopyOnWriteArrayList<>();
+  private final List<String> received = new CopyOnWriteArrayList<>();
+  private final AtomicInteger accepted = new AtomicInteger();
+
+  private volatile int chunkSize;
+  private volatile long chunkDelay;
+
+  public FakeRedisServer(Vertx vertx) {
+    this.vertx = vertx;
+    this.server = vertx.createNetServer(new NetServerOptions().setHost("localhost").setPort(0).setTcpNoDelay(true));
+    this.server.connectHandler(socket -> {
+      accepted.incrementAndGet();
+      connections.add(new Connection(socket));
+    });
+  }
+
+  /**
+   * Start listening on an ephemeral port, see {@link #port()}.
+   */
+  public void listen(Handler<AsyncResult<Void>> handler) {
+    server.listen(listen -> handler.handle(listen.failed() ? Future.failedFuture(listen.cause()) : Future.succeededFuture()));
+  }
+
+  public int port() {
+    return server.actualPort();
+  }
+
+  public void close(Handler<AsyncResult<Void>> handler) {
+    killConnections();
+    server.close(handler);
+  }
+
+  /**
+   * Answer a command with the result of the function, which gets the arguments of the command.
+   */
+  public FakeRedisServer reply(String command, Function<List<String>, Buffer> reply) {
+    replies.put(command.toUpperCase(), reply);
+    return this;
+  }
+
+  /**
+   * Answer a command with a fixed reply.
+   */
+  public FakeRedisServer reply(String command, Buffer reply) {
+    return reply(command, args -> reply);
+  }
+
+  /**
+   * Delay the replies to a command by the given amount of milliseconds.
+   */
+  public FakeRedisServer latency(String command, long millis) {
+    latencies.put(command.toUpperCase(), millis);
+    return this;
+  }
+
+  /**
+   * Write the replies in chunks of the given size, waiting the given amount of milliseconds between chunks. A size of 0
+   * writes the replies whole.
+   */
+  public FakeRedisServer fragment(int size, long delay) {
+    this.chunkSize = size;
+    this.chunkDelay = delay;
+    return this;
+  }
+
+  /**
+   * Close the connection the next time the command is received, without replying to it or to the commands still
+   * waiting for a reply on that connection.
+   */
+  public FakeRedisServer kill(String command) {
+    kills.add(command.toUpperCase());
+    return this;
+  }
+
+  /**
+   * Close all the connections open right now.
+   */
+  public void killConnections() {
+    for (Connection connection : connections) {
+      connection.close();
+    }
+  }
+
+  /**
+   * The number of connections accepted so far.
+   */
+  public int accepted() {
+    return accepted.get();
+  }
+
+  /**
+   * The names of the commands received so far, in order.
+   */
+  public List<String> received() {
+    return received;
+  }
+
+  private Buffer answer(String command, List<String> args) {
+    final Function<List<String>, Buffer> reply = replies.get(command);
+    if (reply != null) {
+      return reply.apply(args);
+    }
+
+    switch (command) {
+      case "PING":
+        return args.isEmpty() ? status("PONG") : bulk(args.get(0));
+      case "ECHO":
+        return bulk(args.get(0));
+      case "GET":
+        return bulk(data.get(args.get(0)));
+      case "SET":
+        data.put(args.get(0), args.get(1));
+        return status("OK");
+      case "DEL":
+        int removed = 0;
+        for (String key : args) {
+          if (data.remove(key) != null) {
+            removed++;
+          }
+        }
+        return integer(removed);
+      case "AUTH":
+      case "SELECT":
+      case "CLIENT":
+      case "QUIT":
+      case "WATCH":
+      case "UNWATCH":
+      case "MULTI":
+      case "DISCARD":
+        return status("OK");
+      case "EXEC":
+        // commands are not queued, there is nothing to run
+        return array();
+      default:
+        return error("ERR unknown command '" + command.toLowerCase() + "'");
+    }
+  }
+
+  private static long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+  }
+
+  private class Connection {
+
+    private final NetSocket socket;
+    // replies not written yet, in order and with non decreasing due times
+    private final Deque<Write> out = new ArrayDeque<>();
+    private long timer = -1;
+    private volatile boolean closed;
+
+    Connection(NetSocket socket) {
+      this.socket = socket;
+
+      final ReplyParser parser = new ReplyParser(this::handleRequest);
+      // the requests of a read are all answered once it is parsed
+      socket.handler(buffer -> {
+        parser.handle(buffer);
+        if (!closed) {
+          flush();
+        }
+      });
+      socket.closeHandler(v -> {
+        closed = true;
+        connections.remove(this);
+      });
+    }
+
+    private void handleRequest(Reply request) {
+      if (closed) {
+        return;
+      }
+
+      final Reply[] parts = (Reply[]) request.data();
+      final String command = parts[0].asType(String.class).toUpperCase();
+      final List<String> args = new ArrayList<>(parts.length - 1);
+      for (int i = 1; i < parts.length; i++) {
+        args.add(parts[i].asType(String.class));
+      }
+
+      received.add(command);
+
+      if (kills.remove(command)) {
+        close();
+        return;
+      }
+
+      // a reply cannot overtake the ones before it
+      long due = now() + latencies.getOrDefault(command, 0L);
+      if (!out.isEmpty()) {
+        due = Math.max(due, out.peekLast().due);
+      }
+
+      final Buffer reply = answer(command, args);
+      final int size = chunkSize;
+
+      if (size <= 0) {
+        out.add(new Write(due, reply));
+      } else {
+        for (int i = 0; i < reply.length(); i += size) {
+          out.add(new Write(due, reply.getBuffer(i, Math.min(i + size, reply.length()))));
+          due += chunkDelay;
+        }
+      }
+    }
+
+    private void flush() {
+      final long now = now();
+
+      if (chunkSize <= 0) {
+        Buffer due = null;
+        while (!out.isEmpty() && out.peek().due <= now) {
+          due = due == null ? out.poll().buffer.copy() : due.appendBuffer(out.poll().buffer);
+        }
+        if (due != null) {
+          socket.write(due);
+        }
+      } else {
+        // the chunks are written one by one, even when there is no delay between them
+        while (!out.isEmpty() && out.peek().due <= now) {
+          socket.write(out.poll().buffer);
+        }
+      }
+
+      if (!out.isEmpty() && timer == -1) {
+        timer = vertx.setTimer(Math.max(1, out.peek().due - now), id -> {
+          timer = -1;
+          if (!closed) {
+            flush();
+          }
+        });
+      }
+    }
+
+    void close() {
+      if (!closed) {
+        closed = true;
+        out.clear();
+        socket.close();
+      }
+    }
+  }
+
+  private static final class Write {
+    final long due;
+    final Buffer buffer;
+
+    Write(long due, Buffer buffer) {
+      this.due = due;
+      this.buffer = buffer;
+    }
+  }
+}
@@ -0,0 +1,288 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.test.redis;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisOptions;
+import io.vertx.redis.RedisTransaction;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.vertx.test.redis.FakeRedisServer.array;
+import static io.vertx.test.redis.FakeRedisServer.bulk;
+import static io.vertx.test.redis.FakeRedisServer.integer;
+
+/**
+ * Wire level behavior of the client, against a {@link FakeRedisServer} so it does not depend on timing of a real server.
+ */
+public class FakeRedisServerTest extends VertxTestBase {
+
+  private FakeRedisServer server;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    server = new FakeRedisServer(vertx);
+    CountDownLatch latch = new CountDownLatch(1);
+    server.listen(listen -> {
+      assertTrue(listen.succeeded());
+      latch.countDown();
+    });
+    awaitLatch(latch);
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    server.close(v -> latch.countDown());
+    awaitLatch(latch);
+    super.tearDown();
+  }
+
+  private RedisOptions getConfig() {
+    return new RedisOptions().setHost("localhost").setPort(server.port());
+  }
+
+  @Test
+  public void testFragmentedReplies() {
+    // one byte per read, multi-byte characters are split as well
+    server.fragment(1, 1);
+    server.reply("LRANGE", array(bulk("h\u00e9llo"), integer(42), bulk(null)));
+
+    RedisClient rdx = RedisClient.create(vertx, getConfig());
+
+    rdx.lrange("list", 0, -1, lrange -> {
+      assertTrue(lrange.succeeded());
+      assertEquals("h\u00e9llo", lrange.result().getString(0));
+      assertEquals(42L, (long) lrange.result().getLong(1));
+      assertNull(lrange.result().getValue(2));
+
+      // a pipeline whose replies arrive in single bytes
+      server.fragment(1, 0);
+
+      rdx.set("key", "value", set -> {
+        assertTrue(set.succeeded());
+
+        AtomicInteger cnt = new AtomicInteger(100);
+        for (int i = 0; i < 100; i++) {
+          rdx.get("key", get -> {
+            assertTrue(get.succeeded());
+            assertEquals("value", get.result());
+            if (cnt.decrementAndGet() == 0) {
+              rdx.close(v -> testComplete());
+            }
+          });
+        }
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testLatencyKeepsPipelineOrder() {
+    server.latency("GET", 200);
+
+    RedisClient rdx = RedisClient.create(vertx, getConfig());
+    List<String> replies = new CopyOnWriteArrayList<>();
+
+    rdx.ping(ping -> {
+      assertTrue(ping.succeeded());
+      long start = System.currentTimeMillis();
+
+      rdx.get("key", get -> {
+        assertTrue(get.succeeded());
+        replies.add("GET");
+      });
+
+      // not delayed itself, but answered after the slow GET
+      rdx.ping(ping2 -> {
+        assertTrue(ping2.succeeded());
+        replies.add("PING");
+        assertTrue(System.currentTimeMillis() - start >= 200);
+        assertEquals(2, replies.size());
+        assertEquals("GET", replies.get(0));
+        rdx.close(v -> testComplete());
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testReconnectAfterKill() {
+    server.kill("GET");
+
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setReconnectAttempts(-1).setReconnectDelay(10));
+
+    rdx.set("key", "value", set -> {
+      assertTrue(set.succeeded());
+
+      // the server drops the connection instead of replying
+      rdx.get("key", get -> {
+        assertTrue(get.failed());
+
+        rdx.get("key", get2 -> {
+          assertTrue(get2.succeeded());
+          assertEquals("value", get2.result());
+          assertEquals(2, server.accepted());
+          rdx.close(v -> testComplete());
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testNoHeartbeatWhileWaiting() {
+    // the GET takes longer than the heartbeat would wait for its PING
+    server.latency("GET", 500);
+
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setPingInterval(50).setPingTimeout(100));
+
+    rdx.ping(ping -> {
+      assertTrue(ping.succeeded());
+
+      // a slow command is not a dead connection
+      rdx.get("key", get -> {
+        assertTrue(get.succeeded());
+        assertEquals(1, server.accepted());
+        rdx.close(v -> testComplete());
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testRejectedMultiReleasesConnection() {
+    server.reply("MULTI", FakeRedisServer.error("ERR MULTI calls can not be nested"));
+
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setTransactionPoolSize(1).setTransactionPoolTimeout(500));
+
+    rdx.transaction().multi(multi -> {
+      assertTrue(multi.failed());
+
+      // no session was opened, the only connection is available again
+      rdx.transaction().ping(ping -> {
+        assertTrue(ping.succeeded());
+        assertEquals(1, server.accepted());
+        rdx.close(v -> testComplete());
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testLostTransactionConnectionIsDiscarded() {
+    server.kill("EXEC");
+
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setTransactionPoolSize(1).setTransactionPoolTimeout(500));
+    RedisTransaction transaction = rdx.transaction();
+
+    transaction.multi(multi -> {
+      assertTrue(multi.succeeded());
+
+      transaction.exec(exec -> {
+        assertTrue(exec.failed());
+
+        // the session died with the connection, a new one takes its place in the pool
+        rdx.transaction().multi(multi2 -> {
+          assertTrue(multi2.succeeded());
+          assertEquals(2, server.accepted());
+          rdx.close(v -> testComplete());
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testTransactionPoolTimeout() {
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setTransactionPoolSize(1).setTransactionPoolTimeout(100));
+
+    // a session that is never completed holds on to the only connection
+    rdx.newTransaction().multi(multi -> {
+      assertTrue(multi.succeeded());
+
+      rdx.newTransaction().ping(ping -> {
+        assertTrue(ping.failed());
+        assertTrue(ping.cause().getMessage().startsWith("No connection available"));
+        rdx.close(v -> testComplete());
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testWatchAndRunWriteHandlersOnLastAttempt() {
+    // the first EXEC is aborted by a conflict, the retry commits
+    AtomicInteger execs = new AtomicInteger();
+    server.reply("EXEC", args -> execs.incrementAndGet() == 1 ? Buffer.buffer("*-1\r\n") : array(FakeRedisServer.status("OK")));
+
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setWatchRetryDelay(0));
+    List<AsyncResult<Void>> writes = new CopyOnWriteArrayList<>();
+
+    rdx.watchAndRun(Collections.singletonList("key"), reads -> {}, w -> w.set("key", "value", set -> writes.add(set)), run -> {
+      assertTrue(run.succeeded());
+      assertEquals(2, execs.get());
+      // not told about the aborted attempt
+      assertEquals(1, writes.size());
+      assertTrue(writes.get(0).succeeded());
+      rdx.close(v -> testComplete());
+    });
+
+    await();
+  }
+
+  @Test
+  public void testReadyAfterHandshake() {
+    server.latency("AUTH", 100).reply("AUTH", FakeRedisServer.error("ERR invalid password"));
+
+    // the ready handler gets the outcome of the handshake, not the socket connect
+    RedisClient.create(vertx, getConfig().setAuth("secret"), ready -> {
+      assertTrue(ready.failed());
+      assertEquals("ERR invalid password", ready.cause().getMessage());
+      testComplete();
+    });
+
+    await();
+  }
+
+  @Test
+  public void testReadyWithBulkConnection() {
+    // normal, pub/sub and bulk connections
+    RedisClient.create(vertx, getConfig().addBulkCommand("KEYS"), ready -> {
+      assertTrue(ready.succeeded());
+      assertEquals(3, server.accepted());
+      ready.result().close(v -> testComplete());
+    });
+
+    await();
+  }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.test.redis;
+
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisOptions;
+import io.vertx.redis.RedisTransaction;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+public class HeartbeatTest extends AbstractRedisClientBase {
+
+  @Test
+  public void testIdlePing() {
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setClientName("heartbeat").setPingInterval(50));
+
+    // not a PING, so only the heartbeat can leave one as the last command
+    rdx.get(makeKey(), get -> {
+      assertTrue(get.succeeded());
+
+      vertx.setTimer(300, t -> {
+        redis.clientList(list -> {
+          assertTrue(list.succeeded());
+          // the last command of the idle connection is the heartbeat
+          boolean found = false;
+          for (String line : list.result().split("\n")) {
+            if (line.contains("name=heartbeat")) {
+              assertTrue(line.contains("cmd=ping"));
+              found = true;
+            }
+          }
+          assertTrue(found);
+          rdx.close(v -> testComplete());
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testUnresponsiveServer() throws Exception {
+    FakeRedisServer server = new FakeRedisServer(vertx);
+    // the server stops answering once the connection is idle, like a socket dropped by a NAT device
+    server.latency("PING", 10000);
+    CountDownLatch latch = new CountDownLatch(1);
+    server.listen(listen -> latch.countDown());
+    awaitLatch(latch);
+
+    RedisClient rdx = RedisClient.create(vertx, new RedisOptions().setHost("localhost").setPort(server.port())
+        .setPingInterval(50).setPingTimeout(100));
+
+    rdx.get(makeKey(), get -> {
+      assertTrue(get.succeeded());
+
+      // idle long enough for the heartbeat PING to time out and close the connection
+      vertx.setTimer(500, t -> {
+        rdx.get(makeKey(), get2 -> {
+          assertTrue(get2.succeeded());
+          // served by a new connection instead of waiting behind the stalled PING
+          assertEquals(2, server.accepted());
+          rdx.close(v -> server.close(v1 -> testComplete()));
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testNoHeartbeatInTransaction() {
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setPingInterval(50));
+    RedisTransaction transaction = rdx.transaction();
+    String key = makeKey();
+
+    transaction.multi(multi -> {
+      assertTrue(multi.succeeded());
+      transaction.incr(key, incr -> {
+        assertTrue(incr.succeeded());
+
+        // idle long enough for a heartbeat, which must not end up in the transaction
+        vertx.setTimer(200, t -> {
+          transaction.exec(exec -> {
+            assertTrue(exec.succeeded());
+            assertEquals(1, exec.result().size());
+            assertEquals(1L, exec.result().getLong(0).longValue());
+            rdx.close(v -> testComplete());
+          });
+        });
+      });
+    });
+
+    await();
+  }
+}
@@ -0,0 +1,284 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.test.redis;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.redis.RedisClient;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InterceptorTest extends AbstractRedisClientBase {
+
+  @Test
+  public void testRewriteArguments() {
+    final String key = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig());
+
+    // prefix the first argument of every command
+    rdx.addInterceptor(invocation -> {
+      if (invocation.args() != null && !invocation.args().isEmpty()) {
+        final List<Object> args = new ArrayList<>(invocation.args());
+        args.set(0, "prefix:" + args.get(0));
+        invocation.args(args);
+      }
+      invocation.proceed();
+    });
+
+    rdx.set(key, "value", set -> {
+      assertTrue(set.succeeded());
+      redis.get("prefix:" + key, get -> {
+        assertEquals("value", get.result());
+        rdx.close(close -> testComplete());
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testShortCircuitAndObserve() {
+    final String key = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig());
+    final AtomicInteger observed = new AtomicInteger();
+
+    // interceptors are called in the order they were added
+    rdx.addInterceptor(invocation -> {
+      final Handler<AsyncResult<Object>> handler = invocation.handler();
+      invocation.handler(res -> {
+        observed.incrementAndGet();
+        handler.handle(res);
+      });
+      invocation.proceed();
+    });
+    rdx.addInterceptor(invocation -> {
+      if ("GET".equals(invocation.command())) {
+        // answered without going to the server
+        invocation.handler().handle(Future.succeededFuture("cached"));
+      } else {
+        invocation.proceed();
+      }
+    });
+
+    rdx.get(key, get -> {
+      assertEquals("cached", get.result());
+      rdx.exists(key, exists -> {
+        assertEquals(0L, (long) exists.result());
+        assertEquals(2, observed.get());
+        rdx.close(close -> testComplete());
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testCoalesceReads() {
+    final String key = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig().setCoalesceReads(true).setClientName("metrics"));
+    // what goes on the wire
+    final MetricsTest.Recorder wire = MetricsTest.Factory.last;
+    final AtomicInteger issued = new AtomicInteger();
+
+    // runs before the coalescing, so it sees every GET
+    rdx.addInterceptor(invocation -> {
+      if ("GET".equals(invocation.command())) {
+        issued.incrementAndGet();
+      }
+      invocation.proceed();
+    });
+
+    redis.set(key, "value", set -> {
+      final int readers = 10;
+      final AtomicInteger received = new AtomicInteger();
+
+      for (int i = 0; i < readers; i++) {
+        rdx.get(key, get -> {
+          assertEquals("value", get.result());
+          if (received.incrementAndGet() == readers) {
+            assertEquals(readers, issued.get());
+            assertEquals(1, wire.completed("GET"));
+
+            // a write in between starts a new read
+            rdx.get(key, get1 -> assertEquals("value", get1.result()));
+            rdx.set(key, "other", set1 -> assertTrue(set1.succeeded()));
+            rdx.get(key, get2 -> {
+              assertEquals("other", get2.result());
+              assertEquals(3, wire.completed("GET"));
+              rdx.close(close -> testComplete());
+            });
+          }
+        });
+      }
+    });
+
+    await();
+  }
+
+  @Test
+  public void testCoalesceReadsAfterBatch() {
+    final String key = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig().setCoalesceReads(true));
+
+    redis.set(key, "value", set -> {
+      rdx.get(key, get1 -> assertEquals("value", get1.result()));
+      // the write of the batch does not go through the interceptors
+      rdx.batch(batch -> batch.set(key, "other", null), res -> assertTrue(res.succeeded()));
+      rdx.get(key, get2 -> {
+        assertEquals("other", get2.result());
+        rdx.close(close -> testComplete());
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testCoalescedResultIsCopiedBeforeTheLeader() {
+    final String key = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig().setCoalesceReads(true));
+
+    redis.hmset(key, new JsonObject().put("f", "v"), hmset -> {
+      // the leader changes its result before the follower gets its copy
+      rdx.hgetall(key, leader -> {
+        assertEquals("v", leader.result().getString("f"));
+        leader.result().put("f", "changed");
+      });
+      rdx.hgetall(key, follower -> {
+        assertEquals("v", follower.result().getString("f"));
+        rdx.close(close -> testComplete());
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testReadBatching() {
+    final String key = makeKey();
+    final String hash = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig().setReadBatchWindow(0).setClientName("metrics"));
+    // what goes on the wire
+    final MetricsTest.Recorder wire = MetricsTest.Factory.last;
+    final List<String> issued = new ArrayList<>();
+
+    // runs before the batching, so it sees the commands as issued
+    rdx.addInterceptor(invocation -> {
+      issued.add(invocation.command());
+      invocation.proceed();
+    });
+
+    redis.mset(new JsonObject().put(key + 0, "v0").put(key + 1, "v1").put(key + 2, "v2"), mset -> {
+      redis.hmset(hash, new JsonObject().put("f0", "h0").put("f1", "h1"), hmset -> {
+        vertx.getOrCreateContext().runOnContext(v -> {
+          final int reads = 6;
+          final AtomicInteger received = new AtomicInteger();
+
+          for (int i = 0; i < 3; i++) {
+            final String expected = "v" + i;
+            rdx.get(key + i, get -> {
+              assertEquals(expected, get.result());
+              received.incrementAndGet();
+            });
+          }
+          rdx.hget(hash, "f0", hget -> {
+            assertEquals("h0", hget.result());
+            received.incrementAndGet();
+          });
+          rdx.hget(hash, "f1", hget -> {
+            assertEquals("h1", hget.result());
+            received.incrementAndGet();
+          });
+          rdx.hget(hash, "missing", hget -> {
+            assertNull(hget.result());
+            assertEquals(reads, received.incrementAndGet());
+            assertEquals(Arrays.asList("GET", "GET", "GET", "HGET", "HGET", "HGET"), issued);
+            assertEquals(1, wire.completed("MGET"));
+            assertEquals(1, wire.completed("HMGET"));
+            assertEquals(0, wire.completed("GET"));
+
+            // a write sends the reads collected before it
+            rdx.get(key + 0, get -> assertEquals("v0", get.result()));
+            rdx.set(key + 0, "other", set -> assertTrue(set.succeeded()));
+            rdx.get(key + 0, get -> {
+              assertEquals("other", get.result());
+              assertEquals(2, wire.completed("GET"));
+              assertEquals(1, wire.completed("MGET"));
+              rdx.close(close -> testComplete());
+            });
+          });
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testReadBatchingBeforeBatch() {
+    final String key = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig().setReadBatchWindow(0));
+
+    redis.set(key, "value", set -> {
+      vertx.getOrCreateContext().runOnContext(v -> {
+        // sent before the batch, which does not go through the interceptors
+        rdx.get(key, get1 -> assertEquals("value", get1.result()));
+        rdx.batch(batch -> batch.set(key, "other", null), res -> assertTrue(res.succeeded()));
+        rdx.get(key, get2 -> {
+          assertEquals("other", get2.result());
+          rdx.close(close -> testComplete());
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testReadBatchingWrongType() {
+    final String list = makeKey();
+    final String key = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig().setReadBatchWindow(0));
+
+    redis.lpush(list, "item", lpush -> {
+      vertx.getOrCreateContext().runOnContext(v -> {
+        // merged into MGET, the key of another type reads as null
+        rdx.get(list, get -> {
+          assertTrue(get.succeeded());
+          assertNull(get.result());
+        });
+        rdx.get(key, get -> {
+          assertTrue(get.succeeded());
+
+          // on its own the GET is sent as is and fails
+          rdx.get(list, get2 -> {
+            assertTrue(get2.failed());
+            assertTrue(get2.cause().getMessage().startsWith("WRONGTYPE"));
+            rdx.close(close -> testComplete());
+          });
+        });
+      });
+    });
+
+    await();
+  }
+}
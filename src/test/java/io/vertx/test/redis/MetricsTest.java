@@ -0,0 +1,236 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.test.redis;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisOptions;
+import io.vertx.redis.spi.RedisMetrics;
+import io.vertx.redis.spi.RedisMetricsFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MetricsTest extends AbstractRedisClientBase {
+
+  /**
+   * Registered in META-INF/services, records the measurements of the clients named "metrics".
+   */
+  public static class Factory implements RedisMetricsFactory {
+
+    static volatile Recorder last;
+
+    @Override
+    public RedisMetrics create(Vertx vertx, RedisOptions options) {
+      if (!"metrics".equals(options.getClientName())) {
+        return RedisMetrics.NOOP;
+      }
+      return last = new Recorder();
+    }
+  }
+
+  static class Recorder implements RedisMetrics {
+
+    final Map<String, AtomicLong> completed = new ConcurrentHashMap<>();
+    final Map<String, AtomicLong> failed = new ConcurrentHashMap<>();
+    final AtomicLong pending = new AtomicLong();
+    final AtomicLong waiting = new AtomicLong();
+    final AtomicLong written = new AtomicLong();
+    final AtomicLong read = new AtomicLong();
+    final Map<String, AtomicLong> largeReplies = new ConcurrentHashMap<>();
+    final Map<String, AtomicLong> headOfLine = new ConcurrentHashMap<>();
+    volatile boolean negativeLatency;
+    volatile boolean closed;
+
+    @Override
+    public void commandCompleted(String command, long latency, boolean succeeded) {
+      if (latency < 0) {
+        negativeLatency = true;
+      }
+      (succeeded ? completed : failed).computeIfAbsent(command, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public void pendingChanged(int delta) {
+      pending.addAndGet(delta);
+    }
+
+    @Override
+    public void waitingChanged(int delta) {
+      waiting.addAndGet(delta);
+    }
+
+    @Override
+    public void bytesWritten(long bytes) {
+      written.addAndGet(bytes);
+    }
+
+    @Override
+    public void bytesRead(long bytes) {
+      read.addAndGet(bytes);
+    }
+
+    @Override
+    public void largeReply(String command, int bytes) {
+      largeReplies.computeIfAbsent(command, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public void headOfLineBlocking(String command, int blocked, long time) {
+      headOfLine.computeIfAbsent(command, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    long completed(String command) {
+      return completed.getOrDefault(command, new AtomicLong()).get();
+    }
+
+    long failed(String command) {
+      return failed.getOrDefault(command, new AtomicLong()).get();
+    }
+  }
+
+  @Test
+  public void testMetrics() {
+    final String key = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig().setClientName("metrics"));
+    final Recorder metrics = Factory.last;
+
+    rdx.set(key, "value", set -> {
+      assertTrue(set.succeeded());
+      rdx.incr(key, incr -> {
+        assertTrue(incr.failed());
+        rdx.get(key, get -> {
+          assertTrue(get.succeeded());
+
+          // the handshake and every command were answered
+          assertEquals(1, metrics.completed("CLIENT SETNAME"));
+          assertEquals(1, metrics.completed("SET"));
+          assertEquals(1, metrics.failed("INCR"));
+          assertEquals(1, metrics.completed("GET"));
+          assertFalse(metrics.negativeLatency);
+          assertEquals(0, metrics.pending.get());
+          assertEquals(0, metrics.waiting.get());
+          assertTrue(metrics.written.get() > 0);
+          assertTrue(metrics.read.get() > 0);
+
+          rdx.close(close -> {
+            assertTrue(metrics.closed);
+            testComplete();
+          });
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testClientSlowLog() {
+    final String key = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig().setSlowLogThreshold(0).setSlowLogMaxLen(2));
+
+    rdx.set(key, "value", set -> {
+      rdx.get(key, get -> {
+        rdx.incr(key, incr -> {
+          // only the last two fit, most recent first
+          final JsonArray entries = rdx.clientSlowLog();
+          assertEquals(2, entries.size());
+
+          final JsonObject last = entries.getJsonObject(0);
+          assertEquals("INCR", last.getString("command"));
+          assertEquals(key, last.getString("key"));
+          assertFalse(last.getBoolean("succeeded"));
+
+          final JsonObject first = entries.getJsonObject(1);
+          assertEquals("GET", first.getString("command"));
+          assertTrue(first.getBoolean("succeeded"));
+          assertTrue(first.getInteger("requestBytes") > 0);
+          // $5\r\nvalue\r\n
+          assertEquals(11, (int) first.getInteger("replyBytes"));
+          assertEquals(first.getLong("total"), first.getLong("queued") + first.getLong("wire") + first.getLong("decode"), 2);
+
+          assertEquals(0, rdx.clientSlowLogReset().clientSlowLog().size());
+          rdx.close(close -> testComplete());
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testLargeReplyAndHeadOfLine() {
+    final String key = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig()
+        .setClientName("metrics")
+        .setLargeReplyThreshold(100)
+        .setHeadOfLineThreshold(50));
+    final Recorder metrics = Factory.last;
+
+    final char[] value = new char[1000];
+    Arrays.fill(value, 'x');
+
+    rdx.set(key, new String(value), set -> {
+      // replied before the script is sent, redis would otherwise flush it only once the script is done
+      rdx.get(key, get1 -> {
+        assertTrue(get1.succeeded());
+        // a busy script holds back the GET pipelined behind it
+        rdx.eval("local i = 0 while i < 5000000 do i = i + 1 end return i", Collections.emptyList(), Collections.emptyList(), eval -> {
+          assertTrue(eval.succeeded());
+        });
+        rdx.get(key, get2 -> {
+          assertEquals(2, metrics.largeReplies.get("GET").get());
+          assertEquals(1, metrics.headOfLine.get("EVAL").get());
+          rdx.close(close -> testComplete());
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testBulkCommands() {
+    final String key = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig().setClientName("bulk").addBulkCommand("keys"));
+
+    rdx.set(key, "value", set -> {
+      rdx.keys(key, keys -> {
+        assertTrue(keys.succeeded());
+        assertEquals(key, keys.result().getString(0));
+
+        rdx.clientList(list -> {
+          // the normal and the bulk connection
+          assertEquals(2, list.result().split("name=bulk ").length - 1);
+          rdx.close(close -> testComplete());
+        });
+      });
+    });
+
+    await();
+  }
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.test.redis;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisOptions;
+import io.vertx.redis.op.MonitorOptions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class MonitorTest extends AbstractRedisClientBase {
+
+  @Test
+  public void testMonitorStream() {
+    final String key = makeKey();
+
+    ReadStream<JsonObject> monitor = redis.monitorStream(new MonitorOptions().addCommand("set"));
+
+    monitor.endHandler(v -> testComplete());
+    monitor.handler(event -> {
+      // the GET is filtered out
+      assertEquals("SET", event.getString("command"));
+      assertEquals(key, event.getJsonArray("args").getString(0));
+      assertEquals("say \"hi\"", event.getJsonArray("args").getString(1));
+      assertEquals(0, event.getInteger("db").intValue());
+      monitor.handler(null);
+    });
+
+    // give MONITOR some time to be active
+    vertx.setTimer(200, t -> redis.get(key, get -> redis.set(key, "say \"hi\"", set -> assertTrue(set.succeeded()))));
+
+    await();
+  }
+
+  @Test
+  public void testMonitorClosedWithClient() {
+    final String name = "monitor-" + makeKey();
+
+    RedisClient rdx = RedisClient.create(vertx, getConfig().setClientName(name));
+    ReadStream<JsonObject> monitor = rdx.monitorStream(new MonitorOptions());
+    // issue commands until MONITOR is active
+    long timer = vertx.setPeriodic(50, t -> redis.ping(ping -> {}));
+    AtomicBoolean closed = new AtomicBoolean();
+
+    monitor.endHandler(v -> vertx.setTimer(100, t -> redis.clientList(list -> {
+      // the stream ended and its connection is gone
+      assertFalse(list.result().contains(" name=" + name + " "));
+      testComplete();
+    })));
+    monitor.handler(event -> {
+      if (closed.compareAndSet(false, true)) {
+        vertx.cancelTimer(timer);
+        rdx.close(close -> assertTrue(close.succeeded()));
+      }
+    });
+
+    await();
+  }
+
+  @Test
+  public void testMonitorSkipsMalformedLines() throws Exception {
+    FakeRedisServer server = new FakeRedisServer(vertx);
+    // a truncated escape, then a well formed event
+    server.reply("MONITOR", args -> FakeRedisServer.status("OK")
+        .appendBuffer(FakeRedisServer.status("1339518083.107412 [0 127.0.0.1:60866] \"set\" \"key\" \"\\x\""))
+        .appendBuffer(FakeRedisServer.status("1339518083.107413 [0 127.0.0.1:60866] \"get\" \"key\"")));
+    CountDownLatch latch = new CountDownLatch(1);
+    server.listen(listen -> latch.countDown());
+    awaitLatch(latch);
+
+    RedisClient rdx = RedisClient.create(vertx, new RedisOptions().setHost("localhost").setPort(server.port()));
+    ReadStream<JsonObject> monitor = rdx.monitorStream(new MonitorOptions());
+
+    monitor.exceptionHandler(t -> fail(t.getMessage()));
+    monitor.handler(event -> {
+      assertEquals("GET", event.getString("command"));
+      assertEquals("key", event.getJsonArray("args").getString(0));
+      monitor.handler(null);
+      rdx.close(v1 -> server.close(v2 -> testComplete()));
+    });
+
+    await();
+  }
+
+  @Test
+  public void testMonitorOptionsFromJson() {
+    MonitorOptions options = new MonitorOptions(new JsonObject().put("commands", new JsonArray().add("get").add("Set")));
+    assertEquals(Arrays.asList("GET", "SET"), options.getCommands());
+  }
+
+  @Test
+  public void testMonitorConnectionLost() throws Exception {
+    FakeRedisServer server = new FakeRedisServer(vertx);
+    // drop the connection once MONITOR was acknowledged
+    server.reply("MONITOR", args -> {
+      vertx.setTimer(50, t -> server.killConnections());
+      return FakeRedisServer.status("OK");
+    });
+    CountDownLatch latch = new CountDownLatch(1);
+    server.listen(listen -> latch.countDown());
+    awaitLatch(latch);
+
+    // reconnecting would not resume monitoring, so the stream does not
+    RedisClient rdx = RedisClient.create(vertx, new RedisOptions().setHost("localhost").setPort(server.port()).setReconnectAttempts(-1));
+    ReadStream<JsonObject> monitor = rdx.monitorStream(new MonitorOptions());
+    AtomicBoolean failed = new AtomicBoolean();
+
+    monitor.exceptionHandler(t -> failed.set(true));
+    monitor.endHandler(v -> {
+      assertTrue(failed.get());
+      vertx.setTimer(200, t -> {
+        assertEquals(1, server.accepted());
+        rdx.close(v1 -> server.close(v2 -> testComplete()));
+      });
+    });
+    monitor.handler(event -> fail("no events expected"));
+
+    await();
+  }
+
+  @Test
+  public void testMonitorPauseBuffersParsedEvents() throws Exception {
+    FakeRedisServer server = new FakeRedisServer(vertx);
+    // the events come in the same read as the acknowledgement
+    server.reply("MONITOR", FakeRedisServer.status("OK")
+        .appendBuffer(FakeRedisServer.status("1339518083.107412 [0 127.0.0.1:60866] \"get\" \"a\""))
+        .appendBuffer(FakeRedisServer.status("1339518083.107413 [0 127.0.0.1:60866] \"get\" \"b\"")));
+    CountDownLatch latch = new CountDownLatch(1);
+    server.listen(listen -> latch.countDown());
+    awaitLatch(latch);
+
+    RedisClient rdx = RedisClient.create(vertx, new RedisOptions().setHost("localhost").setPort(server.port()));
+    ReadStream<JsonObject> monitor = rdx.monitorStream(new MonitorOptions());
+    List<String> keys = new ArrayList<>();
+
+    monitor.handler(event -> {
+      keys.add(event.getJsonArray("args").getString(0));
+      if (keys.size() == 1) {
+        monitor.pause();
+        // the second event was already parsed, it waits for the resume
+        vertx.setTimer(100, t -> {
+          assertEquals(Collections.singletonList("a"), keys);
+          monitor.resume();
+          assertEquals(Arrays.asList("a", "b"), keys);
+          monitor.handler(null);
+          rdx.close(v1 -> server.close(v2 -> testComplete()));
+        });
+      }
+    });
+
+    await();
+  }
+
+  @Test
+  public void testMonitorRestart() throws Exception {
+    FakeRedisServer server = new FakeRedisServer(vertx);
+    server.reply("MONITOR", FakeRedisServer.status("OK"));
+    CountDownLatch latch = new CountDownLatch(1);
+    server.listen(listen -> latch.countDown());
+    awaitLatch(latch);
+
+    RedisClient rdx = RedisClient.create(vertx, new RedisOptions().setHost("localhost").setPort(server.port()));
+    ReadStream<JsonObject> monitor = rdx.monitorStream(new MonitorOptions());
+
+    monitor.exceptionHandler(t -> fail(t.getMessage()));
+    monitor.handler(event -> {});
+    vertx.setTimer(100, t -> {
+      monitor.handler(null);
+      // a new MONITOR on a new connection
+      monitor.handler(event -> {});
+      vertx.setTimer(100, t1 -> {
+        assertEquals(2, server.accepted());
+        assertEquals(Arrays.asList("MONITOR", "MONITOR"), server.received());
+        monitor.handler(null);
+        rdx.close(v1 -> server.close(v2 -> testComplete()));
+      });
+    });
+
+    await();
+  }
+}
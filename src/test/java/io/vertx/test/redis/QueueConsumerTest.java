@@ -0,0 +1,195 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.test.redis;
+
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisQueueConsumer;
+import io.vertx.redis.RedisQueueOptions;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QueueConsumerTest extends AbstractRedisClientBase {
+
+  @Test
+  public void testConsume() {
+    final String queue = makeKey();
+
+    RedisQueueConsumer consumer = RedisQueueConsumer.create(vertx, redis, new RedisQueueOptions()
+        .setQueue(queue)
+        .setPollers(2)
+        .setMaxInFlight(2));
+
+    final AtomicInteger cnt = new AtomicInteger();
+
+    consumer.handler(item -> consumer.ack(item, ack -> {
+      assertTrue(ack.succeeded());
+      if (cnt.incrementAndGet() == 5) {
+        consumer.stats(stats -> {
+          assertTrue(stats.succeeded());
+          assertEquals(5L, stats.result().getLong("received").longValue());
+          assertEquals(0L, stats.result().getLong("queue").longValue());
+          assertEquals(0L, stats.result().getLong("processing").longValue());
+          consumer.stop(v -> testComplete());
+        });
+      }
+    }));
+
+    redis.lpushMany(queue, Arrays.asList("1", "2", "3", "4", "5"), lpush -> {
+      assertTrue(lpush.succeeded());
+      consumer.start();
+    });
+
+    await();
+  }
+
+  @Test
+  public void testVisibilityTimeout() {
+    final String queue = makeKey();
+
+    RedisQueueConsumer consumer = RedisQueueConsumer.create(vertx, redis, new RedisQueueOptions()
+        .setQueue(queue)
+        // leaves room for a slow first decoding on a cold JVM before the second delivery is acknowledged
+        .setVisibilityTimeout(500));
+
+    final AtomicInteger deliveries = new AtomicInteger();
+
+    consumer.handler(item -> {
+      // the first delivery is never acknowledged, the item comes back after the visibility timeout
+      if (deliveries.incrementAndGet() == 2) {
+        assertEquals("job", item);
+        consumer.ack(item, ack -> {
+          assertTrue(ack.succeeded());
+          consumer.stats(stats -> {
+            assertEquals(1L, stats.result().getLong("requeued").longValue());
+            consumer.stop(v -> testComplete());
+          });
+        });
+      }
+    });
+
+    redis.lpush(queue, "job", lpush -> {
+      assertTrue(lpush.succeeded());
+      consumer.start();
+    });
+
+    await();
+  }
+
+  @Test
+  public void testRequeueItemOfCrashedConsumer() {
+    final String queue = makeKey();
+
+    RedisQueueConsumer consumer = RedisQueueConsumer.create(vertx, redis, new RedisQueueOptions()
+        .setQueue(queue)
+        .setVisibilityTimeout(200));
+
+    consumer.handler(item -> {
+      assertEquals("orphan", item);
+      consumer.ack(item, ack -> {
+        assertTrue(ack.succeeded());
+        consumer.stop(v -> testComplete());
+      });
+    });
+
+    // left in the processing list by a consumer that crashed before acknowledging it
+    redis.lpush(queue + ":processing", "orphan", lpush -> {
+      assertTrue(lpush.succeeded());
+      consumer.start();
+    });
+
+    await();
+  }
+
+  @Test
+  public void testRequeueAfterStop() {
+    final String queue = makeKey();
+
+    vertx.runOnContext(v -> {
+      RedisQueueConsumer consumer = RedisQueueConsumer.create(vertx, redis, new RedisQueueOptions().setQueue(queue));
+
+      consumer.handler(item -> fail("Received after the stop: " + item));
+      consumer.start();
+
+      // the poller is blocked in BRPOPLPUSH by then
+      vertx.setTimer(100, t -> {
+        consumer.stop(stopped -> redis.llen(queue, llen -> {
+          assertEquals(1L, llen.result().longValue());
+          redis.llen(queue + ":processing", llen2 -> {
+            assertEquals(0L, llen2.result().longValue());
+            testComplete();
+          });
+        }));
+        redis.lpush(queue, "late", lpush -> assertTrue(lpush.succeeded()));
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testRestartBeforeStopped() {
+    final String queue = makeKey();
+
+    vertx.runOnContext(v -> {
+      RedisQueueConsumer consumer = RedisQueueConsumer.create(vertx, redis, new RedisQueueOptions().setQueue(queue));
+      final AtomicInteger stopped = new AtomicInteger();
+
+      consumer.handler(item -> {
+        // the restart waited for the poller of the first run
+        assertEquals(1, stopped.get());
+        assertEquals("job", item);
+        consumer.ack(item, ack -> consumer.stop(v0 -> testComplete()));
+      });
+      consumer.start();
+
+      // the poller is blocked in BRPOPLPUSH by then
+      vertx.setTimer(100, t -> {
+        consumer.stop(v0 -> stopped.incrementAndGet());
+        consumer.start();
+        redis.lpush(queue, "job", lpush -> assertTrue(lpush.succeeded()));
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testStopAfterClientClosed() {
+    RedisClient rdx = RedisClient.create(vertx, getConfig());
+    RedisQueueConsumer consumer = RedisQueueConsumer.create(vertx, rdx, new RedisQueueOptions().setQueue(makeKey()));
+
+    consumer.handler(item -> fail("nothing was queued"));
+    consumer.start();
+
+    // the poller is blocked in BRPOPLPUSH by then
+    vertx.setTimer(100, t -> {
+      rdx.close(close -> {
+        final long start = System.currentTimeMillis();
+
+        // the failed poll is not retried, so there is nothing to wait for
+        consumer.stop(stop -> {
+          assertTrue(stop.succeeded());
+          assertTrue(System.currentTimeMillis() - start < 1000);
+          testComplete();
+        });
+      });
+    });
+
+    await();
+  }
+}
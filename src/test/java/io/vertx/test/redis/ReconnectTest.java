@@ -0,0 +1,125 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.test.redis;
+
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisOptions;
+import org.junit.Test;
+import redis.embedded.RedisServer;
+
+public class ReconnectTest extends AbstractRedisClientBase {
+
+  @Test
+  public void testBackgroundReconnect() throws Exception {
+
+    RedisServer server = new RedisServer(6382);
+    server.start();
+
+    RedisOptions job = new RedisOptions()
+        .setHost("localhost")
+        .setPort(6382)
+        .setReconnectAttempts(-1)
+        .setReconnectDelay(50);
+
+    RedisClient rdx = RedisClient.create(vertx, job);
+
+    rdx.ping(ping -> {
+      assertTrue(ping.succeeded());
+
+      // kill the server, the client will start reconnecting in the background
+      server.stop();
+
+      vertx.setTimer(200, t -> {
+        // the command is queued until the server is back
+        rdx.ping(ping2 -> {
+          assertTrue(ping2.succeeded());
+          server.stop();
+          rdx.close(v -> testComplete());
+        });
+
+        vertx.executeBlocking(fut -> {
+          server.start();
+          fut.complete();
+        }, false, null);
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testReconnectAttemptsExhausted() throws Exception {
+
+    RedisServer server = new RedisServer(6382);
+    server.start();
+
+    RedisOptions job = new RedisOptions()
+        .setHost("localhost")
+        .setPort(6382)
+        .setReconnectAttempts(2)
+        .setReconnectDelay(10);
+
+    RedisClient rdx = RedisClient.create(vertx, job);
+
+    rdx.ping(ping -> {
+      assertTrue(ping.succeeded());
+
+      server.stop();
+
+      vertx.setTimer(100, t -> {
+        // the server is not coming back, the command fails once the attempts are exhausted
+        rdx.ping(ping2 -> {
+          assertTrue(ping2.failed());
+          rdx.close(v -> testComplete());
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testFailWhileReconnecting() throws Exception {
+
+    RedisServer server = new RedisServer(6382);
+    server.start();
+
+    RedisOptions job = new RedisOptions()
+        .setHost("localhost")
+        .setPort(6382)
+        .setReconnectAttempts(-1)
+        .setReconnectDelay(1000)
+        .setReconnectJitter(0)
+        .setQueueWhileReconnecting(false);
+
+    RedisClient rdx = RedisClient.create(vertx, job);
+
+    rdx.ping(ping -> {
+      assertTrue(ping.succeeded());
+
+      server.stop();
+
+      vertx.setTimer(100, t -> {
+        rdx.ping(ping2 -> {
+          assertTrue(ping2.failed());
+          rdx.close(v -> testComplete());
+        });
+      });
+    });
+
+    await();
+  }
+}
@@ -86,4 +86,31 @@ public class RedisAuthRecoverTest extends AbstractRedisClientBase {
     await();
   }
 
+  @Test
+  public void testAuthFailure() throws Exception {
+
+    RedisServer server = RedisServer.builder().port(6381).setting("requirepass foobar").build();
+    server.start();
+
+    RedisOptions job = new RedisOptions()
+        .setHost("localhost")
+        .setPort(6381)
+        .setAuth("wrong")
+        .setSelect(1);
+
+    RedisClient rdx = RedisClient.create(vertx, job);
+
+    // the command is written together with the handshake but must fail with the handshake error
+    rdx.set(makeKey(), "1", set -> {
+      assertTrue(set.failed());
+
+      try {
+        server.stop();
+      } catch (Exception ignore) {}
+
+      testComplete();
+    });
+
+    await();
+  }
 }
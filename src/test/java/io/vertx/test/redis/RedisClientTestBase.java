@@ -15,9 +15,13 @@
  */
 package io.vertx.test.redis;
 
+import io.vertx.core.Context;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.Pump;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
 import io.vertx.redis.RedisClient;
 import io.vertx.redis.RedisOptions;
 import io.vertx.redis.RedisTransaction;
@@ -34,6 +38,8 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This test relies on a Redis server, by default it will start and stop a Redis server unless
@@ -1711,6 +1717,156 @@ public abstract class RedisClientTestBase extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testMultiIsolated() throws Exception {
+
+    String key = makeKey();
+    RedisTransaction transaction = redis.transaction();
+    redis.set(key, "0", rep -> {
+      assertTrue(rep.succeeded());
+      transaction.multi(reply -> {
+        assertTrue(reply.succeeded());
+        transaction.incr(key, reply2 -> {
+          assertTrue(reply2.succeeded());
+          assertEquals("QUEUED", reply2.result());
+          // commands on the client are not part of the transaction
+          redis.get(key, reply3 -> {
+            assertTrue(reply3.succeeded());
+            assertEquals("0", reply3.result());
+            transaction.exec(reply4 -> {
+              assertTrue(reply4.succeeded());
+              assertEquals(1L, reply4.result().getLong(0).longValue());
+              testComplete();
+            });
+          });
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testBatch() throws Exception {
+
+    String key = makeKey();
+    String list = makeKey();
+    AtomicInteger cnt = new AtomicInteger();
+
+    redis.batch(batch -> {
+      batch.set(key, "1", reply -> {
+        assertTrue(reply.succeeded());
+        cnt.incrementAndGet();
+      });
+      batch.incr(key, reply -> {
+        assertTrue(reply.succeeded());
+        assertEquals(2L, reply.result().longValue());
+        cnt.incrementAndGet();
+      });
+      // fails when executed, the other commands are not affected
+      batch.lpush(key, "a", reply -> {
+        assertTrue(reply.failed());
+        cnt.incrementAndGet();
+      });
+      batch.lpushMany(list, Arrays.asList("a", "b"), reply -> {
+        assertTrue(reply.succeeded());
+        assertEquals(2L, reply.result().longValue());
+        cnt.incrementAndGet();
+      });
+      batch.get(key, reply -> {
+        assertTrue(reply.succeeded());
+        assertEquals("2", reply.result());
+        cnt.incrementAndGet();
+      });
+    }, reply -> {
+      assertTrue(reply.succeeded());
+      assertTrue(reply.result());
+      assertEquals(5, cnt.get());
+      testComplete();
+    });
+
+    await();
+  }
+
+  @Test
+  public void testWatchAndRun() throws Exception {
+
+    String key = makeKey();
+    AtomicInteger cnt = new AtomicInteger();
+
+    // concurrent check-and-set increments, conflicts are retried
+    for (int i = 0; i < 10; i++) {
+      final String[] value = new String[1];
+
+      redis.watchAndRun(Collections.singletonList(key), reads -> {
+        reads.get(key, reply -> {
+          assertTrue(reply.succeeded());
+          value[0] = reply.result();
+        });
+      }, writes -> {
+        writes.set(key, String.valueOf(value[0] == null ? 1 : Integer.parseInt(value[0]) + 1), reply -> {});
+      }, reply -> {
+        assertTrue(reply.succeeded());
+        if (cnt.incrementAndGet() == 10) {
+          redis.get(key, reply2 -> {
+            assertTrue(reply2.succeeded());
+            assertEquals("10", reply2.result());
+            assertEquals(10L, redis.watchStats().getLong("runs").longValue());
+            testComplete();
+          });
+        }
+      });
+    }
+
+    await();
+  }
+
+  @Test
+  public void testSharedTransaction() {
+    String key = makeKey();
+    // the session opened on the shared transaction is continued from another call
+    assertSame(redis.transaction(), redis.transaction());
+    redis.transaction().multi(reply -> {
+      assertTrue(reply.succeeded());
+      redis.transaction().set(key, "1", reply2 -> {
+        assertTrue(reply2.succeeded());
+        assertEquals("QUEUED", reply2.result());
+        redis.transaction().exec(reply3 -> {
+          assertTrue(reply3.succeeded());
+          assertEquals("OK", reply3.result().getString(0));
+          testComplete();
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testNewTransactionIsolated() {
+    String key = makeKey();
+    RedisTransaction first = redis.newTransaction();
+    RedisTransaction second = redis.newTransaction();
+    assertNotSame(first, second);
+    redis.set(key, "0", rep -> {
+      assertTrue(rep.succeeded());
+      first.multi(reply -> {
+        assertTrue(reply.succeeded());
+        // the second transaction is not part of the session of the first
+        second.get(key, reply2 -> {
+          assertTrue(reply2.succeeded());
+          assertEquals("0", reply2.result());
+          first.discard(reply3 -> {
+            assertTrue(reply3.succeeded());
+            testComplete();
+          });
+        });
+      });
+    });
+
+    await();
+  }
+
   @Test
   public void testObject() {
 
@@ -3414,4 +3570,135 @@ public abstract class RedisClientTestBase extends VertxTestBase {
     });
     await();
   }
+
+  @Test
+  public void testScanStream() {
+    final String prefix = makeKey();
+    final JsonObject keyvals = new JsonObject();
+    for (int i = 0; i < 100; i++) {
+      keyvals.put(prefix + ":" + i, "v");
+    }
+
+    redis.mset(keyvals, reply1 -> {
+      assertTrue(reply1.succeeded());
+
+      ReadStream<String> keys = redis.scanStream(new ScanOptions().setMatch(prefix + ":*").setCount(10));
+      WriteStream<String> del = redis.delStream(7, reply2 -> {
+        assertTrue(reply2.succeeded());
+        assertEquals(100L, reply2.result().longValue());
+
+        redis.exists(prefix + ":0", reply3 -> {
+          assertTrue(reply3.succeeded());
+          assertEquals(0L, reply3.result().longValue());
+          testComplete();
+        });
+      });
+
+      keys.endHandler(v -> del.end());
+      Pump.pump(keys, del.setWriteQueueMaxSize(10)).start();
+    });
+    await();
+  }
+
+  @Test
+  public void testParallelScanStream() {
+    final String prefix = makeKey();
+    final JsonObject keyvals = new JsonObject();
+    for (int i = 0; i < 50; i++) {
+      keyvals.put(prefix + ":" + i, "v");
+    }
+
+    // a second database stands in for a second instance
+    RedisClient db1 = RedisClient.create(vertx, getConfig().setSelect(1));
+
+    redis.mset(keyvals, reply1 -> {
+      assertTrue(reply1.succeeded());
+      db1.mset(keyvals, reply2 -> {
+        assertTrue(reply2.succeeded());
+
+        vertx.runOnContext(v -> {
+          final AtomicInteger cnt = new AtomicInteger();
+          RedisClient.parallelScanStream(Arrays.asList(redis, db1), new ScanOptions().setMatch(prefix + ":*").setCount(10), 2)
+            .endHandler(v1 -> {
+              assertEquals(100, cnt.get());
+              db1.close(v2 -> testComplete());
+            })
+            .handler(key -> cnt.incrementAndGet());
+        });
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testParallelScanStreamOnCallerContext() {
+    final String prefix = makeKey();
+    final JsonObject keyvals = new JsonObject();
+    for (int i = 0; i < 50; i++) {
+      keyvals.put(prefix + ":" + i, "v");
+    }
+
+    // created outside of any context, the two clients are on their own event loops
+    RedisClient db1 = RedisClient.create(vertx, getConfig().setSelect(1));
+
+    redis.mset(keyvals, reply1 -> {
+      assertTrue(reply1.succeeded());
+      db1.mset(keyvals, reply2 -> {
+        assertTrue(reply2.succeeded());
+
+        vertx.runOnContext(v -> {
+          final Context context = vertx.getOrCreateContext();
+          final AtomicInteger cnt = new AtomicInteger();
+          final AtomicBoolean paused = new AtomicBoolean();
+          final ReadStream<String> keys = RedisClient.parallelScanStream(Arrays.asList(redis, db1), new ScanOptions().setMatch(prefix + ":*").setCount(5), 0);
+          keys
+            .endHandler(v1 -> {
+              assertSame(context, vertx.getOrCreateContext());
+              assertEquals(100, cnt.get());
+              db1.close(v2 -> testComplete());
+            })
+            .handler(key -> {
+              assertSame(context, vertx.getOrCreateContext());
+              // nothing is emitted while paused, even what was on its way
+              assertFalse(paused.get());
+              if (cnt.incrementAndGet() % 10 == 0) {
+                paused.set(true);
+                keys.pause();
+                vertx.setTimer(10, t -> {
+                  paused.set(false);
+                  keys.resume();
+                });
+              }
+            });
+        });
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testParallelScanStreamFailure() {
+    final String prefix = makeKey();
+    // nothing listens there, the first scan fails
+    RedisClient down = RedisClient.create(vertx, new RedisOptions().setHost("localhost").setPort(6390));
+
+    redis.set(prefix + ":0", "v", reply -> {
+      assertTrue(reply.succeeded());
+
+      vertx.runOnContext(v -> {
+        final AtomicInteger cnt = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        // one at a time, the second scan only starts once the first failed
+        RedisClient.parallelScanStream(Arrays.asList(down, redis), new ScanOptions().setMatch(prefix + ":*"), 1)
+          .exceptionHandler(t -> failures.incrementAndGet())
+          .endHandler(v1 -> {
+            assertEquals(1, failures.get());
+            assertEquals(1, cnt.get());
+            down.close(v2 -> testComplete());
+          })
+          .handler(key -> cnt.incrementAndGet());
+      });
+    });
+    await();
+  }
 }
@@ -0,0 +1,142 @@
+/**
+ * Copyright 2015 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.test.redis;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.redis.RedisClient;
+import io.vertx.redis.RedisOptions;
+import io.vertx.redis.spi.RedisTracer;
+import io.vertx.redis.spi.RedisTracerFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TracingTest extends AbstractRedisClientBase {
+
+  /**
+   * Registered in META-INF/services, traces the clients named "tracing".
+   */
+  public static class Factory implements RedisTracerFactory {
+
+    static volatile Tracer last;
+
+    @Override
+    public RedisTracer create(Vertx vertx, RedisOptions options) {
+      if (!"tracing".equals(options.getClientName())) {
+        return null;
+      }
+      return last = new Tracer();
+    }
+  }
+
+  static class Tracer implements RedisTracer {
+
+    final List<JsonObject> spans = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object enqueue(String command, String key, int db, int requestBytes) {
+      final JsonObject span = new JsonObject()
+          .put("command", command)
+          .put("key", key)
+          .put("db", db)
+          .put("requestBytes", requestBytes)
+          .put("context", Vertx.currentContext() != null);
+      spans.add(span);
+      return span;
+    }
+
+    @Override
+    public void write(Object span) {
+      ((JsonObject) span).put("written", true);
+    }
+
+    @Override
+    public void reply(Object span, int replyBytes, Throwable failure) {
+      ((JsonObject) span)
+          .put("replyBytes", replyBytes)
+          .put("failure", failure == null ? null : failure.getMessage());
+    }
+  }
+
+  @Test
+  public void testTracing() {
+    final String key = makeKey();
+    final RedisClient rdx = RedisClient.create(vertx, getConfig().setClientName("tracing").setSelect(1));
+    final Tracer tracer = Factory.last;
+    final Context context = vertx.getOrCreateContext();
+
+    context.runOnContext(v -> {
+      rdx.set(key, "value", set -> {
+        rdx.incr(key, incr -> {
+          assertEquals(2, tracer.spans.size());
+
+          final JsonObject first = tracer.spans.get(0);
+          assertEquals("SET", first.getString("command"));
+          assertEquals(key, first.getString("key"));
+          assertEquals(1, (int) first.getInteger("db"));
+          assertTrue(first.getInteger("requestBytes") > 0);
+          // started on the context of the connection
+          assertTrue(first.getBoolean("context"));
+          assertTrue(first.getBoolean("written"));
+          // +OK\r\n
+          assertEquals(5, (int) first.getInteger("replyBytes"));
+          assertNull(first.getString("failure"));
+
+          final JsonObject second = tracer.spans.get(1);
+          assertEquals("INCR", second.getString("command"));
+          assertNotNull(second.getString("failure"));
+
+          rdx.close(close -> testComplete());
+        });
+      });
+    });
+
+    await();
+  }
+
+  @Test
+  public void testTracingMultipleReplies() {
+    final Context context = vertx.getOrCreateContext();
+
+    context.runOnContext(v -> {
+      // created on this context so the replies are handled right away, in order
+      final RedisClient rdx = RedisClient.create(vertx, getConfig().setClientName("tracing"));
+      final Tracer tracer = Factory.last;
+      final AtomicInteger replies = new AtomicInteger();
+
+      rdx.subscribeMany(Arrays.asList(makeKey(), makeKey()), subscribe -> {
+        assertTrue(subscribe.succeeded());
+        final JsonObject span = tracer.spans.get(0);
+
+        if (replies.incrementAndGet() == 1) {
+          // one reply per channel, the span ends with the last one
+          assertFalse(span.containsKey("replyBytes"));
+        } else {
+          assertEquals("SUBSCRIBE", span.getString("command"));
+          assertTrue(span.containsKey("replyBytes"));
+          rdx.close(close -> testComplete());
+        }
+      });
+    });
+
+    await();
+  }
+}